@@ -0,0 +1,31 @@
+package com.luggagestorage;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application on an in-memory H2 database for benchmarks that need the real services and
+ * repositories, with seed data, the socket server, the schedulers and file storage switched off.
+ */
+public class H2BenchmarkApplication {
+
+    public static ConfigurableApplicationContext start(String database) {
+        return SpringApplication.run(LuggageStorageApplication.class,
+                "--spring.profiles.active=benchmark",
+                "--spring.main.banner-mode=off",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--app.data.init.enabled=false",
+                "--file.storage.enabled=false",
+                "--socket.server.enabled=false",
+                "--scheduler.booking.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.luggagestorage=WARN");
+    }
+}
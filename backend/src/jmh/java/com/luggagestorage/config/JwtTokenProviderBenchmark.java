@@ -0,0 +1,59 @@
+package com.luggagestorage.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks JwtTokenProvider on the per-request authentication path: issuing a token,
+ * validating a token already in the claims cache, and validating a token seen for the first time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET =
+            "BenchmarkSecretKeyForJwtTokenProviderThatIsLongEnoughForTheHS512AlgorithmAndThenSomeMore";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String cachedToken;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "claimsCacheMaxSize", 10_000);
+        ReflectionTestUtils.setField(jwtTokenProvider, "statelessPrincipal", true);
+        ReflectionTestUtils.setField(jwtTokenProvider, "tokenDenyList", new TokenDenyList());
+        jwtTokenProvider.init();
+
+        cachedToken = jwtTokenProvider.generateTokenFromUsername("john@example.com", "ROLE_CUSTOMER");
+        jwtTokenProvider.validateToken(cachedToken);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtTokenProvider.generateTokenFromUsername("john@example.com", "ROLE_CUSTOMER");
+    }
+
+    @Benchmark
+    public boolean validateCached() {
+        return jwtTokenProvider.validateToken(cachedToken);
+    }
+
+    // Includes issuing the token, since every fresh token has to be signed before it can be verified
+    @Benchmark
+    public boolean generateAndValidate() {
+        return jwtTokenProvider.validateToken(
+                jwtTokenProvider.generateTokenFromUsername("john@example.com", "ROLE_CUSTOMER"));
+    }
+}
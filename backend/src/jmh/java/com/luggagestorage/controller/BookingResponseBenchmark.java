@@ -0,0 +1,93 @@
+package com.luggagestorage.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.dto.BookingResponse;
+import com.luggagestorage.model.enums.Role;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks turning a page of bookings into the JSON body of a listing endpoint:
+ * BookingController.convertToResponse for each entity, then Jackson serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingResponseBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private BookingController controller;
+    private MethodHandle convertToResponse;
+    private ObjectMapper objectMapper;
+    private List<Booking> bookings;
+    private List<BookingResponse> responses;
+
+    @Setup
+    public void setUp() throws Throwable {
+        // Same defaults Spring Boot applies to the application's ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        controller = new BookingController(null, null, null, objectMapper);
+        convertToResponse = MethodHandles.privateLookupIn(BookingController.class, MethodHandles.lookup())
+                .findVirtual(BookingController.class, "convertToResponse",
+                        MethodType.methodType(BookingResponse.class, Booking.class));
+
+        Person customer = new Person("john@example.com", "hash", "John", "Doe", Role.CUSTOMER);
+        customer.setId(1L);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+        bookings = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Locker locker = new Locker("L-" + i, Size.values()[i % Size.values().length], Status.OCCUPIED, 5.0);
+            locker.setId((long) i);
+            Booking booking = new Booking(customer, locker, base.plusHours(i), base.plusHours(i + 4));
+            booking.setId((long) i);
+            bookings.add(booking);
+        }
+
+        responses = new ArrayList<>();
+        for (Booking booking : bookings) {
+            responses.add((BookingResponse) convertToResponse.invoke(controller, booking));
+        }
+    }
+
+    @Benchmark
+    public List<BookingResponse> convert() throws Throwable {
+        List<BookingResponse> page = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            page.add((BookingResponse) convertToResponse.invoke(controller, booking));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return objectMapper.writeValueAsString(responses);
+    }
+
+    @Benchmark
+    public String convertAndSerialize() throws Throwable {
+        return objectMapper.writeValueAsString(convert());
+    }
+}
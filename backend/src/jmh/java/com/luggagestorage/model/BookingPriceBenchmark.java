@@ -0,0 +1,43 @@
+package com.luggagestorage.model;
+
+import com.luggagestorage.model.enums.Role;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Booking.calculatePrice, which runs on every booking created or extended.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookingPriceBenchmark {
+
+    @Param({"1", "24", "720"})
+    private int hours;
+
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        Person customer = new Person("john@example.com", "hash", "John", "Doe", Role.CUSTOMER);
+        Locker locker = new Locker("L-001", Size.MEDIUM, Status.AVAILABLE, 7.5);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+        booking = new Booking(customer, locker, start, start.plusHours(hours).plusMinutes(20));
+    }
+
+    @Benchmark
+    public double calculatePrice() {
+        return booking.calculatePrice();
+    }
+}
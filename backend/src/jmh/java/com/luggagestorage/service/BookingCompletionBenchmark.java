@@ -0,0 +1,120 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.H2BenchmarkApplication;
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.enums.BookingStatus;
+import com.luggagestorage.model.enums.Role;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import com.luggagestorage.repository.BookingRepository;
+import com.luggagestorage.repository.LockerRepository;
+import com.luggagestorage.repository.PersonRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks expiring a backlog of due bookings on H2: the set-based completeExpiredBookings
+ * against the previous scheduler loop calling completeBooking once per booking in one transaction.
+ * Every measured call starts from the same freshly seeded backlog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BookingCompletionBenchmark {
+
+    @Param({"10000"})
+    private int bookings;
+
+    @Param({"1000"})
+    private int lockers;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private LockerRepository lockerRepository;
+    private TransactionTemplate transactionTemplate;
+    private Person customer;
+    private List<Locker> lockerRows;
+    private List<Long> dueBookingIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = H2BenchmarkApplication.start("booking-completion");
+        bookingService = context.getBean(BookingService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        lockerRepository = context.getBean(LockerRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        customer = context.getBean(PersonRepository.class)
+                .save(new Person("benchmark@example.com", "hash", "Bench", "Mark", Role.CUSTOMER));
+        List<Locker> newLockers = new ArrayList<>();
+        for (int i = 0; i < lockers; i++) {
+            newLockers.add(new Locker("B-" + i, Size.values()[i % Size.values().length], Status.OCCUPIED, 5.0));
+        }
+        lockerRows = lockerRepository.saveAll(newLockers);
+    }
+
+    // Bookings of one hour each, back to back on every locker, all ended by now
+    @Setup(Level.Iteration)
+    public void seedDueBookings() {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingRepository.deleteAllInBatch();
+            lockerRepository.updateStatusForIds(lockerRows.stream().map(Locker::getId).collect(Collectors.toList()),
+                    Status.OCCUPIED);
+        });
+
+        LocalDateTime base = LocalDateTime.now().minusHours(bookings / lockers + 1L);
+        List<Booking> due = transactionTemplate.execute(status -> {
+            List<Booking> rows = new ArrayList<>(bookings);
+            for (int i = 0; i < bookings; i++) {
+                Locker locker = lockerRepository.getReferenceById(lockerRows.get(i % lockers).getId());
+                LocalDateTime start = base.plusHours(i / lockers);
+                Booking booking = new Booking(customer, locker, start, start.plusHours(1));
+                booking.setStatus(BookingStatus.ACTIVE);
+                booking.setTotalPrice(5.0);
+                rows.add(booking);
+            }
+            return bookingRepository.saveAll(rows);
+        });
+        dueBookingIds = due.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> setBased() {
+        return bookingService.completeExpiredBookings(dueBookingIds);
+    }
+
+    @Benchmark
+    public int perRow() {
+        return transactionTemplate.execute(status -> {
+            for (Long id : dueBookingIds) {
+                bookingService.completeBooking(id);
+            }
+            return dueBookingIds.size();
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package com.luggagestorage.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scheduler tick against the expiry queue: draining a backlog of due bookings,
+ * and the common case where nothing has expired yet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookingExpiryQueueBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @State(Scope.Thread)
+    public static class FilledQueue {
+
+        @Param({"10000"})
+        int bookings;
+
+        BookingExpiryQueue queue;
+
+        void fill() {
+            queue = new BookingExpiryQueue();
+            for (int i = 0; i < bookings; i++) {
+                queue.schedule((long) i, BASE.plusMinutes(i % 1440));
+            }
+        }
+    }
+
+    // Refilled before every call because draining empties the queue
+    public static class DrainedQueue extends FilledQueue {
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            fill();
+        }
+    }
+
+    public static class PendingQueue extends FilledQueue {
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            fill();
+        }
+    }
+
+    @Benchmark
+    public List<Long> pollAllExpired(DrainedQueue state) {
+        return state.queue.pollExpired(BASE.plusDays(1));
+    }
+
+    @Benchmark
+    public List<Long> pollNoneExpired(PendingQueue state) {
+        return state.queue.pollExpired(BASE.minusMinutes(1));
+    }
+}
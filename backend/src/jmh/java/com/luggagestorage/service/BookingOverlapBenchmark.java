@@ -0,0 +1,67 @@
+package com.luggagestorage.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the overlap check done before every reservation: the interval index against a
+ * linear scan over the locker's bookings, which is what the overlap query has to do per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookingOverlapBenchmark {
+
+    private static final Long LOCKER_ID = 1L;
+
+    @Param({"10", "1000"})
+    private int bookingsPerLocker;
+
+    private BookingIntervalIndex index;
+    private List<LocalDateTime[]> ranges;
+    private LocalDateTime freeStart;
+    private LocalDateTime freeEnd;
+
+    @Setup
+    public void setUp() {
+        index = new BookingIntervalIndex();
+        ranges = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < bookingsPerLocker; i++) {
+            LocalDateTime start = base.plusHours(3L * i);
+            LocalDateTime end = start.plusHours(2);
+            index.put((long) i, LOCKER_ID, start, end);
+            ranges.add(new LocalDateTime[]{start, end});
+        }
+
+        // The one-hour gap after the middle booking, so neither side can stop early
+        freeStart = base.plusHours(3L * (bookingsPerLocker / 2) + 2);
+        freeEnd = freeStart.plusHours(1);
+    }
+
+    @Benchmark
+    public boolean intervalIndex() {
+        return index.hasOverlap(LOCKER_ID, freeStart, freeEnd);
+    }
+
+    @Benchmark
+    public boolean linearScan() {
+        for (LocalDateTime[] range : ranges) {
+            if (range[0].isBefore(freeEnd) && range[1].isAfter(freeStart)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,143 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.enums.BookingStatus;
+import com.luggagestorage.model.enums.Role;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks FileStorageService snapshot writes and reads of the locker, booking and person datasets
+ * from 10k to 1M rows, in both the JSON and the binary snapshot format. Bookings reference a shared
+ * pool of lockers and customers, as they do in the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+// A million bookings with their nested locker and customer do not fit the default heap
+@Fork(jvmArgsAppend = "-Xmx6g")
+public class FileStorageBenchmark {
+
+    private static final int POOL_SIZE = 1000;
+
+    @Param({"lockers", "bookings", "persons"})
+    private String dataset;
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"json", "binary"})
+    private String format;
+
+    private FileStorageService fileStorageService;
+    private Path storageDir;
+    private String filename;
+    private Class<?> type;
+    private List<Object> data;
+
+    @Setup
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("file-storage-benchmark");
+
+        fileStorageService = new FileStorageService();
+        ReflectionTestUtils.setField(fileStorageService, "storageEnabled", true);
+        ReflectionTestUtils.setField(fileStorageService, "storagePath", storageDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "writeBehindEnabled", false);
+        ReflectionTestUtils.setField(fileStorageService, "storageFormat", format);
+        ReflectionTestUtils.setField(fileStorageService, "storageMode", "snapshot");
+        fileStorageService.init();
+        filename = dataset + ".json";
+
+        data = new ArrayList<>(rows);
+        switch (dataset) {
+            case "lockers":
+                type = Locker.class;
+                for (int i = 0; i < rows; i++) {
+                    data.add(locker(i));
+                }
+                break;
+            case "persons":
+                type = Person.class;
+                for (int i = 0; i < rows; i++) {
+                    data.add(person(i));
+                }
+                break;
+            default:
+                type = Booking.class;
+                List<Locker> lockerPool = new ArrayList<>();
+                List<Person> customerPool = new ArrayList<>();
+                for (int i = 0; i < POOL_SIZE; i++) {
+                    lockerPool.add(locker(i));
+                    customerPool.add(person(i));
+                }
+                LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+                for (int i = 0; i < rows; i++) {
+                    LocalDateTime start = base.plusHours(i / POOL_SIZE);
+                    Booking booking = new Booking(customerPool.get(i % POOL_SIZE), lockerPool.get(i % POOL_SIZE),
+                            start, start.plusHours(1 + i % 4));
+                    booking.setId((long) i);
+                    booking.setStatus(i % 3 == 0 ? BookingStatus.COMPLETED : BookingStatus.ACTIVE);
+                    booking.updateTotalPrice();
+                    data.add(booking);
+                }
+        }
+
+        fileStorageService.registerDataset(filename, type);
+        fileStorageService.saveToFile(data, filename);
+    }
+
+    private static Locker locker(int i) {
+        Locker locker = new Locker("L-" + i, Size.values()[i % Size.values().length], Status.AVAILABLE, 5.0,
+                "Terminal " + (i % 4), "Airport Road " + i, 44.43 + i * 1e-4, 26.10 + i * 1e-4,
+                "Level " + (i % 3), "Section " + (char) ('A' + i % 6));
+        locker.setId((long) i);
+        return locker;
+    }
+
+    private static Person person(int i) {
+        Person person = new Person("customer" + i + "@example.com", "$2a$10$hashedpasswordplaceholder" + i,
+                "Customer", "No" + i, i % 50 == 0 ? Role.ADMIN : Role.CUSTOMER);
+        person.setId((long) i);
+        return person;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(storageDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        fileStorageService.saveToFile(data, filename);
+    }
+
+    @Benchmark
+    public List<?> load() throws IOException {
+        return fileStorageService.loadFromFile(filename, type);
+    }
+}
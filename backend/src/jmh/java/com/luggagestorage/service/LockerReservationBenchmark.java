@@ -0,0 +1,133 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.H2BenchmarkApplication;
+import com.luggagestorage.exception.LockerNotAvailableException;
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.enums.BookingStatus;
+import com.luggagestorage.model.enums.Role;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import com.luggagestorage.repository.BookingRepository;
+import com.luggagestorage.repository.LockerRepository;
+import com.luggagestorage.repository.PersonRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks concurrent reservations on H2: BookingService.createBooking with the striped in-process
+ * lock and the optimistic locker version, against the path it replaced, a SERIALIZABLE transaction
+ * that takes a pessimistic write lock on the locker row. Every call books a fresh slot, so failures
+ * come from locking alone. The baseline skips the in-memory index upkeep, which only favours it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class LockerReservationBenchmark {
+
+    @Param({"striped", "serializable"})
+    private String locking;
+
+    @Param({"1", "100"})
+    private int lockers;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private LockerService lockerService;
+    private EntityManager entityManager;
+    private TransactionTemplate serializable;
+    private Long customerId;
+    private List<Long> lockerIds;
+    private final AtomicLong slots = new AtomicLong();
+    private LocalDateTime base;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = H2BenchmarkApplication.start("locker-reservation-" + locking + "-" + lockers);
+        bookingService = context.getBean(BookingService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        lockerService = context.getBean(LockerService.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        serializable = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        serializable.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+
+        customerId = context.getBean(PersonRepository.class)
+                .save(new Person("benchmark@example.com", "hash", "Bench", "Mark", Role.CUSTOMER)).getId();
+        List<Locker> newLockers = new ArrayList<>();
+        for (int i = 0; i < lockers; i++) {
+            newLockers.add(new Locker("R-" + i, Size.MEDIUM, Status.AVAILABLE, 5.0));
+        }
+        lockerIds = new ArrayList<>();
+        context.getBean(LockerRepository.class).saveAll(newLockers).forEach(locker -> lockerIds.add(locker.getId()));
+        base = LocalDateTime.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Returns whether the reservation went through; losing a lock race counts as a failed call
+    @Benchmark
+    public boolean reserve() {
+        long slot = slots.getAndIncrement();
+        Long lockerId = lockerIds.get((int) (slot % lockers));
+        LocalDateTime start = base.plusHours(slot / lockers);
+        try {
+            if ("serializable".equals(locking)) {
+                reserveSerializable(lockerId, start, start.plusHours(1));
+            } else {
+                bookingService.createBooking(customerId, lockerId, start, start.plusHours(1));
+            }
+            return true;
+        } catch (LockerNotAvailableException | DataAccessException | TransactionException e) {
+            return false;
+        }
+    }
+
+    // The reservation as it was before the striped locks: row lock first, then the same checks and writes
+    private Booking reserveSerializable(Long lockerId, LocalDateTime start, LocalDateTime end) {
+        return serializable.execute(status -> {
+            Locker locker = entityManager.find(Locker.class, lockerId, LockModeType.PESSIMISTIC_WRITE);
+            if (!bookingRepository.findOverlappingBookings(lockerId, start, end).isEmpty()) {
+                throw new LockerNotAvailableException("Locker is already booked during the requested time period",
+                        lockerId);
+            }
+
+            Booking booking = new Booking(entityManager.getReference(Person.class, customerId), locker, start, end);
+            booking.setStatus(BookingStatus.ACTIVE);
+            booking.updateTotalPrice();
+            Booking savedBooking = bookingRepository.save(booking);
+            lockerService.updateLockerStatus(lockerId, Status.OCCUPIED);
+            return savedBooking;
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.luggagestorage.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reservation throughput under contention on the striped locker locks. Each operation
+ * emulates one booking transaction: take the stripe, do a little work, complete the transaction.
+ * A single locker puts every thread on one stripe; many lockers spread them out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class LockerReservationLocksBenchmark {
+
+    @Param({"1", "1000"})
+    private int lockers;
+
+    @Param({"64"})
+    private int stripes;
+
+    private LockerReservationLocks locks;
+
+    @Setup
+    public void setUp() {
+        locks = new LockerReservationLocks(stripes, 5000L);
+    }
+
+    @Benchmark
+    public void reserve(Blackhole blackhole) {
+        long lockerId = 1 + ThreadLocalRandom.current().nextInt(lockers);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            locks.lockUntilTransactionCompletes(lockerId);
+            Blackhole.consumeCPU(100);
+            blackhole.consume(lockerId);
+        } finally {
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.luggagestorage.socket;
+
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.dto.BookingResponse;
+import com.luggagestorage.model.enums.BookingStatus;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import com.luggagestorage.service.BookingService;
+import com.luggagestorage.service.LockerService;
+import com.luggagestorage.service.LockerStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks SocketService.processCommand for the read commands socket clients poll.
+ * The services are stubbed, so the numbers cover command dispatch and JSON rendering only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SocketCommandBenchmark {
+
+    @Param({"STATUS", "STATS", "LOCKERS", "BOOKINGS", "HELP"})
+    private String command;
+
+    @Param({"100"})
+    private int rows;
+
+    private SocketService socketService;
+
+    @Setup
+    public void setUp() {
+        List<Locker> lockers = new ArrayList<>();
+        List<BookingResponse> bookings = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+        for (int i = 0; i < rows; i++) {
+            Locker locker = new Locker("L-" + i, Size.values()[i % Size.values().length], Status.AVAILABLE, 5.0);
+            locker.setId((long) i);
+            locker.setLocationName("Terminal " + (i % 4));
+            lockers.add(locker);
+
+            BookingResponse booking = new BookingResponse();
+            booking.setId((long) i);
+            booking.setLockerId((long) i);
+            booking.setLockerNumber(locker.getLockerNumber());
+            booking.setLockerSize(locker.getSize());
+            booking.setCustomerId(1L);
+            booking.setCustomerName("John Doe");
+            booking.setStartDatetime(base.plusHours(i));
+            booking.setEndDatetime(base.plusHours(i + 4));
+            booking.setStatus(BookingStatus.ACTIVE);
+            booking.setTotalPrice(20.0);
+            booking.setDurationInHours(4L);
+            bookings.add(booking);
+        }
+
+        BookingService bookingService = mock(BookingService.class);
+        LockerService lockerService = mock(LockerService.class);
+        when(lockerService.getAvailableLockers()).thenReturn(lockers);
+        when(bookingService.getBookingResponses(BookingStatus.ACTIVE, null, null)).thenReturn(bookings);
+
+        SocketServerMetrics metrics = new SocketServerMetrics();
+        socketService = new SocketService(bookingService, lockerService,
+                new LockerStatistics(null, null, null), metrics, new SocketSubscriptionRegistry(metrics));
+    }
+
+    @Benchmark
+    public String processCommand() {
+        return socketService.processCommand(command);
+    }
+}
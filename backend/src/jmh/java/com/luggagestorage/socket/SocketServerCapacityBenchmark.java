@@ -0,0 +1,128 @@
+package com.luggagestorage.socket;
+
+import com.luggagestorage.util.VirtualThreads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks how long the blocking socket server takes to serve a burst of concurrent connections,
+ * with the fixed client thread pool against a virtual thread per connection.
+ * Each command sleeps for workMillis to stand in for the JDBC call behind it.
+ * The virtual mode needs a JDK 21 runtime: mvn -Pbenchmarks,jdk21 verify -Djmh.args="SocketServerCapacity"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SocketServerCapacityBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"100", "1000"})
+    private int connections;
+
+    @Param({"5"})
+    private int workMillis;
+
+    private SocketServer server;
+    private ExecutorService clients;
+    private int port;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && !VirtualThreads.isSupported()) {
+            throw new IllegalStateException("The virtual mode needs Java 21 or newer, running on "
+                    + System.getProperty("java.version"));
+        }
+
+        SocketService socketService = mock(SocketService.class);
+        when(socketService.commandName(anyString())).thenReturn("STATUS");
+        when(socketService.processCommand(anyString(), any())).thenAnswer(invocation -> {
+            Thread.sleep(workMillis);
+            return "{\"status\":\"ok\"}";
+        });
+
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+
+        SocketServerMetrics metrics = new SocketServerMetrics();
+        server = new SocketServer(socketService, metrics, new SocketSubscriptionRegistry(metrics));
+        ReflectionTestUtils.setField(server, "port", port);
+        ReflectionTestUtils.setField(server, "enabled", true);
+        ReflectionTestUtils.setField(server, "threadPoolSize", 10);
+        ReflectionTestUtils.setField(server, "mode", "blocking");
+        ReflectionTestUtils.setField(server, "subscriptionQueueCapacity", 256);
+        ReflectionTestUtils.setField(server, "virtualThreads", virtual);
+        server.start();
+        while (!server.isRunning()) {
+            Thread.sleep(10);
+        }
+
+        clients = Executors.newFixedThreadPool(connections);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clients.shutdownNow();
+        server.stop();
+    }
+
+    @Benchmark
+    public int serveConcurrentConnections() throws Exception {
+        List<Callable<Integer>> sessions = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            sessions.add(this::session);
+        }
+
+        int served = 0;
+        for (Future<Integer> session : clients.invokeAll(sessions)) {
+            served += session.get();
+        }
+        return served;
+    }
+
+    // Connects, runs one command and quits, so a pooled client thread is freed for the next connection
+    private int session() throws IOException {
+        try (Socket socket = new Socket("localhost", port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
+            in.readLine();
+            out.println("STATUS");
+            String response = in.readLine();
+            out.println("QUIT");
+            in.readLine();
+            return response != null ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.luggagestorage.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// One customer clicking through the web app: logs in, searches for lockers, books one of the first
+// results and cancels some of its bookings. Everyone books from the same few time windows and
+// prefers the top results, so concurrent customers regularly race for the same locker.
+class CustomerSession implements Runnable {
+
+    static final String PASSWORD = "CustomerPassword123!";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int WINDOWS_PER_DAY = 10;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String email;
+    private final LatencyRecorder recorder;
+    private final Random random;
+    private final long thinkTimeMs;
+    private final long deadlineNanos;
+
+    private final List<Long> bookingIds = new ArrayList<>();
+    private String token;
+
+    CustomerSession(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, String email,
+                    LatencyRecorder recorder, long seed, long thinkTimeMs, long deadlineNanos) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.recorder = recorder;
+        this.random = new Random(seed);
+        this.thinkTimeMs = thinkTimeMs;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public void run() {
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            try {
+                if (token == null || random.nextDouble() < 0.05) {
+                    login();
+                }
+
+                double action = random.nextDouble();
+                if (action < 0.45) {
+                    search(window());
+                } else if (action < 0.80) {
+                    book();
+                } else {
+                    cancel();
+                }
+
+                if (thinkTimeMs > 0) {
+                    Thread.sleep(thinkTimeMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    boolean register() throws InterruptedException {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("email", email);
+        body.put("password", PASSWORD);
+        body.put("firstName", "Load");
+        body.put("lastName", "Customer");
+        body.put("role", "CUSTOMER");
+
+        JsonNode response = send("register", request("/api/auth/register").POST(json(body)), 201);
+        if (response != null) {
+            token = response.path("token").asText(null);
+        }
+        return response != null;
+    }
+
+    private void login() throws InterruptedException {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("email", email);
+        body.put("password", PASSWORD);
+
+        JsonNode response = send("login", request("/api/auth/login").POST(json(body)), 200);
+        if (response != null) {
+            token = response.path("token").asText(null);
+        }
+    }
+
+    private JsonNode search(LocalDateTime[] window) throws InterruptedException {
+        return send("search", request("/api/lockers/available/time-range?startTime=" + window[0]
+                + "&endTime=" + window[1]).GET(), 200);
+    }
+
+    private void book() throws InterruptedException {
+        LocalDateTime[] window = window();
+        JsonNode lockers = search(window);
+        if (lockers == null || lockers.size() == 0) {
+            return;
+        }
+
+        JsonNode locker = lockers.get(random.nextInt(Math.min(3, lockers.size())));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("lockerId", locker.path("id").asLong());
+        body.put("startDatetime", window[0].toString());
+        body.put("endDatetime", window[1].toString());
+
+        JsonNode booking = send("book", authorized("/api/bookings").POST(json(body)), 201);
+        if (booking != null) {
+            bookingIds.add(booking.path("id").asLong());
+        }
+    }
+
+    private void cancel() throws InterruptedException {
+        if (bookingIds.isEmpty()) {
+            search(window());
+            return;
+        }
+
+        Long bookingId = bookingIds.remove(random.nextInt(bookingIds.size()));
+        send("cancel", authorized("/api/bookings/" + bookingId + "/cancel")
+                .PUT(HttpRequest.BodyPublishers.noBody()), 200);
+    }
+
+    // Two-hour windows on whole hours over the next three days
+    private LocalDateTime[] window() {
+        LocalDateTime start = LocalDate.now().plusDays(1 + random.nextInt(3))
+                .atTime(8 + random.nextInt(WINDOWS_PER_DAY), 0);
+        return new LocalDateTime[]{start, start.plusHours(2)};
+    }
+
+    private JsonNode send(String operation, HttpRequest.Builder builder, int expectedStatus)
+            throws InterruptedException {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            long latency = System.nanoTime() - started;
+
+            if (response.statusCode() == expectedStatus) {
+                recorder.success(operation, latency);
+                return objectMapper.readTree(response.body());
+            }
+            if (response.statusCode() == 409) {
+                recorder.conflict(operation, latency);
+            } else {
+                if (response.statusCode() == 401) {
+                    token = null;
+                }
+                recorder.error(operation);
+            }
+        } catch (IOException e) {
+            recorder.error(operation);
+        }
+        return null;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return request(path).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalStateException("Request body could not be serialized", e);
+        }
+    }
+}
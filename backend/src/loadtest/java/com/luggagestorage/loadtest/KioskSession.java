@@ -0,0 +1,72 @@
+package com.luggagestorage.loadtest;
+
+import com.luggagestorage.socket.SocketClient;
+
+import java.io.IOException;
+import java.util.Random;
+
+// A station kiosk polling the raw socket server the way the terminal display does
+class KioskSession implements Runnable {
+
+    private static final String[] COMMANDS = {"STATUS", "LOCKERS", "LOCKERS", "STATS", "BOOKINGS"};
+
+    private final String host;
+    private final int port;
+    private final LatencyRecorder recorder;
+    private final Random random;
+    private final long thinkTimeMs;
+    private final long deadlineNanos;
+
+    KioskSession(String host, int port, LatencyRecorder recorder, long seed, long thinkTimeMs, long deadlineNanos) {
+        this.host = host;
+        this.port = port;
+        this.recorder = recorder;
+        this.random = new Random(seed);
+        this.thinkTimeMs = thinkTimeMs;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public void run() {
+        SocketClient client = new SocketClient(host, port);
+        long started = System.nanoTime();
+        try {
+            client.connect();
+            recorder.success("socket connect", System.nanoTime() - started);
+        } catch (IOException e) {
+            recorder.error("socket connect");
+            return;
+        }
+
+        try {
+            while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+                String command = COMMANDS[random.nextInt(COMMANDS.length)];
+                String operation = "socket " + command;
+                long sent = System.nanoTime();
+                try {
+                    String response = client.sendCommand(command);
+                    if (response == null) {
+                        recorder.error(operation);
+                        return;
+                    }
+                    if (response.startsWith("{\"error\"")) {
+                        recorder.error(operation);
+                    } else {
+                        recorder.success(operation, System.nanoTime() - sent);
+                    }
+                } catch (IOException e) {
+                    recorder.error(operation);
+                    return;
+                }
+
+                if (thinkTimeMs > 0) {
+                    Thread.sleep(thinkTimeMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            client.disconnect();
+        }
+    }
+}
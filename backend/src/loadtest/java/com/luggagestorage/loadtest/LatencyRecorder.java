@@ -0,0 +1,146 @@
+package com.luggagestorage.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Latencies per operation name. Every sample is kept and sorted once for the report, which is
+// exact and cheap enough for runs of a few minutes.
+class LatencyRecorder {
+
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private volatile long windowStartNanos = System.nanoTime();
+
+    void success(String operation, long latencyNanos) {
+        stats(operation).record(latencyNanos, false);
+    }
+
+    // The request was served but lost the locker to another booking
+    void conflict(String operation, long latencyNanos) {
+        stats(operation).record(latencyNanos, true);
+    }
+
+    void error(String operation) {
+        stats(operation).error();
+    }
+
+    // Drops the warm-up samples and starts the measured window
+    void reset() {
+        operations.clear();
+        windowStartNanos = System.nanoTime();
+    }
+
+    List<Summary> summarize() {
+        double seconds = Math.max(1e-9, (System.nanoTime() - windowStartNanos) / 1e9);
+        List<Summary> summaries = new ArrayList<>();
+        new TreeMap<>(operations).forEach((name, stats) -> summaries.add(stats.summarize(name, seconds)));
+        return summaries;
+    }
+
+    private OperationStats stats(String operation) {
+        return operations.computeIfAbsent(operation, name -> new OperationStats());
+    }
+
+    private static final class OperationStats {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long conflicts;
+        private long errors;
+
+        synchronized void record(long latencyNanos, boolean conflict) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (conflict) {
+                conflicts++;
+            }
+        }
+
+        synchronized void error() {
+            errors++;
+        }
+
+        synchronized Summary summarize(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Summary(name, count, conflicts, errors, count / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    count == 0 ? 0.0 : sorted[count - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+    }
+
+    static final class Summary {
+
+        private final String operation;
+        private final long count;
+        private final long conflicts;
+        private final long errors;
+        private final double throughputPerSecond;
+        private final double p50Ms;
+        private final double p99Ms;
+        private final double p999Ms;
+        private final double maxMs;
+
+        Summary(String operation, long count, long conflicts, long errors, double throughputPerSecond,
+                double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+            this.operation = operation;
+            this.count = count;
+            this.conflicts = conflicts;
+            this.errors = errors;
+            this.throughputPerSecond = throughputPerSecond;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+            this.p999Ms = p999Ms;
+            this.maxMs = maxMs;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getConflicts() {
+            return conflicts;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughputPerSecond() {
+            return throughputPerSecond;
+        }
+
+        public double getP50Ms() {
+            return p50Ms;
+        }
+
+        public double getP99Ms() {
+            return p99Ms;
+        }
+
+        public double getP999Ms() {
+            return p999Ms;
+        }
+
+        public double getMaxMs() {
+            return maxMs;
+        }
+    }
+}
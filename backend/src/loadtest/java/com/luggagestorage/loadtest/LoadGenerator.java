@@ -0,0 +1,177 @@
+package com.luggagestorage.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.luggagestorage.LuggageStorageApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Boots the application on an in-memory H2 database and drives it through all three channels at
+ * once: REST customers, /ws STOMP dashboard subscribers and raw socket kiosks. Prints throughput,
+ * p50/p99/p99.9 latency, booking conflicts and errors per operation, and optionally writes them as
+ * JSON. Settings are read from system properties:
+ *
+ * <pre>
+ * loadtest.duration-seconds  measured window (60)
+ * loadtest.warmup-seconds    load applied before measuring starts (10)
+ * loadtest.customers         concurrent REST customers (20)
+ * loadtest.stomp-subscribers STOMP sessions on /ws (10)
+ * loadtest.kiosks            socket client sessions (5)
+ * loadtest.think-time-ms     pause between actions of one customer or kiosk (20)
+ * loadtest.seed              random seed for the action mix (42)
+ * loadtest.report            JSON report file (none)
+ * </pre>
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        long durationSeconds = Long.getLong("loadtest.duration-seconds", 60);
+        long warmupSeconds = Long.getLong("loadtest.warmup-seconds", 10);
+        int customers = Integer.getInteger("loadtest.customers", 20);
+        int stompSubscribers = Integer.getInteger("loadtest.stomp-subscribers", 10);
+        int kiosks = Integer.getInteger("loadtest.kiosks", 5);
+        long thinkTimeMs = Long.getLong("loadtest.think-time-ms", 20);
+        long seed = Long.getLong("loadtest.seed", 42);
+        String reportPath = System.getProperty("loadtest.report");
+
+        int socketPort = freePort();
+        ConfigurableApplicationContext context = SpringApplication.run(LuggageStorageApplication.class,
+                "--spring.profiles.active=loadtest",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--file.storage.enabled=false",
+                "--socket.server.port=" + socketPort,
+                "--logging.level.root=WARN",
+                "--logging.level.com.luggagestorage=WARN");
+
+        int exitCode = 0;
+        try {
+            int httpPort = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            Map<String, Object> report = run(httpPort, socketPort, durationSeconds, warmupSeconds,
+                    customers, stompSubscribers, kiosks, thinkTimeMs, seed);
+            if (reportPath != null && !reportPath.isEmpty()) {
+                writeReport(report, new File(reportPath));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    private static Map<String, Object> run(int httpPort, int socketPort, long durationSeconds, long warmupSeconds,
+                                           int customers, int stompSubscribers, int kiosks,
+                                           long thinkTimeMs, long seed) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        LongAdder stompMessages = new LongAdder();
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String baseUrl = "http://localhost:" + httpPort;
+
+        List<StompSubscriber> subscribers = new ArrayList<>();
+        for (int i = 0; i < stompSubscribers; i++) {
+            StompSubscriber subscriber = new StompSubscriber("ws://localhost:" + httpPort + "/ws",
+                    recorder, stompMessages);
+            subscriber.connect();
+            subscribers.add(subscriber);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+        List<Runnable> sessions = new ArrayList<>();
+        for (int i = 0; i < customers; i++) {
+            CustomerSession customer = new CustomerSession(httpClient, objectMapper, baseUrl,
+                    "loadtest-" + i + "@example.com", recorder, seed + i, thinkTimeMs, deadline);
+            if (!customer.register()) {
+                throw new IllegalStateException("Load test customer " + i + " could not be registered");
+            }
+            sessions.add(customer);
+        }
+        for (int i = 0; i < kiosks; i++) {
+            sessions.add(new KioskSession("localhost", socketPort, recorder, seed + customers + i,
+                    thinkTimeMs, deadline));
+        }
+
+        System.out.printf("Load test: %d customers, %d STOMP subscribers, %d kiosks, %ds warm-up, %ds measured%n",
+                customers, stompSubscribers, kiosks, warmupSeconds, durationSeconds);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, sessions.size()));
+        sessions.forEach(executor::execute);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+        recorder.reset();
+        stompMessages.reset();
+
+        executor.shutdown();
+        if (!executor.awaitTermination(durationSeconds + 60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        List<LatencyRecorder.Summary> summaries = recorder.summarize();
+        long delivered = stompMessages.sum();
+        subscribers.forEach(StompSubscriber::disconnect);
+
+        printReport(summaries, delivered, durationSeconds);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("customers", customers);
+        report.put("stompSubscribers", stompSubscribers);
+        report.put("kiosks", kiosks);
+        report.put("durationSeconds", durationSeconds);
+        report.put("operations", summaries);
+        report.put("stompMessagesDelivered", delivered);
+        return report;
+    }
+
+    private static void printReport(List<LatencyRecorder.Summary> summaries, long stompMessages, long durationSeconds) {
+        System.out.printf("%n%-18s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+                "operation", "count", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "conflicts", "errors");
+        for (LatencyRecorder.Summary summary : summaries) {
+            System.out.printf("%-18s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9d %7d%n",
+                    summary.getOperation(), summary.getCount(), summary.getThroughputPerSecond(),
+                    summary.getP50Ms(), summary.getP99Ms(), summary.getP999Ms(), summary.getMaxMs(),
+                    summary.getConflicts(), summary.getErrors());
+        }
+        System.out.printf("%nSTOMP messages delivered: %d (%.1f/s)%n",
+                stompMessages, stompMessages / (double) Math.max(1, durationSeconds));
+    }
+
+    private static void writeReport(Map<String, Object> report, File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null) {
+            directory.mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.luggagestorage.loadtest;
+
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// A dashboard tab: one /ws STOMP session subscribed to the booking and locker topics
+class StompSubscriber {
+
+    private static final String[] TOPICS = {"/topic/bookings", "/topic/lockers"};
+
+    private final WebSocketStompClient stompClient;
+    private final String url;
+    private final LatencyRecorder recorder;
+    private final LongAdder messages;
+    private StompSession session;
+
+    StompSubscriber(String url, LatencyRecorder recorder, LongAdder messages) {
+        this.stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        // Payloads are only counted, so they are not decoded
+        this.stompClient.setMessageConverter(new ByteArrayMessageConverter() {
+            @Override
+            protected boolean supportsMimeType(MessageHeaders headers) {
+                return true;
+            }
+        });
+        this.url = url;
+        this.recorder = recorder;
+        this.messages = messages;
+    }
+
+    void connect() {
+        long started = System.nanoTime();
+        try {
+            session = stompClient.connect(url, new StompSessionHandlerAdapter() { }).get(10, TimeUnit.SECONDS);
+            for (String topic : TOPICS) {
+                session.subscribe(topic, new StompFrameHandler() {
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return byte[].class;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        messages.increment();
+                    }
+                });
+            }
+            recorder.success("stomp connect", System.nanoTime() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recorder.error("stomp connect");
+        } catch (Exception e) {
+            recorder.error("stomp connect");
+        }
+    }
+
+    void disconnect() {
+        if (session != null && session.isConnected()) {
+            session.disconnect();
+        }
+        stompClient.stop();
+    }
+}
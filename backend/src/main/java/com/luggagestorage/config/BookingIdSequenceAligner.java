@@ -0,0 +1,48 @@
+package com.luggagestorage.config;
+
+import com.luggagestorage.model.Booking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+// Bookings created before the move from IDENTITY ids to the pooled booking_seq generator would
+// collide with the first generated block. On MySQL the sequence is a one-row table, so it is moved
+// past the highest existing id before anything is inserted. Real sequences are left alone.
+@Component
+@DependsOn("entityManagerFactory")
+public class BookingIdSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingIdSequenceAligner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BookingIdSequenceAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        Long nextValue;
+        try {
+            nextValue = jdbcTemplate.queryForObject("SELECT next_val FROM booking_seq", Long.class);
+        } catch (DataAccessException e) {
+            logger.debug("booking_seq is not a table, nothing to align: {}", e.getMessage());
+            return;
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM bookings", Long.class);
+        // The pooled optimizer hands out the block ending at the value it reads
+        long required = maxId + Booking.ID_ALLOCATION_SIZE + 1;
+        if (maxId > 0 && (nextValue == null || nextValue < required)) {
+            jdbcTemplate.update("UPDATE booking_seq SET next_val = ?", required);
+            logger.info("Moved booking_seq from {} to {} past existing booking ids", nextValue, required);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.luggagestorage.config;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+// Claims of tokens whose signature has already been verified, keyed by a SHA-256 digest of the token
+// so raw tokens are not kept in memory. Entries are dropped once the token itself expires.
+class JwtClaimsCache {
+
+    private final int maxSize;
+    private final Map<String, Claims> entries;
+    private final Lock lock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    JwtClaimsCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Claims> eldest) {
+                return size() > JwtClaimsCache.this.maxSize;
+            }
+        };
+    }
+
+    Claims get(String token, Date now) {
+        String key = digest(token);
+        lock.lock();
+        try {
+            Claims claims = entries.get(key);
+            if (claims != null && isExpired(claims, now)) {
+                entries.remove(key);
+                claims = null;
+            }
+            if (claims == null) {
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+            return claims;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(String token, Claims claims) {
+        String key = digest(token);
+        lock.lock();
+        try {
+            entries.put(key, claims);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidate(String token) {
+        String key = digest(token);
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidateIf(Predicate<Claims> predicate) {
+        lock.lock();
+        try {
+            entries.values().removeIf(predicate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    private static boolean isExpired(Claims claims, Date now) {
+        return claims.getExpiration() != null && !claims.getExpiration().after(now);
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
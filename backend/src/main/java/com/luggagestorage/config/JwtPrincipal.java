@@ -0,0 +1,49 @@
+package com.luggagestorage.config;
+
+import com.luggagestorage.model.enums.Role;
+
+import java.security.Principal;
+
+// Authenticated user built from token claims alone, so identifying the caller needs no database read.
+public final class JwtPrincipal implements Principal {
+
+    private final Long id;
+    private final String email;
+    private final Role role;
+
+    public JwtPrincipal(Long id, String email, Role role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return role == Role.ADMIN;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal{" +
+                "id=" + id +
+                ", email='" + email + '\'' +
+                ", role=" + role +
+                '}';
+    }
+}
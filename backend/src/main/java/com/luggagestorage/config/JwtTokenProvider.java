@@ -1,11 +1,16 @@
 package com.luggagestorage.config;
 
+import com.luggagestorage.model.Person;
 import com.luggagestorage.model.enums.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -16,12 +21,17 @@ import javax.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
-public class JwtTokenProvider {
+public class JwtTokenProvider implements MeterBinder {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
 
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -29,12 +39,30 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    // When enabled, requests carrying a token with id and role claims are authenticated without loading the user
+    @Value("${jwt.stateless-principal:true}")
+    private boolean statelessPrincipal;
+
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
     private Key key;
+    private JwtParser parser;
+    private JwtClaimsCache claimsCache;
+    private volatile MeterRegistry registry;
 
     @PostConstruct
     public void init() {
 
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        // JwtParser is immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.claimsCache = new JwtClaimsCache(claimsCacheMaxSize);
     }
 
     public String generateToken(Authentication authentication) {
@@ -55,33 +83,56 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String generateTokenForPerson(Person person) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(person.getEmail())
+                .claim("roles", person.getRole().getAuthority())
+                .claim(USER_ID_CLAIM, person.getId())
+                .claim(ROLE_CLAIM, person.getRole().name())
+                .setIssuedAt(now)
+                .setExpiration(expiryDate)
+                .signWith(key, SignatureAlgorithm.HS512)
+                .compact();
+    }
 
-        return claims.getSubject();
+    public String getUsernameFromToken(String token) {
+        return getClaims(token).getSubject();
     }
 
     public String getRolesFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getClaims(token).get("roles", String.class);
+    }
 
-        return claims.get("roles", String.class);
+    // Verifies the token once and returns its claims, or empty if it is not valid
+    public Optional<Claims> getValidatedClaims(String token) {
+        long started = System.nanoTime();
+        Optional<Claims> claims = verify(token);
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            meterRegistry.timer("jwt.validations", "outcome", claims.isPresent() ? "valid" : "invalid")
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        return claims;
     }
 
-    public boolean validateToken(String token) {
+    private Optional<Claims> verify(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            Claims claims = getClaims(token);
+            if (tokenDenyList.isDenied(claims.getId())) {
+                logger.debug("Rejected revoked JWT token {}", claims.getId());
+                return Optional.empty();
+            }
+            Long userId = claims.get(USER_ID_CLAIM, Long.class);
+            if (tokenDenyList.isRevoked(userId, claims.getIssuedAt())) {
+                logger.debug("Rejected JWT token issued before user {} was changed", userId);
+                claimsCache.invalidate(token);
+                return Optional.empty();
+            }
+            return Optional.of(claims);
         } catch (SignatureException ex) {
             logger.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -93,18 +144,53 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
     }
 
-    public boolean isTokenExpired(String token) {
+    public boolean validateToken(String token) {
+        return getValidatedClaims(token).isPresent();
+    }
+
+    // Tokens issued before id and role claims were added fall back to a user lookup
+    public Optional<JwtPrincipal> getPrincipal(Claims claims) {
+        if (!statelessPrincipal) {
+            return Optional.empty();
+        }
+
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return Optional.empty();
+        }
+
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return Optional.of(new JwtPrincipal(userId, claims.getSubject(), Role.valueOf(role)));
+        } catch (IllegalArgumentException ex) {
+            logger.error("Unknown role in JWT token: {}", role);
+            return Optional.empty();
+        }
+    }
+
+    public void revokeToken(String token) {
+        getValidatedClaims(token).ifPresent(claims -> {
+            tokenDenyList.deny(claims.getId(), claims.getExpiration());
+            claimsCache.invalidate(token);
+            logger.debug("Revoked JWT token {}", claims.getId());
+        });
+    }
+
+    // Rejects every token of the user issued so far, so a changed role or email is not carried on by
+    // stateless principals built from the old claims
+    public void revokeUserTokens(Long userId) {
+        Date now = new Date();
+        tokenDenyList.revokeUser(userId, now, new Date(now.getTime() + jwtExpirationMs));
+        claimsCache.invalidateIf(claims -> userId.equals(claims.get(USER_ID_CLAIM, Long.class)));
+        logger.debug("Revoked JWT tokens of user {}", userId);
+    }
 
-            return claims.getExpiration().before(new Date());
+    public boolean isTokenExpired(String token) {
+        try {
+            return getClaims(token).getExpiration().before(new Date());
         } catch (ExpiredJwtException ex) {
             return true;
         } catch (Exception ex) {
@@ -113,12 +199,37 @@ public class JwtTokenProvider {
     }
 
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getClaims(token).getExpiration();
+    }
+
+    private Claims getClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT string is empty");
+        }
+
+        Claims claims = claimsCache.get(token, new Date());
+        if (claims == null) {
+            // Throws for bad signatures and expired tokens, so only verified claims are cached
+            claims = parser.parseClaimsJws(token).getBody();
+            claimsCache.put(token, claims);
+        }
+        return claims;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("jwt.claims.cache.requests", this, provider -> provider.claimsCache.getHits())
+                .tag("result", "hit")
+                .description("Token lookups answered from the verified claims cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.claims.cache.requests", this, provider -> provider.claimsCache.getMisses())
+                .tag("result", "miss")
+                .description("Token lookups that had to verify the signature")
+                .register(meterRegistry);
+        this.registry = meterRegistry;
+    }
 
-        return claims.getExpiration();
+    JwtClaimsCache getClaimsCache() {
+        return claimsCache;
     }
 }
@@ -61,12 +61,14 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers(HttpMethod.GET, "/api/lockers", "/api/lockers/**").permitAll()
                 .antMatchers("/ws/**").permitAll()
                 .antMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                .antMatchers("/actuator/health", "/actuator/prometheus").permitAll()
 
                 .antMatchers(HttpMethod.POST, "/api/lockers/**").hasRole("ADMIN")
                 .antMatchers(HttpMethod.PUT, "/api/lockers/**").hasRole("ADMIN")
                 .antMatchers(HttpMethod.DELETE, "/api/lockers/**").hasRole("ADMIN")
                 .antMatchers("/api/persons/**").hasRole("ADMIN")
                 .antMatchers(HttpMethod.GET, "/api/bookings").hasRole("ADMIN")
+                .antMatchers("/actuator/**").hasRole("ADMIN")
 
                 .antMatchers("/api/bookings/**").hasAnyRole("CUSTOMER", "ADMIN")
 
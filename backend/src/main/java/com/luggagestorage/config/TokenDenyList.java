@@ -0,0 +1,77 @@
+package com.luggagestorage.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revoked token ids, plus a per-user cut-off for tokens issued before a role, email or account change.
+// An entry only has to outlive the tokens it rejects, so the list stays as small as the number of
+// logouts and account changes within one token lifetime.
+@Component
+public class TokenDenyList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenyList.class);
+
+    private final Map<String, Long> expiryByTokenId = new ConcurrentHashMap<>();
+    private final Map<Long, UserRevocation> revocationByUserId = new ConcurrentHashMap<>();
+
+    public void deny(String tokenId, Date expiresAt) {
+        if (tokenId == null) {
+            return;
+        }
+        expiryByTokenId.put(tokenId, expiresAt != null ? expiresAt.getTime() : Long.MAX_VALUE);
+    }
+
+    public boolean isDenied(String tokenId) {
+        return tokenId != null && expiryByTokenId.containsKey(tokenId);
+    }
+
+    // Tokens of the user issued up to revokedAt are rejected until keepUntil, when the last of them has expired
+    public void revokeUser(Long userId, Date revokedAt, Date keepUntil) {
+        if (userId == null) {
+            return;
+        }
+        revocationByUserId.put(userId, new UserRevocation(revokedAt.getTime(), keepUntil.getTime()));
+    }
+
+    // iat only has second precision, so a token issued in the same second as the revocation is rejected
+    // too; the user just has to sign in again
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        UserRevocation revocation = revocationByUserId.get(userId);
+        return revocation != null && (issuedAt == null || issuedAt.getTime() <= revocation.revokedAt);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.deny-list.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = expiryByTokenId.size();
+        expiryByTokenId.values().removeIf(expiresAt -> expiresAt <= now);
+        revocationByUserId.values().removeIf(revocation -> revocation.keepUntil <= now);
+        int purged = before - expiryByTokenId.size();
+        if (purged > 0) {
+            logger.debug("Purged {} expired entries from the token deny list", purged);
+        }
+    }
+
+    public int size() {
+        return expiryByTokenId.size();
+    }
+
+    private static final class UserRevocation {
+        private final long revokedAt;
+        private final long keepUntil;
+
+        private UserRevocation(long revokedAt, long keepUntil) {
+            this.revokedAt = revokedAt;
+            this.keepUntil = keepUntil;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.luggagestorage.config;
+
+import com.luggagestorage.util.VirtualThreads;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.TaskSchedulerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Runs Tomcat request handling and @Scheduled jobs on virtual threads. The property is the one
+// Spring Boot 3.2 reads itself, so this class can be dropped once the project moves to Boot 3.2.
+// On a JDK older than 21 the platform thread pools stay in place.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (VirtualThreads.isSupported()) {
+                protocolHandler.setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+                logger.info("Tomcat requests are handled on virtual threads");
+            } else {
+                logger.warn("Virtual threads need Java 21 or newer, running on {}; keeping the Tomcat thread pool",
+                        System.getProperty("java.version"));
+            }
+        };
+    }
+
+    @Bean
+    public TaskSchedulerCustomizer virtualThreadTaskSchedulerCustomizer() {
+        return scheduler -> {
+            if (VirtualThreads.isSupported()) {
+                scheduler.setThreadFactory(VirtualThreads.factory("scheduling-"));
+            }
+        };
+    }
+}
@@ -1,20 +1,33 @@
 package com.luggagestorage.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.luggagestorage.model.Booking;
-import com.luggagestorage.model.Person;
+import com.luggagestorage.model.dto.AutoBookingRequest;
+import com.luggagestorage.model.dto.BatchBookingRequest;
 import com.luggagestorage.model.dto.BookingRequest;
 import com.luggagestorage.model.dto.BookingResponse;
 import com.luggagestorage.model.enums.BookingStatus;
 import com.luggagestorage.service.AuthService;
+import com.luggagestorage.service.BookingAssignmentService;
 import com.luggagestorage.service.BookingService;
+import com.luggagestorage.util.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,23 +35,51 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class BookingController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final BookingService bookingService;
+    private final BookingAssignmentService bookingAssignmentService;
     private final AuthService authService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public BookingController(BookingService bookingService, AuthService authService) {
+    public BookingController(BookingService bookingService, BookingAssignmentService bookingAssignmentService,
+                             AuthService authService, ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.bookingAssignmentService = bookingAssignmentService;
         this.authService = authService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<BookingResponse>> getAllBookings() {
-        List<Booking> bookings = bookingService.getAllBookings();
-        List<BookingResponse> responses = bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<BookingResponse>> getAllBookings(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        return list(afterId, limit, null, null, null);
+    }
+
+    // Newline-delimited JSON, one booking per line, written while the rows are being read
+    @GetMapping(value = "/export", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(required = false) BookingStatus status) {
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try {
+                bookingService.forEachBookingResponse(status, booking -> {
+                    try {
+                        writer.write(objectMapper.writeValueAsString(booking));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     @GetMapping("/{id}")
@@ -46,8 +87,7 @@ public class BookingController {
     public ResponseEntity<BookingResponse> getBookingById(@PathVariable Long id) {
         Booking booking = bookingService.getBookingById(id);
 
-        Person currentUser = authService.getCurrentUser();
-        if (!currentUser.isAdmin() && !booking.getCustomer().getId().equals(currentUser.getId())) {
+        if (!authService.isCurrentUserAdmin() && !booking.getCustomer().getId().equals(authService.getCurrentUserId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -56,73 +96,60 @@ public class BookingController {
 
     @GetMapping("/my-bookings")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<List<BookingResponse>> getMyBookings() {
-        Person currentUser = authService.getCurrentUser();
-        List<Booking> bookings = bookingService.getBookingsByCustomer(currentUser.getId());
-        List<BookingResponse> responses = bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<BookingResponse>> getMyBookings(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        return list(afterId, limit, null, authService.getCurrentUserId(), null);
     }
 
     @GetMapping("/my-bookings/active")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<List<BookingResponse>> getMyActiveBookings() {
-        Person currentUser = authService.getCurrentUser();
-        List<Booking> bookings = bookingService.getActiveBookingsByCustomer(currentUser.getId());
-        List<BookingResponse> responses = bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<BookingResponse>> getMyActiveBookings(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        return list(afterId, limit, BookingStatus.ACTIVE, authService.getCurrentUserId(), null);
     }
 
     @GetMapping("/customer/{customerId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<BookingResponse>> getBookingsByCustomer(@PathVariable Long customerId) {
-        List<Booking> bookings = bookingService.getBookingsByCustomer(customerId);
-        List<BookingResponse> responses = bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<BookingResponse>> getBookingsByCustomer(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        return list(afterId, limit, null, customerId, null);
     }
 
     @GetMapping("/locker/{lockerId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<BookingResponse>> getBookingsByLocker(@PathVariable Long lockerId) {
-        List<Booking> bookings = bookingService.getBookingsByLocker(lockerId);
-        List<BookingResponse> responses = bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<BookingResponse>> getBookingsByLocker(
+            @PathVariable Long lockerId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        return list(afterId, limit, null, null, lockerId);
     }
 
     @GetMapping("/active")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<BookingResponse>> getActiveBookings() {
-        List<Booking> bookings = bookingService.getActiveBookings();
-        List<BookingResponse> responses = bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<BookingResponse>> getActiveBookings(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        return list(afterId, limit, BookingStatus.ACTIVE, null, null);
     }
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<BookingResponse>> getBookingsByStatus(@PathVariable BookingStatus status) {
-        List<Booking> bookings = bookingService.getBookingsByStatus(status);
-        List<BookingResponse> responses = bookings.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<BookingResponse>> getBookingsByStatus(
+            @PathVariable BookingStatus status,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        return list(afterId, limit, status, null, null);
     }
 
     @PostMapping
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
     public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody BookingRequest bookingRequest) {
-        Person currentUser = authService.getCurrentUser();
-
         Booking booking = bookingService.createBooking(
-                currentUser.getId(),
+                authService.getCurrentUserId(),
                 bookingRequest.getLockerId(),
                 bookingRequest.getStartDatetime(),
                 bookingRequest.getEndDatetime()
@@ -131,14 +158,36 @@ public class BookingController {
         return new ResponseEntity<>(convertToResponse(booking), HttpStatus.CREATED);
     }
 
+    // Group reservations: either every booking is created or none is
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    public ResponseEntity<List<BookingResponse>> createBookings(
+            @Valid @RequestBody BatchBookingRequest batchBookingRequest) {
+        List<Booking> bookings = bookingService.createBookings(
+                authService.getCurrentUserId(), batchBookingRequest.getBookings());
+
+        List<BookingResponse> responses = bookings.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(responses, HttpStatus.CREATED);
+    }
+
+    // Picks the best matching locker itself; a locker taken concurrently is skipped for the next one
+    @PostMapping("/auto")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
+    public ResponseEntity<BookingResponse> createAutoAssignedBooking(
+            @Valid @RequestBody AutoBookingRequest autoBookingRequest) {
+        Booking booking = bookingAssignmentService.assignAndBook(authService.getCurrentUserId(), autoBookingRequest);
+        return new ResponseEntity<>(convertToResponse(booking), HttpStatus.CREATED);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('CUSTOMER', 'ADMIN')")
     public ResponseEntity<BookingResponse> updateBooking(@PathVariable Long id,
                                                           @Valid @RequestBody BookingRequest bookingRequest) {
         Booking existingBooking = bookingService.getBookingById(id);
 
-        Person currentUser = authService.getCurrentUser();
-        if (!currentUser.isAdmin() && !existingBooking.getCustomer().getId().equals(currentUser.getId())) {
+        if (!authService.isCurrentUserAdmin() && !existingBooking.getCustomer().getId().equals(authService.getCurrentUserId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -156,8 +205,7 @@ public class BookingController {
     public ResponseEntity<BookingResponse> cancelBooking(@PathVariable Long id) {
         Booking existingBooking = bookingService.getBookingById(id);
 
-        Person currentUser = authService.getCurrentUser();
-        if (!currentUser.isAdmin() && !existingBooking.getCustomer().getId().equals(currentUser.getId())) {
+        if (!authService.isCurrentUserAdmin() && !existingBooking.getCustomer().getId().equals(authService.getCurrentUserId())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -179,6 +227,14 @@ public class BookingController {
         return ResponseEntity.noContent().build();
     }
 
+    private ResponseEntity<List<BookingResponse>> list(Long afterId, Integer limit, BookingStatus status,
+                                                       Long customerId, Long lockerId) {
+        List<BookingResponse> bookings = KeysetPage.isRequested(afterId, limit)
+                ? bookingService.getBookingResponsesPage(afterId, limit, status, customerId, lockerId)
+                : bookingService.getBookingResponses(status, customerId, lockerId);
+        return KeysetPage.response(bookings, afterId, limit, BookingResponse::getId, Function.identity());
+    }
+
     private BookingResponse convertToResponse(Booking booking) {
         BookingResponse response = new BookingResponse();
         response.setId(booking.getId());
@@ -5,6 +5,8 @@ import com.luggagestorage.model.dto.LockerRequest;
 import com.luggagestorage.model.enums.Size;
 import com.luggagestorage.model.enums.Status;
 import com.luggagestorage.service.LockerService;
+import com.luggagestorage.service.LockerStatistics;
+import com.luggagestorage.util.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +19,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,16 +28,22 @@ import java.util.stream.Collectors;
 public class LockerController {
 
     private final LockerService lockerService;
+    private final LockerStatistics lockerStatistics;
 
     @Autowired
-    public LockerController(LockerService lockerService) {
+    public LockerController(LockerService lockerService, LockerStatistics lockerStatistics) {
         this.lockerService = lockerService;
+        this.lockerStatistics = lockerStatistics;
     }
 
     @GetMapping
-    public ResponseEntity<List<Locker>> getAllLockers() {
-        List<Locker> lockers = lockerService.getAllLockers();
-        return ResponseEntity.ok(lockers);
+    public ResponseEntity<List<Locker>> getAllLockers(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        List<Locker> lockers = KeysetPage.isRequested(afterId, limit)
+                ? lockerService.getLockersPage(afterId, limit, null, null)
+                : lockerService.getAllLockers();
+        return KeysetPage.response(lockers, afterId, limit, Locker::getId, Function.identity());
     }
 
     @GetMapping("/available")
@@ -46,7 +55,9 @@ public class LockerController {
     @GetMapping("/available/time-range")
     public ResponseEntity<List<Locker>> getAvailableLockersForTimeRange(
             @RequestParam("startTime") String startTime,
-            @RequestParam("endTime") String endTime) {
+            @RequestParam("endTime") String endTime,
+            @RequestParam(required = false) Size size,
+            @RequestParam(required = false) String location) {
 
         DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
         LocalDateTime start = LocalDateTime.parse(startTime, formatter);
@@ -56,7 +67,7 @@ public class LockerController {
             return ResponseEntity.badRequest().body(null);
         }
 
-        List<Locker> lockers = lockerService.getAvailableLockers(start, end);
+        List<Locker> lockers = lockerService.getAvailableLockers(start, end, size, location);
         return ResponseEntity.ok(lockers);
     }
 
@@ -67,21 +78,36 @@ public class LockerController {
     }
 
     @GetMapping("/size/{size}")
-    public ResponseEntity<List<Locker>> getLockersBySize(@PathVariable Size size) {
-        List<Locker> lockers = lockerService.getLockersBySize(size);
-        return ResponseEntity.ok(lockers);
+    public ResponseEntity<List<Locker>> getLockersBySize(
+            @PathVariable Size size,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        List<Locker> lockers = KeysetPage.isRequested(afterId, limit)
+                ? lockerService.getLockersPage(afterId, limit, size, null)
+                : lockerService.getLockersBySize(size);
+        return KeysetPage.response(lockers, afterId, limit, Locker::getId, Function.identity());
     }
 
     @GetMapping("/available/size/{size}")
-    public ResponseEntity<List<Locker>> getAvailableLockersBySize(@PathVariable Size size) {
-        List<Locker> lockers = lockerService.getAvailableLockersBySize(size);
-        return ResponseEntity.ok(lockers);
+    public ResponseEntity<List<Locker>> getAvailableLockersBySize(
+            @PathVariable Size size,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        List<Locker> lockers = KeysetPage.isRequested(afterId, limit)
+                ? lockerService.getLockersPage(afterId, limit, size, Status.AVAILABLE)
+                : lockerService.getAvailableLockersBySize(size);
+        return KeysetPage.response(lockers, afterId, limit, Locker::getId, Function.identity());
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Locker>> getLockersByStatus(@PathVariable Status status) {
-        List<Locker> lockers = lockerService.getLockersByStatus(status);
-        return ResponseEntity.ok(lockers);
+    public ResponseEntity<List<Locker>> getLockersByStatus(
+            @PathVariable Status status,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        List<Locker> lockers = KeysetPage.isRequested(afterId, limit)
+                ? lockerService.getLockersPage(afterId, limit, null, status)
+                : lockerService.getLockersByStatus(status);
+        return KeysetPage.response(lockers, afterId, limit, Locker::getId, Function.identity());
     }
 
     @PostMapping
@@ -141,19 +167,20 @@ public class LockerController {
 
     @GetMapping("/statistics")
     public ResponseEntity<Map<String, Object>> getStatistics() {
-        List<Locker> allLockers = lockerService.getAllLockers();
+        long total = lockerStatistics.getTotalLockers();
+        long available = lockerStatistics.getLockerCount(Status.AVAILABLE);
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("total", allLockers.size());
-        stats.put("available", allLockers.stream().filter(l -> l.getStatus() == Status.AVAILABLE).count());
-        stats.put("occupied", allLockers.stream().filter(l -> l.getStatus() == Status.OCCUPIED).count());
-        stats.put("reserved", allLockers.stream().filter(l -> l.getStatus() == Status.RESERVED).count());
-        stats.put("maintenance", allLockers.stream().filter(l -> l.getStatus() == Status.MAINTENANCE).count());
-        stats.put("outOfOrder", allLockers.stream().filter(l -> l.getStatus() == Status.OUT_OF_ORDER).count());
-
-        long available = (long) stats.get("available");
-        double availabilityRate = allLockers.size() > 0 ?
-                (available * 100.0 / allLockers.size()) : 0.0;
+        stats.put("total", total);
+        stats.put("available", available);
+        stats.put("occupied", lockerStatistics.getLockerCount(Status.OCCUPIED));
+        stats.put("reserved", lockerStatistics.getLockerCount(Status.RESERVED));
+        stats.put("maintenance", lockerStatistics.getLockerCount(Status.MAINTENANCE));
+        stats.put("outOfOrder", lockerStatistics.getLockerCount(Status.OUT_OF_ORDER));
+        stats.put("bySize", lockerStatistics.getLockersBySize());
+        stats.put("byLocation", lockerStatistics.getLockersByLocation());
+
+        double availabilityRate = total > 0 ? (available * 100.0 / total) : 0.0;
         stats.put("availabilityRate", String.format("%.1f", availabilityRate));
 
         return ResponseEntity.ok(stats);
@@ -163,33 +190,32 @@ public class LockerController {
     public ResponseEntity<List<Locker>> getNearbyLockers(
             @RequestParam Double latitude,
             @RequestParam Double longitude,
-            @RequestParam(defaultValue = "5.0") Double radiusKm) {
+            @RequestParam(defaultValue = "5.0") Double radiusKm,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Size size,
+            @RequestParam(required = false) String startTime,
+            @RequestParam(required = false) String endTime) {
 
-        List<Locker> allLockers = lockerService.getAllLockers();
+        if (radiusKm < 0 || (limit != null && limit <= 0) || (startTime == null) != (endTime == null)) {
+            return ResponseEntity.badRequest().body(null);
+        }
 
-        List<Locker> nearbyLockers = allLockers.stream()
-                .filter(locker -> locker.getLatitude() != null && locker.getLongitude() != null)
-                .filter(locker -> {
-                    double distance = calculateDistance(latitude, longitude,
-                            locker.getLatitude(), locker.getLongitude());
-                    return distance <= radiusKm;
-                })
-                .collect(Collectors.toList());
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        if (startTime != null) {
+            DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+            start = LocalDateTime.parse(startTime, formatter);
+            end = LocalDateTime.parse(endTime, formatter);
+            if (!start.isBefore(end)) {
+                return ResponseEntity.badRequest().body(null);
+            }
+        }
 
+        List<Locker> nearbyLockers = lockerService.getNearbyLockers(latitude, longitude, radiusKm, limit,
+                size, start, end);
         return ResponseEntity.ok(nearbyLockers);
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371;
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
-    }
-
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteLocker(@PathVariable Long id) {
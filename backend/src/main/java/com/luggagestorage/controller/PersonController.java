@@ -3,6 +3,7 @@ package com.luggagestorage.controller;
 import com.luggagestorage.model.Person;
 import com.luggagestorage.model.enums.Role;
 import com.luggagestorage.service.PersonService;
+import com.luggagestorage.util.KeysetPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +12,8 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/persons")
@@ -26,9 +29,13 @@ public class PersonController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Person>> getAllPersons() {
-        List<Person> persons = personService.getAllPersons();
-        return ResponseEntity.ok(persons);
+    public ResponseEntity<List<Person>> getAllPersons(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        List<Person> persons = KeysetPage.isRequested(afterId, limit)
+                ? personService.getPersonsPage(afterId, limit, null)
+                : personService.getAllPersons();
+        return KeysetPage.response(persons, afterId, limit, Person::getId, Function.identity());
     }
 
     @GetMapping("/{id}")
@@ -38,25 +45,44 @@ public class PersonController {
         return ResponseEntity.ok(person);
     }
 
+    @GetMapping("/cache/statistics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(personService.getCacheStatistics());
+    }
+
     @GetMapping("/customers")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Person>> getAllCustomers() {
-        List<Person> customers = personService.getAllCustomers();
-        return ResponseEntity.ok(customers);
+    public ResponseEntity<List<Person>> getAllCustomers(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        List<Person> customers = KeysetPage.isRequested(afterId, limit)
+                ? personService.getPersonsPage(afterId, limit, Role.CUSTOMER)
+                : personService.getAllCustomers();
+        return KeysetPage.response(customers, afterId, limit, Person::getId, Function.identity());
     }
 
     @GetMapping("/admins")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Person>> getAllAdmins() {
-        List<Person> admins = personService.getAllAdmins();
-        return ResponseEntity.ok(admins);
+    public ResponseEntity<List<Person>> getAllAdmins(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        List<Person> admins = KeysetPage.isRequested(afterId, limit)
+                ? personService.getPersonsPage(afterId, limit, Role.ADMIN)
+                : personService.getAllAdmins();
+        return KeysetPage.response(admins, afterId, limit, Person::getId, Function.identity());
     }
 
     @GetMapping("/role/{role}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Person>> getPersonsByRole(@PathVariable Role role) {
-        List<Person> persons = personService.getPersonsByRole(role);
-        return ResponseEntity.ok(persons);
+    public ResponseEntity<List<Person>> getPersonsByRole(
+            @PathVariable Role role,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        List<Person> persons = KeysetPage.isRequested(afterId, limit)
+                ? personService.getPersonsPage(afterId, limit, role)
+                : personService.getPersonsByRole(role);
+        return KeysetPage.response(persons, afterId, limit, Person::getId, Function.identity());
     }
 
     @GetMapping("/search/firstname/{firstName}")
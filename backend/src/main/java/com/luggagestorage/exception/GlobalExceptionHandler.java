@@ -3,6 +3,7 @@ package com.luggagestorage.exception;
 import com.luggagestorage.model.dto.ErrorResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.FieldError;
@@ -44,6 +45,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(
+            ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                "The resource was modified by another user. Please try again.",
+                request.getDescription(false).replace("uri=", "")
+        );
+        if (ex.getIdentifier() != null) {
+            error.addDetail(ex.getPersistentClassName() + " ID: " + ex.getIdentifier());
+        }
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(InvalidBookingTimeException.class)
     public ResponseEntity<ErrorResponse> handleInvalidBookingTimeException(
             InvalidBookingTimeException ex, WebRequest request) {
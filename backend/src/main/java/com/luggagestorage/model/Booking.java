@@ -1,5 +1,6 @@
 package com.luggagestorage.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.luggagestorage.model.enums.BookingStatus;
 
 import javax.persistence.*;
@@ -10,10 +11,17 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "bookings")
+// The status flags and duration are derived, so a snapshot written with them must still load
+@JsonIgnoreProperties(value = {"active", "cancelled", "completed", "durationInHours"}, allowGetters = true)
 public class Booking {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled ids (one sequence round trip per 50 bookings) so batch inserts can use JDBC batching;
+    // on MySQL the sequence is emulated by the booking_seq table
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull(message = "Customer is required")
@@ -1,6 +1,7 @@
 package com.luggagestorage.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.luggagestorage.model.enums.Size;
 import com.luggagestorage.model.enums.Status;
 
@@ -14,6 +15,8 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "lockers")
+// "available" is derived from status, so a snapshot written with it must still load
+@JsonIgnoreProperties(value = "available", allowGetters = true)
 public class Locker {
 
     @Id
@@ -1,6 +1,7 @@
 package com.luggagestorage.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.luggagestorage.model.enums.Role;
 
@@ -14,6 +15,8 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "persons")
+// The name and role flags are derived, so a snapshot written with them must still load
+@JsonIgnoreProperties(value = {"fullName", "admin", "customer"}, allowGetters = true)
 public class Person {
 
     @Id
@@ -0,0 +1,117 @@
+package com.luggagestorage.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.luggagestorage.model.enums.AssignmentPreference;
+import com.luggagestorage.model.enums.Size;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+public class AutoBookingRequest {
+
+    @NotNull(message = "Size is required")
+    private Size size;
+
+    private String locationName;
+
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    @DecimalMin(value = "0.0", message = "Radius must be positive")
+    private Double radiusKm;
+
+    @NotNull(message = "Start datetime is required")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm[:ss]")
+    private LocalDateTime startDatetime;
+
+    @NotNull(message = "End datetime is required")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm[:ss]")
+    private LocalDateTime endDatetime;
+
+    private AssignmentPreference preference;
+
+    public AutoBookingRequest() {
+    }
+
+    public AutoBookingRequest(Size size, String locationName, LocalDateTime startDatetime, LocalDateTime endDatetime) {
+        this.size = size;
+        this.locationName = locationName;
+        this.startDatetime = startDatetime;
+        this.endDatetime = endDatetime;
+    }
+
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+
+    public Size getSize() {
+        return size;
+    }
+
+    public void setSize(Size size) {
+        this.size = size;
+    }
+
+    public String getLocationName() {
+        return locationName;
+    }
+
+    public void setLocationName(String locationName) {
+        this.locationName = locationName;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public void setRadiusKm(Double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
+
+    public LocalDateTime getStartDatetime() {
+        return startDatetime;
+    }
+
+    public void setStartDatetime(LocalDateTime startDatetime) {
+        this.startDatetime = startDatetime;
+    }
+
+    public LocalDateTime getEndDatetime() {
+        return endDatetime;
+    }
+
+    public void setEndDatetime(LocalDateTime endDatetime) {
+        this.endDatetime = endDatetime;
+    }
+
+    public AssignmentPreference getPreference() {
+        return preference;
+    }
+
+    public void setPreference(AssignmentPreference preference) {
+        this.preference = preference;
+    }
+}
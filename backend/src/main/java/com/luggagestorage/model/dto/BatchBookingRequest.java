@@ -0,0 +1,27 @@
+package com.luggagestorage.model.dto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchBookingRequest {
+
+    @NotEmpty(message = "At least one booking is required")
+    private List<@Valid BookingRequest> bookings = new ArrayList<>();
+
+    public BatchBookingRequest() {
+    }
+
+    public BatchBookingRequest(List<BookingRequest> bookings) {
+        this.bookings = bookings;
+    }
+
+    public List<BookingRequest> getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(List<BookingRequest> bookings) {
+        this.bookings = bookings;
+    }
+}
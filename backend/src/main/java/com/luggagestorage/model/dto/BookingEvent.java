@@ -9,6 +9,7 @@ public class BookingEvent {
     private String lockerNumber;
     private String eventType;
     private String customerName;
+    private String locationName;
     private LocalDateTime timestamp;
     private String message;
 
@@ -74,6 +75,14 @@ public class BookingEvent {
         this.timestamp = timestamp;
     }
 
+    public String getLocationName() {
+        return locationName;
+    }
+
+    public void setLocationName(String locationName) {
+        this.locationName = locationName;
+    }
+
     public String getMessage() {
         return message;
     }
@@ -90,6 +99,7 @@ public class BookingEvent {
                 ", lockerNumber='" + lockerNumber + '\'' +
                 ", eventType='" + eventType + '\'' +
                 ", customerName='" + customerName + '\'' +
+                ", locationName='" + locationName + '\'' +
                 ", timestamp=" + timestamp +
                 ", message='" + message + '\'' +
                 '}';
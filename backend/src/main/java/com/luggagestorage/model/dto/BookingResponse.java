@@ -5,6 +5,7 @@ import com.luggagestorage.model.enums.BookingStatus;
 import com.luggagestorage.model.enums.Size;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 public class BookingResponse {
 
@@ -28,6 +29,25 @@ public class BookingResponse {
     public BookingResponse() {
     }
 
+    // Used by JPQL constructor expressions so listings are read in a single query without loading entities
+    public BookingResponse(Long id, Long customerId, String customerFirstName, String customerLastName,
+                           Long lockerId, String lockerNumber, Size lockerSize,
+                           LocalDateTime startDatetime, LocalDateTime endDatetime,
+                           BookingStatus status, Double totalPrice) {
+        this.id = id;
+        this.customerId = customerId;
+        this.customerName = customerFirstName + " " + customerLastName;
+        this.lockerId = lockerId;
+        this.lockerNumber = lockerNumber;
+        this.lockerSize = lockerSize;
+        this.startDatetime = startDatetime;
+        this.endDatetime = endDatetime;
+        this.status = status;
+        this.totalPrice = totalPrice;
+        this.durationInHours = startDatetime != null && endDatetime != null
+                ? ChronoUnit.HOURS.between(startDatetime, endDatetime) : 0L;
+    }
+
     public Long getId() {
         return id;
     }
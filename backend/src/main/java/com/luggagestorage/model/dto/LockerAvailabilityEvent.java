@@ -10,6 +10,7 @@ public class LockerAvailabilityEvent {
     private String lockerNumber;
     private Status status;
     private String size;
+    private String locationName;
     private LocalDateTime timestamp;
     private String message;
 
@@ -66,6 +67,14 @@ public class LockerAvailabilityEvent {
         this.timestamp = timestamp;
     }
 
+    public String getLocationName() {
+        return locationName;
+    }
+
+    public void setLocationName(String locationName) {
+        this.locationName = locationName;
+    }
+
     public String getMessage() {
         return message;
     }
@@ -81,6 +90,7 @@ public class LockerAvailabilityEvent {
                 ", lockerNumber='" + lockerNumber + '\'' +
                 ", status=" + status +
                 ", size='" + size + '\'' +
+                ", locationName='" + locationName + '\'' +
                 ", timestamp=" + timestamp +
                 ", message='" + message + '\'' +
                 '}';
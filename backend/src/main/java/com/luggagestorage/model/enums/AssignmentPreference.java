@@ -0,0 +1,22 @@
+package com.luggagestorage.model.enums;
+
+public enum AssignmentPreference {
+    CHEAPEST("Cheapest", "Lowest hourly rate first"),
+    NEAREST("Nearest", "Closest to the given coordinates first");
+
+    private final String displayName;
+    private final String description;
+
+    AssignmentPreference(String displayName, String description) {
+        this.displayName = displayName;
+        this.description = description;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -1,14 +1,23 @@
 package com.luggagestorage.repository;
 
 import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.dto.BookingResponse;
 import com.luggagestorage.model.enums.BookingStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -28,6 +37,13 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                           @Param("start") LocalDateTime start,
                                           @Param("end") LocalDateTime end);
 
+    @Query("SELECT b FROM Booking b WHERE b.locker.id IN :lockerIds " +
+            "AND b.status = 'ACTIVE' " +
+            "AND ((b.startDatetime < :end AND b.endDatetime > :start))")
+    List<Booking> findOverlappingBookingsForLockers(@Param("lockerIds") Collection<Long> lockerIds,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("end") LocalDateTime end);
+
     default List<Booking> findActiveBookings() {
         return findByStatus(BookingStatus.ACTIVE);
     }
@@ -40,4 +56,47 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     @Query("SELECT b FROM Booking b WHERE b.status = 'ACTIVE' AND b.endDatetime < :currentTime")
     List<Booking> findExpiredActiveBookings(@Param("currentTime") LocalDateTime currentTime);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.status = 'ACTIVE' AND b.endDatetime <= :currentTime")
+    List<Long> findExpiredActiveBookingIds(@Param("currentTime") LocalDateTime currentTime);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.locker JOIN FETCH b.customer " +
+            "WHERE b.id IN :ids AND b.status = 'ACTIVE' AND b.endDatetime <= :currentTime")
+    List<Booking> findExpiredActiveBookingsByIds(@Param("ids") Collection<Long> ids,
+                                                 @Param("currentTime") LocalDateTime currentTime);
+
+    // Listing queries project straight into BookingResponse in one statement; null filters match everything
+    String RESPONSE_PROJECTION = "SELECT new com.luggagestorage.model.dto.BookingResponse(" +
+            "b.id, c.id, c.firstName, c.lastName, l.id, l.lockerNumber, l.size, " +
+            "b.startDatetime, b.endDatetime, b.status, b.totalPrice) " +
+            "FROM Booking b JOIN b.customer c JOIN b.locker l ";
+
+    String RESPONSE_FILTERS = "(:status IS NULL OR b.status = :status) " +
+            "AND (:customerId IS NULL OR c.id = :customerId) " +
+            "AND (:lockerId IS NULL OR l.id = :lockerId) ";
+
+    @Query(RESPONSE_PROJECTION + "WHERE " + RESPONSE_FILTERS + "ORDER BY b.id")
+    List<BookingResponse> findResponses(@Param("status") BookingStatus status,
+                                        @Param("customerId") Long customerId,
+                                        @Param("lockerId") Long lockerId);
+
+    // Keyset page: rows after the given id in id order
+    @Query(RESPONSE_PROJECTION + "WHERE b.id > :afterId AND " + RESPONSE_FILTERS + "ORDER BY b.id")
+    List<BookingResponse> findResponsePage(@Param("afterId") Long afterId,
+                                           @Param("status") BookingStatus status,
+                                           @Param("customerId") Long customerId,
+                                           @Param("lockerId") Long lockerId,
+                                           Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_PROJECTION + "WHERE (:status IS NULL OR b.status = :status) ORDER BY b.id")
+    Stream<BookingResponse> streamResponses(@Param("status") BookingStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = 'COMPLETED', b.version = b.version + 1 " +
+            "WHERE b.id IN :ids AND b.status = 'ACTIVE'")
+    int completeActiveBookings(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.status, COUNT(b) FROM Booking b GROUP BY b.status")
+    List<Object[]> countByStatus();
 }
@@ -3,14 +3,17 @@ package com.luggagestorage.repository;
 import com.luggagestorage.model.Locker;
 import com.luggagestorage.model.enums.Size;
 import com.luggagestorage.model.enums.Status;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,21 +32,59 @@ public interface LockerRepository extends JpaRepository<Locker, Long> {
 
     List<Locker> findBySizeAndStatus(Size size, Status status);
 
+    List<Locker> findByStatusIn(Collection<Status> statuses);
+
+    List<Locker> findBySizeAndStatusIn(Size size, Collection<Status> statuses);
+
     boolean existsByLockerNumber(String lockerNumber);
 
+    @Query("SELECT l FROM Locker l WHERE l.id > :afterId " +
+           "AND (:size IS NULL OR l.size = :size) " +
+           "AND (:status IS NULL OR l.status = :status) " +
+           "ORDER BY l.id")
+    List<Locker> findPage(@Param("afterId") Long afterId,
+                          @Param("size") Size size,
+                          @Param("status") Status status,
+                          Pageable pageable);
+
     @Query("SELECT l FROM Locker l WHERE l.status = 'AVAILABLE' " +
            "AND NOT EXISTS (SELECT b FROM Booking b WHERE b.locker = l " +
            "AND b.status = 'ACTIVE' AND b.endDatetime > CURRENT_TIMESTAMP)")
     List<Locker> findTrulyAvailableLockers();
 
-    @Query("SELECT l FROM Locker l WHERE l.status = 'AVAILABLE' " +
+    @Query("SELECT l FROM Locker l WHERE l.status IN :statuses " +
+           "AND NOT EXISTS (SELECT b FROM Booking b WHERE b.locker = l " +
+           "AND b.status = 'ACTIVE' " +
+           "AND ((b.startDatetime < :endTime AND b.endDatetime > :startTime)))")
+    List<Locker> findFreeForTimeRange(@Param("statuses") Collection<Status> statuses,
+                                      @Param("startTime") LocalDateTime startTime,
+                                      @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT l FROM Locker l WHERE l.id IN :ids AND l.status IN :statuses " +
            "AND NOT EXISTS (SELECT b FROM Booking b WHERE b.locker = l " +
            "AND b.status = 'ACTIVE' " +
            "AND ((b.startDatetime < :endTime AND b.endDatetime > :startTime)))")
-    List<Locker> findAvailableForTimeRange(@Param("startTime") LocalDateTime startTime,
+    List<Locker> findFreeForTimeRangeByIds(@Param("ids") Collection<Long> ids,
+                                           @Param("statuses") Collection<Status> statuses,
+                                           @Param("startTime") LocalDateTime startTime,
                                            @Param("endTime") LocalDateTime endTime);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l.status, l.size, l.locationName, COUNT(l) FROM Locker l " +
+           "GROUP BY l.status, l.size, l.locationName")
+    List<Object[]> countByStatusSizeAndLocation();
+
+    @Query("SELECT l.status, COUNT(l) FROM Locker l WHERE l.id IN :ids GROUP BY l.status")
+    List<Object[]> countByStatusForIds(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
     @Query("SELECT l FROM Locker l WHERE l.id = :id")
-    Optional<Locker> findByIdWithLock(@Param("id") Long id);
+    Optional<Locker> findByIdForReservation(@Param("id") Long id);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT l FROM Locker l WHERE l.id IN :ids")
+    List<Locker> findAllByIdForReservation(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Locker l SET l.status = :status, l.version = l.version + 1 WHERE l.id IN :ids")
+    int updateStatusForIds(@Param("ids") Collection<Long> ids, @Param("status") Status status);
 }
@@ -2,7 +2,10 @@ package com.luggagestorage.repository;
 
 import com.luggagestorage.model.Person;
 import com.luggagestorage.model.enums.Role;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +20,10 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
 
     List<Person> findByRole(Role role);
 
+    @Query("SELECT p FROM Person p WHERE p.id > :afterId " +
+           "AND (:role IS NULL OR p.role = :role) ORDER BY p.id")
+    List<Person> findPage(@Param("afterId") Long afterId, @Param("role") Role role, Pageable pageable);
+
     List<Person> findByFirstNameContainingIgnoreCase(String firstName);
 
     List<Person> findByLastNameContainingIgnoreCase(String lastName);
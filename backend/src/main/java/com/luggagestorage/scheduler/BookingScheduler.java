@@ -1,7 +1,8 @@
 package com.luggagestorage.scheduler;
 
-import com.luggagestorage.model.Booking;
 import com.luggagestorage.repository.BookingRepository;
+import com.luggagestorage.service.BookingExpiryQueue;
+import com.luggagestorage.service.BookingMetrics;
 import com.luggagestorage.service.BookingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,8 +10,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -25,11 +26,45 @@ public class BookingScheduler {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private BookingExpiryQueue bookingExpiryQueue;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
     @Value("${scheduler.booking.enabled:true}")
     private boolean schedulerEnabled;
 
-    @Scheduled(cron = "${scheduler.booking.cron:0 */5 * * * *}")
-    @Transactional
+    @Value("${scheduler.booking.expiry-retry-seconds:5}")
+    private long expiryRetrySeconds;
+
+    @Scheduled(fixedDelayString = "${scheduler.booking.expiry-tick-ms:1000}")
+    public void completeDueBookings() {
+        if (!schedulerEnabled) {
+            return;
+        }
+
+        LocalDateTime currentTime = LocalDateTime.now();
+        LocalDateTime oldestDue = bookingExpiryQueue.nextExpiry().orElse(currentTime);
+        List<Long> dueBookingIds = bookingExpiryQueue.pollExpired(currentTime);
+        if (dueBookingIds.isEmpty()) {
+            return;
+        }
+        bookingMetrics.expiryBatch(dueBookingIds.size(), Duration.between(oldestDue, currentTime));
+
+        try {
+            List<Long> completedIds = bookingService.completeExpiredBookings(dueBookingIds);
+            logger.info("Auto-completed {} of {} due booking(s)", completedIds.size(), dueBookingIds.size());
+        } catch (Exception e) {
+            logger.error("Failed to auto-complete {} due booking(s), retrying in {} s. Error: {}",
+                    dueBookingIds.size(), expiryRetrySeconds, e.getMessage());
+            LocalDateTime retryAt = currentTime.plusSeconds(expiryRetrySeconds);
+            dueBookingIds.forEach(id -> bookingExpiryQueue.schedule(id, retryAt));
+        }
+    }
+
+    // Reconciliation pass for anything the expiry queue missed, e.g. bookings changed outside this instance
+    @Scheduled(cron = "${scheduler.booking.cron:0 */15 * * * *}")
     public void autoCompleteExpiredBookings() {
         if (!schedulerEnabled) {
             logger.debug("Booking scheduler is disabled, skipping auto-complete task");
@@ -42,39 +77,19 @@ public class BookingScheduler {
             LocalDateTime currentTime = LocalDateTime.now();
             logger.debug("Current time: {}", currentTime);
 
-            List<Booking> expiredBookings = bookingRepository.findExpiredActiveBookings(currentTime);
+            List<Long> expiredBookingIds = bookingRepository.findExpiredActiveBookingIds(currentTime);
 
-            if (expiredBookings.isEmpty()) {
+            if (expiredBookingIds.isEmpty()) {
                 logger.info("No expired bookings found");
                 return;
             }
 
-            logger.info("Found {} expired booking(s) to auto-complete", expiredBookings.size());
+            logger.info("Found {} expired booking(s) to auto-complete", expiredBookingIds.size());
 
-            int successCount = 0;
-            int failureCount = 0;
-
-            for (Booking booking : expiredBookings) {
-                try {
-                    logger.info("Auto-completing booking ID: {} (Locker: {}, End time: {})",
-                            booking.getId(),
-                            booking.getLocker().getLockerNumber(),
-                            booking.getEndDatetime());
-
-                    bookingService.completeBooking(booking.getId());
-                    successCount++;
-
-                    logger.info("Successfully completed booking ID: {}", booking.getId());
-
-                } catch (Exception e) {
-                    failureCount++;
-                    logger.error("Failed to auto-complete booking ID: {}. Error: {}",
-                            booking.getId(), e.getMessage(), e);
-                }
-            }
+            List<Long> completedIds = bookingService.completeExpiredBookings(expiredBookingIds);
 
-            logger.info("Auto-complete task completed. Success: {}, Failures: {}, Total: {}",
-                    successCount, failureCount, expiredBookings.size());
+            logger.info("Auto-complete task completed. Completed: {}, Total: {}",
+                    completedIds.size(), expiredBookingIds.size());
 
         } catch (Exception e) {
             logger.error("Error occurred during auto-complete task: {}", e.getMessage(), e);
@@ -1,5 +1,6 @@
 package com.luggagestorage.service;
 
+import com.luggagestorage.config.JwtPrincipal;
 import com.luggagestorage.config.JwtTokenProvider;
 import com.luggagestorage.model.Person;
 import com.luggagestorage.model.dto.AuthResponse;
@@ -28,16 +29,22 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final PersonCache personCache;
+    private final LockerStatistics lockerStatistics;
 
     @Autowired
     public AuthService(PersonRepository personRepository,
                        PasswordEncoder passwordEncoder,
                        AuthenticationManager authenticationManager,
-                       JwtTokenProvider jwtTokenProvider) {
+                       JwtTokenProvider jwtTokenProvider,
+                       PersonCache personCache,
+                       LockerStatistics lockerStatistics) {
         this.personRepository = personRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.personCache = personCache;
+        this.lockerStatistics = lockerStatistics;
     }
 
     public AuthResponse register(RegisterRequest registerRequest) {
@@ -59,10 +66,10 @@ public class AuthService {
         person.setRole(registerRequest.getRole());
 
         Person savedPerson = personRepository.save(person);
+        lockerStatistics.personAdded();
         logger.info("User registered successfully with ID: {}", savedPerson.getId());
 
-        String roles = savedPerson.getRole().getAuthority();
-        String token = jwtTokenProvider.generateTokenFromUsername(savedPerson.getEmail(), roles);
+        String token = jwtTokenProvider.generateTokenForPerson(savedPerson);
 
         return new AuthResponse(
                 token,
@@ -75,7 +82,7 @@ public class AuthService {
     }
 
     public AuthResponse login(LoginRequest loginRequest) {
-        logger.info("User attempting to login with email: {}", loginRequest.getEmail());
+        logger.debug("User attempting to login with email: {}", loginRequest.getEmail());
 
         try {
 
@@ -88,12 +95,12 @@ public class AuthService {
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            String token = jwtTokenProvider.generateToken(authentication);
-
             Person person = personRepository.findByEmail(loginRequest.getEmail())
                     .orElseThrow(() -> new BadCredentialsException("User not found"));
 
-            logger.info("User logged in successfully: {}", person.getEmail());
+            String token = jwtTokenProvider.generateTokenForPerson(person);
+
+            logger.debug("User logged in successfully: {}", person.getEmail());
 
             return new AuthResponse(
                     token,
@@ -117,8 +124,24 @@ public class AuthService {
             return null;
         }
 
+        if (authentication.getPrincipal() instanceof JwtPrincipal) {
+            return personCache.getById(((JwtPrincipal) authentication.getPrincipal()).getId(), personRepository::findById)
+                    .orElse(null);
+        }
+
         String email = authentication.getName();
-        return personRepository.findByEmail(email).orElse(null);
+        return personCache.getByEmail(email, personRepository::findByEmail).orElse(null);
+    }
+
+    // Answered from the token claims when available, so most requests need no query to identify the caller
+    public Long getCurrentUserId() {
+        JwtPrincipal principal = getJwtPrincipal();
+        if (principal != null) {
+            return principal.getId();
+        }
+
+        Person currentUser = getCurrentUser();
+        return currentUser != null ? currentUser.getId() : null;
     }
 
     public boolean isAuthenticated() {
@@ -128,12 +151,28 @@ public class AuthService {
     }
 
     public boolean isCurrentUserAdmin() {
+        JwtPrincipal principal = getJwtPrincipal();
+        if (principal != null) {
+            return principal.isAdmin();
+        }
+
         Person currentUser = getCurrentUser();
         return currentUser != null && currentUser.isAdmin();
     }
 
-    public void logout() {
+    public void logout(String token) {
+        if (token != null) {
+            jwtTokenProvider.revokeToken(token);
+        }
         SecurityContextHolder.clearContext();
         logger.info("User logged out successfully");
     }
+
+    private JwtPrincipal getJwtPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal) {
+            return (JwtPrincipal) authentication.getPrincipal();
+        }
+        return null;
+    }
 }
@@ -0,0 +1,309 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.enums.BookingStatus;
+import com.luggagestorage.model.enums.Role;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Layout: magic, format version, record type, record count, then one fixed-order record per entity.
+// Associations are stored as ids only; strings are length-prefixed UTF-8 with -1 for null.
+public final class BinarySnapshotFormat {
+
+    public static final int MAGIC = 0x4C475342;
+    public static final short VERSION = 1;
+
+    private static final Map<Class<?>, Codec<?>> CODECS = new HashMap<>();
+
+    static {
+        register(new LockerCodec());
+        register(new BookingCodec());
+        register(new PersonCodec());
+    }
+
+    private BinarySnapshotFormat() {
+    }
+
+    public interface Codec<T> {
+
+        byte recordType();
+
+        Class<T> type();
+
+        void write(DataOutputStream out, T value) throws IOException;
+
+        T read(ByteBuffer in);
+    }
+
+    public static boolean supports(Class<?> type) {
+        return CODECS.containsKey(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Codec<T> codecFor(Class<T> type) {
+        Codec<T> codec = (Codec<T>) CODECS.get(type);
+        if (codec == null) {
+            throw new IllegalArgumentException("No binary snapshot codec for " + type.getSimpleName());
+        }
+        return codec;
+    }
+
+    public static <T> byte[] encode(List<?> data, Class<T> type) throws IOException {
+        Codec<T> codec = codecFor(type);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + data.size() * 96);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(codec.recordType());
+        out.writeInt(data.size());
+        for (Object value : data) {
+            codec.write(out, type.cast(value));
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    public static <T> List<T> decode(ByteBuffer in, Class<T> type) throws IOException {
+        Codec<T> codec = codecFor(type);
+
+        if (in.remaining() < 11 || in.getInt() != MAGIC) {
+            throw new IOException("Not a binary snapshot file");
+        }
+        short version = in.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary snapshot version " + version);
+        }
+        byte recordType = in.get();
+        if (recordType != codec.recordType()) {
+            throw new IOException("Snapshot holds record type " + recordType + ", expected " + type.getSimpleName());
+        }
+
+        int count = in.getInt();
+        List<T> data = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            data.add(codec.read(in));
+        }
+        return data;
+    }
+
+    private static void register(Codec<?> codec) {
+        CODECS.put(codec.type(), codec);
+    }
+
+    private static final class LockerCodec implements Codec<Locker> {
+
+        @Override
+        public byte recordType() {
+            return 1;
+        }
+
+        @Override
+        public Class<Locker> type() {
+            return Locker.class;
+        }
+
+        @Override
+        public void write(DataOutputStream out, Locker locker) throws IOException {
+            writeLong(out, locker.getId());
+            writeString(out, locker.getLockerNumber());
+            writeEnum(out, locker.getSize());
+            writeEnum(out, locker.getStatus());
+            writeDouble(out, locker.getHourlyRate());
+            writeString(out, locker.getLocationName());
+            writeString(out, locker.getAddress());
+            writeDouble(out, locker.getLatitude());
+            writeDouble(out, locker.getLongitude());
+            writeString(out, locker.getFloor());
+            writeString(out, locker.getSection());
+            writeLong(out, locker.getVersion());
+        }
+
+        @Override
+        public Locker read(ByteBuffer in) {
+            Locker locker = new Locker();
+            locker.setId(readLong(in));
+            locker.setLockerNumber(readString(in));
+            locker.setSize(readEnum(in, Size.class));
+            locker.setStatus(readEnum(in, Status.class));
+            locker.setHourlyRate(readDouble(in));
+            locker.setLocationName(readString(in));
+            locker.setAddress(readString(in));
+            locker.setLatitude(readDouble(in));
+            locker.setLongitude(readDouble(in));
+            locker.setFloor(readString(in));
+            locker.setSection(readString(in));
+            locker.setVersion(readLong(in));
+            return locker;
+        }
+    }
+
+    private static final class BookingCodec implements Codec<Booking> {
+
+        @Override
+        public byte recordType() {
+            return 2;
+        }
+
+        @Override
+        public Class<Booking> type() {
+            return Booking.class;
+        }
+
+        @Override
+        public void write(DataOutputStream out, Booking booking) throws IOException {
+            writeLong(out, booking.getId());
+            writeLong(out, booking.getCustomer() != null ? booking.getCustomer().getId() : null);
+            writeLong(out, booking.getLocker() != null ? booking.getLocker().getId() : null);
+            writeDateTime(out, booking.getStartDatetime());
+            writeDateTime(out, booking.getEndDatetime());
+            writeEnum(out, booking.getStatus());
+            writeDouble(out, booking.getTotalPrice());
+            writeLong(out, booking.getVersion());
+        }
+
+        @Override
+        public Booking read(ByteBuffer in) {
+            Booking booking = new Booking();
+            booking.setId(readLong(in));
+
+            Long customerId = readLong(in);
+            if (customerId != null) {
+                Person customer = new Person();
+                customer.setId(customerId);
+                booking.setCustomer(customer);
+            }
+
+            Long lockerId = readLong(in);
+            if (lockerId != null) {
+                Locker locker = new Locker();
+                locker.setId(lockerId);
+                booking.setLocker(locker);
+            }
+
+            booking.setStartDatetime(readDateTime(in));
+            booking.setEndDatetime(readDateTime(in));
+            booking.setStatus(readEnum(in, BookingStatus.class));
+            booking.setTotalPrice(readDouble(in));
+            booking.setVersion(readLong(in));
+            return booking;
+        }
+    }
+
+    // Password hashes are left out, matching the JSON snapshots.
+    private static final class PersonCodec implements Codec<Person> {
+
+        @Override
+        public byte recordType() {
+            return 3;
+        }
+
+        @Override
+        public Class<Person> type() {
+            return Person.class;
+        }
+
+        @Override
+        public void write(DataOutputStream out, Person person) throws IOException {
+            writeLong(out, person.getId());
+            writeString(out, person.getEmail());
+            writeString(out, person.getFirstName());
+            writeString(out, person.getLastName());
+            writeEnum(out, person.getRole());
+        }
+
+        @Override
+        public Person read(ByteBuffer in) {
+            Person person = new Person();
+            person.setId(readLong(in));
+            person.setEmail(readString(in));
+            person.setFirstName(readString(in));
+            person.setLastName(readString(in));
+            person.setRole(readEnum(in, Role.class));
+            return person;
+        }
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(ByteBuffer in) {
+        return in.get() != 0 ? in.getLong() : null;
+    }
+
+    private static void writeDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static Double readDouble(ByteBuffer in) {
+        return in.get() != 0 ? in.getDouble() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Enums are stored by name so reordering constants does not corrupt old files
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        writeString(out, value != null ? value.name() : null);
+    }
+
+    private static <E extends Enum<E>> E readEnum(ByteBuffer in, Class<E> type) {
+        String name = readString(in);
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        long epochSecond = in.getLong();
+        int nano = in.getInt();
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,122 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.exception.InvalidBookingTimeException;
+import com.luggagestorage.exception.LockerNotAvailableException;
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.dto.AutoBookingRequest;
+import com.luggagestorage.model.enums.AssignmentPreference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Not transactional on purpose: every attempt runs in its own BookingService.createBooking
+// transaction, so losing a locker to a concurrent request rolls back only that attempt.
+@Service
+public class BookingAssignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingAssignmentService.class);
+    private static final double DEFAULT_RADIUS_KM = 5.0;
+
+    private final BookingService bookingService;
+    private final LockerService lockerService;
+    private final LockerAvailabilityBitmap availabilityBitmap;
+    private final int maxAttempts;
+
+    @Autowired
+    public BookingAssignmentService(BookingService bookingService,
+                                    LockerService lockerService,
+                                    LockerAvailabilityBitmap availabilityBitmap,
+                                    @Value("${booking.auto-assign.max-attempts:5}") int maxAttempts) {
+        this.bookingService = bookingService;
+        this.lockerService = lockerService;
+        this.availabilityBitmap = availabilityBitmap;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Booking assignAndBook(Long customerId, AutoBookingRequest request) {
+        LocalDateTime start = request.getStartDatetime();
+        LocalDateTime end = request.getEndDatetime();
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new InvalidBookingTimeException("Start time must be before end time", start, end);
+        }
+
+        List<Locker> candidates = rankCandidates(request);
+        logger.debug("Auto-assigning a {} locker for customer {} from {} candidates",
+                request.getSize(), customerId, candidates.size());
+
+        int attempts = 0;
+        for (Locker locker : candidates) {
+            if (attempts++ >= maxAttempts) {
+                break;
+            }
+            try {
+                return bookingService.createBooking(customerId, locker.getId(), start, end);
+            } catch (LockerNotAvailableException | ObjectOptimisticLockingFailureException e) {
+                logger.debug("Locker {} was taken during auto-assignment, trying the next candidate", locker.getId());
+            }
+        }
+
+        throw new LockerNotAvailableException("No " + request.getSize().name().toLowerCase()
+                + " locker is available for the requested time period");
+    }
+
+    List<Locker> rankCandidates(AutoBookingRequest request) {
+        LocalDateTime start = request.getStartDatetime();
+        LocalDateTime end = request.getEndDatetime();
+
+        List<Locker> lockers;
+        if (request.hasCoordinates()) {
+            double radiusKm = request.getRadiusKm() != null ? request.getRadiusKm() : DEFAULT_RADIUS_KM;
+            lockers = lockerService.getNearbyFreeLockers(request.getLatitude(), request.getLongitude(), radiusKm,
+                    request.getSize(), start, end);
+            if (request.getLocationName() != null) {
+                lockers = lockers.stream()
+                        .filter(locker -> request.getLocationName().equals(locker.getLocationName()))
+                        .collect(Collectors.toList());
+            }
+        } else {
+            lockers = lockerService.getFreeLockers(start, end, request.getSize(), request.getLocationName());
+        }
+
+        // Candidates are free for the range rather than idle right now, so lockers with bookings
+        // before or after it compete and the tighter fit leaves fewer unusable gaps
+        Map<Long, Long> gaps = new HashMap<>();
+        Map<Long, Double> distances = new HashMap<>();
+        for (Locker locker : lockers) {
+            gaps.put(locker.getId(), availabilityBitmap.adjacentGapMinutes(locker.getId(), start, end));
+            distances.put(locker.getId(), request.hasCoordinates() && locker.getLatitude() != null
+                    && locker.getLongitude() != null
+                    ? LockerGeoIndex.distanceKm(request.getLatitude(), request.getLongitude(),
+                            locker.getLatitude(), locker.getLongitude())
+                    : 0.0);
+        }
+
+        Comparator<Locker> byPrice = Comparator.comparing(Locker::getHourlyRate,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        Comparator<Locker> byDistance = Comparator.comparing(locker -> distances.get(locker.getId()));
+        Comparator<Locker> byGap = Comparator.comparing(locker -> gaps.get(locker.getId()));
+
+        AssignmentPreference preference = request.getPreference() != null
+                ? request.getPreference()
+                : request.hasCoordinates() ? AssignmentPreference.NEAREST : AssignmentPreference.CHEAPEST;
+        Comparator<Locker> ranking = preference == AssignmentPreference.NEAREST
+                ? byDistance.thenComparing(byPrice).thenComparing(byGap)
+                : byPrice.thenComparing(byGap).thenComparing(byDistance);
+
+        List<Locker> ranked = new ArrayList<>(lockers);
+        ranked.sort(ranking.thenComparing(Locker::getId));
+        return ranked;
+    }
+}
@@ -0,0 +1,158 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.dto.BookingEvent;
+import com.luggagestorage.model.dto.LockerAvailabilityEvent;
+import com.luggagestorage.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// STOMP events of committed transactions, collected for window-ms and sent as one array frame per
+// topic. Several updates of the same locker within a window collapse into its latest state; booking
+// events are all kept, in commit order. A window of 0 sends right after each commit.
+@Component
+public class BookingEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingEventBroadcaster.class);
+
+    static final String BOOKINGS_TOPIC = "/topic/bookings";
+    static final String LOCKERS_TOPIC = "/topic/lockers";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final BookingMetrics bookingMetrics;
+    private final long windowMs;
+
+    private final Lock lock = new ReentrantLock();
+    private final List<BookingEvent> pendingBookings = new ArrayList<>();
+    private final Map<Long, LockerAvailabilityEvent> pendingLockers = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private ScheduledExecutorService flusher;
+
+    @Autowired
+    public BookingEventBroadcaster(SimpMessagingTemplate messagingTemplate,
+                                   BookingMetrics bookingMetrics,
+                                   @Value("${stomp.broadcast.window-ms:50}") long windowMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.bookingMetrics = bookingMetrics;
+        this.windowMs = windowMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (windowMs <= 0) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "StompBroadcast-Flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flush();
+    }
+
+    public void publishBookingEvent(BookingEvent event) {
+        publish(Collections.singletonList(event), Collections.emptyList());
+    }
+
+    public void publishLockerEvent(LockerAvailabilityEvent event) {
+        publish(Collections.emptyList(), Collections.singletonList(event));
+    }
+
+    // Must be called inside the transaction, not from one of its after-commit callbacks
+    public void publish(List<BookingEvent> bookingEvents, List<LockerAvailabilityEvent> lockerEvents) {
+        if (bookingEvents.isEmpty() && lockerEvents.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> enqueue(bookingEvents, lockerEvents));
+    }
+
+    void flush() {
+        List<BookingEvent> bookingEvents;
+        List<LockerAvailabilityEvent> lockerEvents;
+        lock.lock();
+        try {
+            bookingEvents = new ArrayList<>(pendingBookings);
+            lockerEvents = new ArrayList<>(pendingLockers.values());
+            pendingBookings.clear();
+            pendingLockers.clear();
+            flushScheduled = false;
+        } finally {
+            lock.unlock();
+        }
+
+        send(BOOKINGS_TOPIC, bookingEvents);
+        send(LOCKERS_TOPIC, lockerEvents);
+    }
+
+    private void enqueue(List<BookingEvent> bookingEvents, List<LockerAvailabilityEvent> lockerEvents) {
+        int coalesced = 0;
+        boolean scheduleFlush;
+        lock.lock();
+        try {
+            pendingBookings.addAll(bookingEvents);
+            for (LockerAvailabilityEvent event : lockerEvents) {
+                if (pendingLockers.put(event.getLockerId(), event) != null) {
+                    coalesced++;
+                }
+            }
+            scheduleFlush = !flushScheduled;
+            flushScheduled = true;
+        } finally {
+            lock.unlock();
+        }
+
+        if (coalesced > 0) {
+            bookingMetrics.broadcastCoalesced(LOCKERS_TOPIC, coalesced);
+        }
+        if (!scheduleFlush) {
+            return;
+        }
+        if (flusher == null) {
+            flush();
+            return;
+        }
+        try {
+            flusher.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; send now rather than drop the window
+            flush();
+        }
+    }
+
+    private void send(String destination, List<?> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSend(destination, events);
+            bookingMetrics.broadcast(destination, events.size());
+            logger.debug("Broadcast {} events to {}", events.size(), destination);
+        } catch (Exception e) {
+            logger.error("Failed to broadcast events to {}: {}", destination, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Booking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Active bookings ordered by end time. Due entries are found by comparing against the wall clock
+// on every poll, so a clock jump forward fires everything that became due and a jump back only delays.
+@Component
+public class BookingExpiryQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExpiryQueue.class);
+
+    private final NavigableMap<LocalDateTime, Set<Long>> bookingsByEnd = new TreeMap<>();
+    private final Map<Long, LocalDateTime> endByBooking = new HashMap<>();
+    private final Lock lock = new ReentrantLock();
+
+    public void rebuild(Collection<Booking> activeBookings) {
+        lock.lock();
+        try {
+            bookingsByEnd.clear();
+            endByBooking.clear();
+
+            for (Booking booking : activeBookings) {
+                scheduleLocked(booking);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        logger.info("Booking expiry queue rebuilt with {} active bookings", size());
+    }
+
+    public void schedule(Booking booking) {
+        lock.lock();
+        try {
+            scheduleLocked(booking);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void schedule(Long bookingId, LocalDateTime endTime) {
+        lock.lock();
+        try {
+            scheduleLocked(bookingId, endTime);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancel(Long bookingId) {
+        lock.lock();
+        try {
+            cancelLocked(bookingId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Long> pollExpired(LocalDateTime now) {
+        List<Long> expired = new ArrayList<>();
+
+        lock.lock();
+        try {
+            Iterator<Set<Long>> due = bookingsByEnd.headMap(now, true).values().iterator();
+            while (due.hasNext()) {
+                for (Long bookingId : due.next()) {
+                    endByBooking.remove(bookingId);
+                    expired.add(bookingId);
+                }
+                due.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return expired;
+    }
+
+    public Optional<LocalDateTime> nextExpiry() {
+        lock.lock();
+        try {
+            return bookingsByEnd.isEmpty() ? Optional.empty() : Optional.of(bookingsByEnd.firstKey());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(Long bookingId) {
+        lock.lock();
+        try {
+            return endByBooking.containsKey(bookingId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return endByBooking.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleLocked(Booking booking) {
+        if (booking.getId() == null) {
+            return;
+        }
+
+        if (!booking.isActive() || booking.getEndDatetime() == null) {
+            cancelLocked(booking.getId());
+            return;
+        }
+
+        scheduleLocked(booking.getId(), booking.getEndDatetime());
+    }
+
+    private void scheduleLocked(Long bookingId, LocalDateTime endTime) {
+        cancelLocked(bookingId);
+        bookingsByEnd.computeIfAbsent(endTime, time -> new LinkedHashSet<>()).add(bookingId);
+        endByBooking.put(bookingId, endTime);
+    }
+
+    private void cancelLocked(Long bookingId) {
+        LocalDateTime endTime = endByBooking.remove(bookingId);
+        if (endTime == null) {
+            return;
+        }
+
+        Set<Long> bookingIds = bookingsByEnd.get(endTime);
+        if (bookingIds != null) {
+            bookingIds.remove(bookingId);
+            if (bookingIds.isEmpty()) {
+                bookingsByEnd.remove(endTime);
+            }
+        }
+    }
+}
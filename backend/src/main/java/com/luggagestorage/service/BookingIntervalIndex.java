@@ -0,0 +1,194 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Booking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class BookingIntervalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingIntervalIndex.class);
+
+    private final Map<Long, LockerIntervals> intervalsByLocker = new ConcurrentHashMap<>();
+    private final Map<Long, Interval> intervalsByBooking = new ConcurrentHashMap<>();
+
+    public void rebuild(Collection<Booking> activeBookings) {
+        intervalsByLocker.clear();
+        intervalsByBooking.clear();
+
+        for (Booking booking : activeBookings) {
+            put(booking);
+        }
+
+        logger.info("Booking interval index rebuilt with {} active bookings", intervalsByBooking.size());
+    }
+
+    public void put(Booking booking) {
+        if (booking.getId() == null || booking.getLocker() == null) {
+            return;
+        }
+
+        if (!booking.isActive()) {
+            remove(booking.getId());
+            return;
+        }
+
+        put(booking.getId(), booking.getLocker().getId(), booking.getStartDatetime(), booking.getEndDatetime());
+    }
+
+    public void put(Long bookingId, Long lockerId, LocalDateTime start, LocalDateTime end) {
+        remove(bookingId);
+
+        Interval interval = new Interval(bookingId, lockerId, start, end);
+        intervalsByLocker.computeIfAbsent(lockerId, id -> new LockerIntervals()).add(interval);
+        intervalsByBooking.put(bookingId, interval);
+    }
+
+    public void remove(Long bookingId) {
+        Interval interval = intervalsByBooking.remove(bookingId);
+        if (interval == null) {
+            return;
+        }
+
+        LockerIntervals lockerIntervals = intervalsByLocker.get(interval.lockerId);
+        if (lockerIntervals != null) {
+            lockerIntervals.remove(interval);
+        }
+    }
+
+    public boolean hasOverlap(Long lockerId, LocalDateTime start, LocalDateTime end) {
+        return hasOverlap(lockerId, start, end, null);
+    }
+
+    public boolean hasOverlap(Long lockerId, LocalDateTime start, LocalDateTime end, Long excludedBookingId) {
+        LockerIntervals lockerIntervals = intervalsByLocker.get(lockerId);
+        return lockerIntervals != null && lockerIntervals.anyOverlap(start, end, excludedBookingId);
+    }
+
+    public List<Long> findOverlappingBookingIds(Long lockerId, LocalDateTime start, LocalDateTime end) {
+        LockerIntervals lockerIntervals = intervalsByLocker.get(lockerId);
+        if (lockerIntervals == null) {
+            return new ArrayList<>();
+        }
+        return lockerIntervals.overlapping(start, end);
+    }
+
+    public boolean contains(Long bookingId) {
+        return intervalsByBooking.containsKey(bookingId);
+    }
+
+    public int size() {
+        return intervalsByBooking.size();
+    }
+
+    static final class Interval implements Comparable<Interval> {
+
+        private final Long bookingId;
+        private final Long lockerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Interval(Long bookingId, Long lockerId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.lockerId = lockerId;
+            this.start = start;
+            this.end = end;
+        }
+
+        static Interval probe(LocalDateTime start) {
+            return new Interval(Long.MIN_VALUE, null, start, start);
+        }
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return start.isBefore(otherEnd) && end.isAfter(otherStart);
+        }
+
+        @Override
+        public int compareTo(Interval other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : Long.compare(bookingId, other.bookingId);
+        }
+    }
+
+    private static final class LockerIntervals {
+
+        private final NavigableSet<Interval> byStart = new TreeSet<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private Duration longest = Duration.ZERO;
+
+        void add(Interval interval) {
+            lock.writeLock().lock();
+            try {
+                byStart.add(interval);
+                Duration duration = Duration.between(interval.start, interval.end);
+                if (duration.compareTo(longest) > 0) {
+                    longest = duration;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Interval interval) {
+            lock.writeLock().lock();
+            try {
+                byStart.remove(interval);
+                if (byStart.isEmpty()) {
+                    longest = Duration.ZERO;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean anyOverlap(LocalDateTime start, LocalDateTime end, Long excludedBookingId) {
+            lock.readLock().lock();
+            try {
+                for (Interval interval : candidates(start, end)) {
+                    if (interval.overlaps(start, end) && !interval.bookingId.equals(excludedBookingId)) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Long> overlapping(LocalDateTime start, LocalDateTime end) {
+            lock.readLock().lock();
+            try {
+                List<Long> bookingIds = new ArrayList<>();
+                for (Interval interval : candidates(start, end)) {
+                    if (interval.overlaps(start, end)) {
+                        bookingIds.add(interval.bookingId);
+                    }
+                }
+                return bookingIds;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Anything starting earlier than start - longest has already ended before start.
+        private NavigableSet<Interval> candidates(LocalDateTime start, LocalDateTime end) {
+            if (!start.isBefore(end)) {
+                return new TreeSet<>();
+            }
+            return byStart.subSet(Interval.probe(start.minus(longest)), true, Interval.probe(end), false);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.exception.LockerNotAvailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Meters for the booking write path, the expiry scheduler and STOMP broadcasts. STOMP subscriptions
+// are followed from the session events, so a broadcast can be counted as the frames it fans out to.
+@Component
+public class BookingMetrics {
+
+    static final String OPERATIONS = "booking.operations";
+    static final String OVERLAP_CHECKS = "booking.overlap.checks";
+    static final String LOCK_WAIT = "booking.lock.wait";
+    static final String EXPIRY_BATCH = "booking.expiry.batch.size";
+    static final String EXPIRY_LAG = "booking.expiry.lag";
+    static final String BROADCAST_EVENTS = "stomp.broadcast.events";
+    static final String BROADCAST_DELIVERIES = "stomp.broadcast.deliveries";
+    static final String BROADCAST_COALESCED = "stomp.broadcast.coalesced";
+    static final String SUBSCRIPTIONS = "stomp.subscriptions";
+
+    // Only the topics the application broadcasts to, so clients cannot grow the set of meters
+    private static final Set<String> BROADCAST_DESTINATIONS = Set.of("/topic/bookings", "/topic/lockers");
+
+    private final MeterRegistry registry;
+    private final Map<String, String> destinationBySubscription = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> subscribersByDestination = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void bookingOperation(String operation, long elapsedNanos, Throwable failure) {
+        String outcome = failure == null ? "success"
+                : failure instanceof LockerNotAvailableException ? "conflict" : "error";
+        registry.timer(OPERATIONS, "operation", operation, "outcome", outcome)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void overlapCheck(long elapsedNanos, boolean overlapping) {
+        registry.timer(OVERLAP_CHECKS, "result", overlapping ? "overlap" : "free")
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void lockWait(long elapsedNanos) {
+        registry.timer(LOCK_WAIT).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void expiryBatch(int bookings, Duration lag) {
+        registry.summary(EXPIRY_BATCH).record(bookings);
+        registry.timer(EXPIRY_LAG).record(lag.isNegative() ? Duration.ZERO : lag);
+    }
+
+    public void broadcast(String destination, int events) {
+        registry.summary(BROADCAST_EVENTS, "destination", destination).record(events);
+        registry.counter(BROADCAST_DELIVERIES, "destination", destination)
+                .increment((double) events * subscribers(destination).get());
+    }
+
+    public void broadcastCoalesced(String destination, int events) {
+        registry.counter(BROADCAST_COALESCED, "destination", destination).increment(events);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = headers.getDestination();
+        if (destination == null || !BROADCAST_DESTINATIONS.contains(destination)) {
+            return;
+        }
+        if (destinationBySubscription.put(subscriptionKey(headers), destination) == null) {
+            subscribers(destination).incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        unsubscribe(subscriptionKey(StompHeaderAccessor.wrap(event.getMessage())));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + ":";
+        destinationBySubscription.keySet().stream()
+                .filter(key -> key.startsWith(prefix))
+                .forEach(this::unsubscribe);
+    }
+
+    private void unsubscribe(String key) {
+        String destination = destinationBySubscription.remove(key);
+        if (destination != null) {
+            subscribers(destination).decrementAndGet();
+        }
+    }
+
+    private AtomicInteger subscribers(String destination) {
+        return subscribersByDestination.computeIfAbsent(destination, key -> {
+            AtomicInteger count = new AtomicInteger();
+            Gauge.builder(SUBSCRIPTIONS, count, AtomicInteger::get)
+                    .tag("destination", key)
+                    .description("STOMP subscriptions per destination")
+                    .register(registry);
+            return count;
+        });
+    }
+
+    private static String subscriptionKey(StompHeaderAccessor headers) {
+        return headers.getSessionId() + ":" + headers.getSubscriptionId();
+    }
+}
@@ -7,15 +7,24 @@ import com.luggagestorage.model.Booking;
 import com.luggagestorage.model.Locker;
 import com.luggagestorage.model.Person;
 import com.luggagestorage.model.dto.BookingEvent;
+import com.luggagestorage.model.dto.BookingRequest;
+import com.luggagestorage.model.dto.BookingResponse;
 import com.luggagestorage.model.dto.LockerAvailabilityEvent;
 import com.luggagestorage.model.enums.BookingStatus;
 import com.luggagestorage.model.enums.Status;
 import com.luggagestorage.repository.BookingRepository;
 import com.luggagestorage.repository.LockerRepository;
+import com.luggagestorage.socket.SocketSubscriptionRegistry;
+import com.luggagestorage.util.Batches;
+import com.luggagestorage.util.KeysetPage;
+import com.luggagestorage.util.TransactionCallbacks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,7 +32,18 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.OptimisticLockException;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -31,13 +51,24 @@ public class BookingService {
 
     private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
     private static final String BOOKINGS_FILE = "bookings.json";
+    private static final int BULK_UPDATE_BATCH_SIZE = 1000;
 
     private final BookingRepository bookingRepository;
     private final LockerRepository lockerRepository;
     private final PersonService personService;
     private final LockerService lockerService;
     private final FileStorageService fileStorageService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BookingEventBroadcaster eventBroadcaster;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final LockerReservationLocks lockerReservationLocks;
+    private final BookingExpiryQueue bookingExpiryQueue;
+    private final SocketSubscriptionRegistry socketSubscriptions;
+    private final LockerStatistics lockerStatistics;
+    private final LockerAvailabilityBitmap availabilityBitmap;
+    private final BookingMetrics bookingMetrics;
+
+    @Value("${booking.batch.max-size:100}")
+    private int maxBatchSize = 100;
 
     @Autowired
     public BookingService(BookingRepository bookingRepository,
@@ -45,26 +76,58 @@ public class BookingService {
                           PersonService personService,
                           LockerService lockerService,
                           FileStorageService fileStorageService,
-                          SimpMessagingTemplate messagingTemplate) {
+                          BookingEventBroadcaster eventBroadcaster,
+                          BookingIntervalIndex bookingIntervalIndex,
+                          LockerReservationLocks lockerReservationLocks,
+                          BookingExpiryQueue bookingExpiryQueue,
+                          SocketSubscriptionRegistry socketSubscriptions,
+                          LockerStatistics lockerStatistics,
+                          LockerAvailabilityBitmap availabilityBitmap,
+                          BookingMetrics bookingMetrics) {
         this.bookingRepository = bookingRepository;
         this.lockerRepository = lockerRepository;
         this.personService = personService;
         this.lockerService = lockerService;
         this.fileStorageService = fileStorageService;
-        this.messagingTemplate = messagingTemplate;
+        this.fileStorageService.registerDataset(BOOKINGS_FILE, Booking.class);
+        this.eventBroadcaster = eventBroadcaster;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.lockerReservationLocks = lockerReservationLocks;
+        this.bookingExpiryQueue = bookingExpiryQueue;
+        this.socketSubscriptions = socketSubscriptions;
+        this.lockerStatistics = lockerStatistics;
+        this.availabilityBitmap = availabilityBitmap;
+        this.bookingMetrics = bookingMetrics;
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildBookingIndexes() {
+        List<Booking> activeBookings = bookingRepository.findByStatus(BookingStatus.ACTIVE);
+        bookingIntervalIndex.rebuild(activeBookings);
+        bookingExpiryQueue.rebuild(activeBookings);
+        availabilityBitmap.rebuildBookings(activeBookings);
+    }
+
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public Booking createBooking(Long customerId, Long lockerId, LocalDateTime startTime, LocalDateTime endTime) {
-        logger.info("Creating new booking for customer {} and locker {}", customerId, lockerId);
+        return timed("create", () -> reserve(customerId, lockerId, startTime, endTime));
+    }
+
+    private Booking reserve(Long customerId, Long lockerId, LocalDateTime startTime, LocalDateTime endTime) {
+        logger.debug("Creating new booking for customer {} and locker {}", customerId, lockerId);
 
         try {
 
             validateBookingTimes(startTime, endTime);
 
+            // Only requests for the same locker (stripe) wait here; the locker version bump
+            // at commit catches a concurrent reservation from another application instance.
+            lockLocker(lockerId);
+
             Person customer = personService.getPersonById(customerId);
 
-            Locker locker = lockerRepository.findByIdWithLock(lockerId)
+            Locker locker = lockerRepository.findByIdForReservation(lockerId)
                     .orElseThrow(() -> new ResourceNotFoundException("Locker", "id", lockerId));
 
             checkForOverlappingBookings(lockerId, startTime, endTime);
@@ -78,21 +141,150 @@ public class BookingService {
 
             lockerService.updateLockerStatus(lockerId, Status.OCCUPIED);
 
-            saveToFile();
+            saveToFile(savedBooking);
+            indexAfterCommit(savedBooking);
+            lockerStatistics.bookingAdded(savedBooking.getStatus());
 
             broadcastBookingEvent(savedBooking, "CREATED", "New booking created");
             broadcastLockerAvailabilityEvent(locker, "Locker now occupied");
 
-            logger.info("Booking created successfully with ID: {} and total price: {}",
+            logger.debug("Booking created successfully with ID: {} and total price: {}",
                     savedBooking.getId(), savedBooking.getTotalPrice());
             return savedBooking;
-        } catch (OptimisticLockException e) {
+        } catch (OptimisticLockException | ObjectOptimisticLockingFailureException e) {
             logger.error("Optimistic lock exception while creating booking for locker {}", lockerId);
             throw new LockerNotAvailableException(
                     "The locker was modified by another user. Please try again.", lockerId);
         }
     }
 
+    // All-or-nothing variant of createBooking for group reservations: one transaction, JDBC-batched
+    // inserts and locker updates, one snapshot per file and one batched message per topic.
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<Booking> createBookings(Long customerId, List<BookingRequest> requests) {
+        return timed("create-batch", () -> reserveAll(customerId, requests));
+    }
+
+    private List<Booking> reserveAll(Long customerId, List<BookingRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one booking is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxBatchSize + " bookings");
+        }
+        logger.debug("Creating {} bookings in one batch for customer {}", requests.size(), customerId);
+
+        for (BookingRequest request : requests) {
+            validateBookingTimes(request.getStartDatetime(), request.getEndDatetime());
+        }
+        checkBatchForOverlaps(requests);
+
+        Set<Long> lockerIds = requests.stream()
+                .map(BookingRequest::getLockerId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        long lockRequested = System.nanoTime();
+        lockerReservationLocks.lockAllUntilTransactionCompletes(lockerIds);
+        bookingMetrics.lockWait(System.nanoTime() - lockRequested);
+
+        Person customer = personService.getPersonById(customerId);
+
+        Map<Long, Locker> lockers = new HashMap<>();
+        lockerRepository.findAllByIdForReservation(lockerIds).forEach(locker -> lockers.put(locker.getId(), locker));
+        for (Long lockerId : lockerIds) {
+            if (!lockers.containsKey(lockerId)) {
+                throw new ResourceNotFoundException("Locker", "id", lockerId);
+            }
+        }
+
+        checkBatchAgainstExistingBookings(requests, lockerIds);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (BookingRequest request : requests) {
+            Booking booking = new Booking(customer, lockers.get(request.getLockerId()),
+                    request.getStartDatetime(), request.getEndDatetime());
+            booking.setStatus(BookingStatus.ACTIVE);
+            booking.updateTotalPrice();
+            bookings.add(booking);
+        }
+
+        List<Booking> savedBookings;
+        try {
+            savedBookings = bookingRepository.saveAll(bookings);
+            lockerService.occupyLockers(lockers.values());
+            bookingRepository.flush();
+        } catch (OptimisticLockException | ObjectOptimisticLockingFailureException e) {
+            logger.error("Optimistic lock exception while creating a batch of {} bookings", requests.size());
+            throw new LockerNotAvailableException(
+                    "One of the lockers was modified by another user. Please try again.");
+        }
+
+        fileStorageService.markDirty(BOOKINGS_FILE, bookingRepository::findAll);
+        lockerStatistics.bookingsAdded(BookingStatus.ACTIVE, savedBookings.size());
+
+        List<BookingEvent> bookingEvents = new ArrayList<>();
+        for (Booking booking : savedBookings) {
+            bookingEvents.add(toBookingEvent(booking, "CREATED", "New booking created"));
+        }
+        List<LockerAvailabilityEvent> lockerEvents = new ArrayList<>();
+        for (Long lockerId : lockerIds) {
+            lockerEvents.add(toLockerAvailabilityEvent(lockers.get(lockerId), "Locker now occupied"));
+        }
+
+        eventBroadcaster.publish(bookingEvents, lockerEvents);
+        TransactionCallbacks.afterCommit(() -> {
+            savedBookings.forEach(booking -> {
+                bookingIntervalIndex.put(booking);
+                bookingExpiryQueue.schedule(booking);
+                availabilityBitmap.putBooking(booking);
+            });
+            socketSubscriptions.publishBookingEvents(bookingEvents);
+            socketSubscriptions.publishLockerEvents(lockerEvents);
+        });
+
+        logger.debug("Created {} bookings on {} lockers in one batch", savedBookings.size(), lockerIds.size());
+        return savedBookings;
+    }
+
+    private void checkBatchForOverlaps(List<BookingRequest> requests) {
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            for (int j = i + 1; j < requests.size(); j++) {
+                BookingRequest other = requests.get(j);
+                if (request.getLockerId().equals(other.getLockerId())
+                        && request.getStartDatetime().isBefore(other.getEndDatetime())
+                        && request.getEndDatetime().isAfter(other.getStartDatetime())) {
+                    throw new LockerNotAvailableException(
+                            "The batch books the locker twice for overlapping periods", request.getLockerId());
+                }
+            }
+        }
+    }
+
+    // One query over the envelope of all requested periods instead of one per booking
+    private void checkBatchAgainstExistingBookings(List<BookingRequest> requests, Set<Long> lockerIds) {
+        LocalDateTime earliestStart = requests.stream().map(BookingRequest::getStartDatetime)
+                .min(LocalDateTime::compareTo).orElseThrow(IllegalStateException::new);
+        LocalDateTime latestEnd = requests.stream().map(BookingRequest::getEndDatetime)
+                .max(LocalDateTime::compareTo).orElseThrow(IllegalStateException::new);
+        Map<Long, List<Booking>> existingByLocker = bookingRepository
+                .findOverlappingBookingsForLockers(lockerIds, earliestStart, latestEnd).stream()
+                .collect(Collectors.groupingBy(b -> b.getLocker().getId()));
+
+        for (BookingRequest request : requests) {
+            Long lockerId = request.getLockerId();
+            boolean overlaps = existingByLocker.getOrDefault(lockerId, Collections.emptyList()).stream()
+                    .anyMatch(b -> b.getStartDatetime().isBefore(request.getEndDatetime())
+                            && b.getEndDatetime().isAfter(request.getStartDatetime()));
+            if (!overlaps && bookingIntervalIndex.hasOverlap(lockerId, request.getStartDatetime(), request.getEndDatetime())) {
+                dropStaleIndexEntries(lockerId, request.getStartDatetime(), request.getEndDatetime(), null);
+            }
+            if (overlaps) {
+                throw new LockerNotAvailableException(
+                        "Locker is already booked during the requested time period", lockerId);
+            }
+        }
+    }
+
     private void validateBookingTimes(LocalDateTime startTime, LocalDateTime endTime) {
         if (startTime == null || endTime == null) {
             throw new InvalidBookingTimeException("Start time and end time are required", startTime, endTime);
@@ -112,14 +304,65 @@ public class BookingService {
     }
 
     private void checkForOverlappingBookings(Long lockerId, LocalDateTime startTime, LocalDateTime endTime) {
+        checkForOverlappingBookings(lockerId, startTime, endTime, null);
+    }
+
+    private void checkForOverlappingBookings(Long lockerId, LocalDateTime startTime, LocalDateTime endTime,
+                                             Long excludedBookingId) {
+        long started = System.nanoTime();
+        boolean indexed = bookingIntervalIndex.hasOverlap(lockerId, startTime, endTime, excludedBookingId);
+
+        // The index only sees committed bookings and can keep ones removed without it being told,
+        // so the database decides both ways; a hit it does not confirm is dropped from the index
         List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(lockerId, startTime, endTime);
+        if (excludedBookingId != null) {
+            overlappingBookings.removeIf(b -> b.getId().equals(excludedBookingId));
+        }
+        boolean overlapping = !overlappingBookings.isEmpty();
+        if (indexed && !overlapping) {
+            dropStaleIndexEntries(lockerId, startTime, endTime, excludedBookingId);
+        }
+        bookingMetrics.overlapCheck(System.nanoTime() - started, overlapping);
 
-        if (!overlappingBookings.isEmpty()) {
+        if (overlapping) {
             throw new LockerNotAvailableException(
                     "Locker is already booked during the requested time period", lockerId);
         }
     }
 
+    private void dropStaleIndexEntries(Long lockerId, LocalDateTime startTime, LocalDateTime endTime,
+                                       Long excludedBookingId) {
+        for (Long bookingId : bookingIntervalIndex.findOverlappingBookingIds(lockerId, startTime, endTime)) {
+            if (bookingId.equals(excludedBookingId)) {
+                continue;
+            }
+            logger.warn("Dropping booking {} from the in-memory indexes; it is no longer active in the database",
+                    bookingId);
+            bookingIntervalIndex.remove(bookingId);
+            bookingExpiryQueue.cancel(bookingId);
+            availabilityBitmap.removeBooking(bookingId);
+        }
+    }
+
+    private void lockLocker(Long lockerId) {
+        long requested = System.nanoTime();
+        lockerReservationLocks.lockUntilTransactionCompletes(lockerId);
+        bookingMetrics.lockWait(System.nanoTime() - requested);
+    }
+
+    private <T> T timed(String operation, Supplier<T> action) {
+        long started = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            bookingMetrics.bookingOperation(operation, System.nanoTime() - started, failure);
+        }
+    }
+
     public Booking getBookingById(Long id) {
         return bookingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", id));
@@ -149,8 +392,33 @@ public class BookingService {
         return bookingRepository.findByStatus(status);
     }
 
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getBookingResponses(BookingStatus status, Long customerId, Long lockerId) {
+        return bookingRepository.findResponses(status, customerId, lockerId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getBookingResponsesPage(Long afterId, Integer limit, BookingStatus status,
+                                                         Long customerId, Long lockerId) {
+        return bookingRepository.findResponsePage(KeysetPage.after(afterId), status, customerId, lockerId,
+                KeysetPage.first(limit));
+    }
+
+    // Rows are handed out as the cursor reads them; projections are not managed entities, so the
+    // persistence context does not grow and memory stays flat however many bookings match
+    @Transactional(readOnly = true)
+    public void forEachBookingResponse(BookingStatus status, Consumer<BookingResponse> action) {
+        try (Stream<BookingResponse> bookings = bookingRepository.streamResponses(status)) {
+            bookings.forEach(action);
+        }
+    }
+
     public Booking updateBooking(Long id, LocalDateTime startTime, LocalDateTime endTime) {
-        logger.info("Updating booking with ID: {}", id);
+        return timed("update", () -> reschedule(id, startTime, endTime));
+    }
+
+    private Booking reschedule(Long id, LocalDateTime startTime, LocalDateTime endTime) {
+        logger.debug("Updating booking with ID: {}", id);
 
         Booking booking = getBookingById(id);
 
@@ -161,16 +429,8 @@ public class BookingService {
         if (startTime != null && endTime != null) {
             validateBookingTimes(startTime, endTime);
 
-            List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(
-                    booking.getLocker().getId(), startTime, endTime);
-
-            overlappingBookings.removeIf(b -> b.getId().equals(id));
-
-            if (!overlappingBookings.isEmpty()) {
-                throw new LockerNotAvailableException(
-                        "Locker is already booked during the requested time period",
-                        booking.getLocker().getId());
-            }
+            lockLocker(booking.getLocker().getId());
+            checkForOverlappingBookings(booking.getLocker().getId(), startTime, endTime, id);
 
             booking.setStartDatetime(startTime);
             booking.setEndDatetime(endTime);
@@ -179,16 +439,21 @@ public class BookingService {
         }
 
         Booking updatedBooking = bookingRepository.save(booking);
-        saveToFile();
+        saveToFile(updatedBooking);
+        indexAfterCommit(updatedBooking);
 
         broadcastBookingEvent(updatedBooking, "UPDATED", "Booking updated");
 
-        logger.info("Booking updated successfully with ID: {}", updatedBooking.getId());
+        logger.debug("Booking updated successfully with ID: {}", updatedBooking.getId());
         return updatedBooking;
     }
 
     public Booking cancelBooking(Long id) {
-        logger.info("Cancelling booking with ID: {}", id);
+        return timed("cancel", () -> cancel(id));
+    }
+
+    private Booking cancel(Long id) {
+        logger.debug("Cancelling booking with ID: {}", id);
 
         Booking booking = getBookingById(id);
 
@@ -202,17 +467,23 @@ public class BookingService {
         lockerService.updateLockerStatus(locker.getId(), Status.AVAILABLE);
 
         Booking cancelledBooking = bookingRepository.save(booking);
-        saveToFile();
+        saveToFile(cancelledBooking);
+        unindexAfterCommit(id);
+        lockerStatistics.bookingStatusChanged(BookingStatus.ACTIVE, BookingStatus.CANCELLED, 1);
 
         broadcastBookingEvent(cancelledBooking, "CANCELLED", "Booking cancelled");
         broadcastLockerAvailabilityEvent(locker, "Locker now available");
 
-        logger.info("Booking cancelled successfully with ID: {}", id);
+        logger.debug("Booking cancelled successfully with ID: {}", id);
         return cancelledBooking;
     }
 
     public Booking completeBooking(Long id) {
-        logger.info("Completing booking with ID: {}", id);
+        return timed("complete", () -> complete(id));
+    }
+
+    private Booking complete(Long id) {
+        logger.debug("Completing booking with ID: {}", id);
 
         Booking booking = getBookingById(id);
 
@@ -226,37 +497,128 @@ public class BookingService {
         lockerService.updateLockerStatus(locker.getId(), Status.AVAILABLE);
 
         Booking completedBooking = bookingRepository.save(booking);
-        saveToFile();
+        saveToFile(completedBooking);
+        unindexAfterCommit(id);
+        lockerStatistics.bookingStatusChanged(BookingStatus.ACTIVE, BookingStatus.COMPLETED, 1);
 
         broadcastBookingEvent(completedBooking, "COMPLETED", "Booking completed");
         broadcastLockerAvailabilityEvent(locker, "Locker now available");
 
-        logger.info("Booking completed successfully with ID: {}", id);
+        logger.debug("Booking completed successfully with ID: {}", id);
         return completedBooking;
     }
 
+    // Set-based variant of completeBooking for many bookings ending at once: one UPDATE per batch
+    // of bookings and lockers, one snapshot per file and one batched message per topic.
+    public List<Long> completeExpiredBookings(Collection<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> expiredBookings = new ArrayList<>();
+        for (List<Long> batch : Batches.partition(bookingIds, BULK_UPDATE_BATCH_SIZE)) {
+            expiredBookings.addAll(bookingRepository.findExpiredActiveBookingsByIds(batch, now));
+        }
+
+        if (expiredBookings.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> completedIds = expiredBookings.stream().map(Booking::getId).collect(Collectors.toList());
+        Set<Long> lockerIds = expiredBookings.stream()
+                .map(b -> b.getLocker().getId())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        int completed = 0;
+        for (List<Long> batch : Batches.partition(completedIds, BULK_UPDATE_BATCH_SIZE)) {
+            completed += bookingRepository.completeActiveBookings(batch);
+        }
+        if (completed != completedIds.size()) {
+            // Another transaction changed some of them in the meantime; roll back and let the caller retry
+            throw new ObjectOptimisticLockingFailureException(Booking.class, completedIds);
+        }
+
+        lockerService.updateLockerStatuses(lockerIds, Status.AVAILABLE);
+        fileStorageService.markDirty(BOOKINGS_FILE, bookingRepository::findAll);
+        lockerStatistics.bookingStatusChanged(BookingStatus.ACTIVE, BookingStatus.COMPLETED, completed);
+
+        // The loaded entities are detached after the bulk updates, so this only affects the events
+        List<BookingEvent> bookingEvents = new ArrayList<>();
+        List<LockerAvailabilityEvent> lockerEvents = new ArrayList<>();
+        Set<Long> releasedLockers = new LinkedHashSet<>();
+        for (Booking booking : expiredBookings) {
+            booking.complete();
+            booking.getLocker().updateStatus(Status.AVAILABLE);
+            bookingEvents.add(toBookingEvent(booking, "COMPLETED", "Booking completed"));
+            if (releasedLockers.add(booking.getLocker().getId())) {
+                lockerEvents.add(toLockerAvailabilityEvent(booking.getLocker(), "Locker now available"));
+            }
+        }
+
+        eventBroadcaster.publish(bookingEvents, lockerEvents);
+        TransactionCallbacks.afterCommit(() -> {
+            completedIds.forEach(id -> {
+                bookingIntervalIndex.remove(id);
+                bookingExpiryQueue.cancel(id);
+                availabilityBitmap.removeBooking(id);
+            });
+            socketSubscriptions.publishBookingEvents(bookingEvents);
+            socketSubscriptions.publishLockerEvents(lockerEvents);
+        });
+
+        logger.info("Bulk-completed {} expired bookings and released {} lockers", completed, lockerIds.size());
+        return completedIds;
+    }
+
     public void deleteBooking(Long id) {
-        logger.info("Deleting booking with ID: {}", id);
+        logger.debug("Deleting booking with ID: {}", id);
 
-        Booking booking = getBookingById(id);
+        delete(getBookingById(id));
+        logger.debug("Booking deleted successfully with ID: {}", id);
+    }
+
+    // Deleting a person would cascade to their bookings without releasing the lockers or telling the
+    // in-memory indexes, so PersonService removes them through here first
+    public void deleteBookingsOfCustomer(Long customerId) {
+        List<Booking> bookings = bookingRepository.findByCustomerId(customerId);
+        bookings.forEach(this::delete);
+        logger.debug("Deleted {} bookings of customer {}", bookings.size(), customerId);
+    }
 
+    private void delete(Booking booking) {
         if (booking.getStatus() == BookingStatus.ACTIVE) {
             lockerService.updateLockerStatus(booking.getLocker().getId(), Status.AVAILABLE);
         }
 
         bookingRepository.delete(booking);
-        saveToFile();
-        logger.info("Booking deleted successfully with ID: {}", id);
+        deleteFromFile(booking.getId());
+        unindexAfterCommit(booking.getId());
+        lockerStatistics.bookingRemoved(booking.getStatus());
     }
 
-    private void saveToFile() {
-        try {
-            List<Booking> bookings = bookingRepository.findAll();
-            fileStorageService.saveToFile(bookings, BOOKINGS_FILE);
-        } catch (IOException e) {
-            logger.error("Failed to save bookings to file: {}", e.getMessage());
+    private void indexAfterCommit(Booking booking) {
+        TransactionCallbacks.afterCommit(() -> {
+            bookingIntervalIndex.put(booking);
+            bookingExpiryQueue.schedule(booking);
+            availabilityBitmap.putBooking(booking);
+        });
+    }
 
-        }
+    private void unindexAfterCommit(Long id) {
+        TransactionCallbacks.afterCommit(() -> {
+            bookingIntervalIndex.remove(id);
+            bookingExpiryQueue.cancel(id);
+            availabilityBitmap.removeBooking(id);
+        });
+    }
+
+    private void saveToFile(Booking booking) {
+        fileStorageService.recordUpsert(BOOKINGS_FILE, booking.getId(), booking, bookingRepository::findAll);
+    }
+
+    private void deleteFromFile(Long id) {
+        fileStorageService.recordDelete(BOOKINGS_FILE, id, bookingRepository::findAll);
     }
 
     public void loadFromFile() {
@@ -270,18 +632,37 @@ public class BookingService {
         }
     }
 
+    private BookingEvent toBookingEvent(Booking booking, String eventType, String message) {
+        BookingEvent event = new BookingEvent(
+                booking.getId(),
+                booking.getLocker().getId(),
+                booking.getLocker().getLockerNumber(),
+                eventType,
+                booking.getCustomer().getFirstName() + " " + booking.getCustomer().getLastName(),
+                message
+        );
+        event.setLocationName(booking.getLocker().getLocationName());
+        return event;
+    }
+
+    private LockerAvailabilityEvent toLockerAvailabilityEvent(Locker locker, String message) {
+        LockerAvailabilityEvent event = new LockerAvailabilityEvent(
+                locker.getId(),
+                locker.getLockerNumber(),
+                locker.getStatus(),
+                locker.getSize().toString(),
+                message
+        );
+        event.setLocationName(locker.getLocationName());
+        return event;
+    }
+
     private void broadcastBookingEvent(Booking booking, String eventType, String message) {
         try {
-            BookingEvent event = new BookingEvent(
-                    booking.getId(),
-                    booking.getLocker().getId(),
-                    booking.getLocker().getLockerNumber(),
-                    eventType,
-                    booking.getCustomer().getFirstName() + " " + booking.getCustomer().getLastName(),
-                    message
-            );
-            messagingTemplate.convertAndSend("/topic/bookings", event);
-            logger.debug("Broadcast booking event: {}", event);
+            BookingEvent event = toBookingEvent(booking, eventType, message);
+            eventBroadcaster.publishBookingEvent(event);
+            TransactionCallbacks.afterCommit(() -> socketSubscriptions.publishBookingEvent(event));
+            logger.debug("Queued booking event: {}", event);
         } catch (Exception e) {
             logger.error("Failed to broadcast booking event: {}", e.getMessage());
 
@@ -290,15 +671,10 @@ public class BookingService {
 
     private void broadcastLockerAvailabilityEvent(Locker locker, String message) {
         try {
-            LockerAvailabilityEvent event = new LockerAvailabilityEvent(
-                    locker.getId(),
-                    locker.getLockerNumber(),
-                    locker.getStatus(),
-                    locker.getSize().toString(),
-                    message
-            );
-            messagingTemplate.convertAndSend("/topic/lockers", event);
-            logger.debug("Broadcast locker availability event: {}", event);
+            LockerAvailabilityEvent event = toLockerAvailabilityEvent(locker, message);
+            eventBroadcaster.publishLockerEvent(event);
+            TransactionCallbacks.afterCommit(() -> socketSubscriptions.publishLockerEvent(event));
+            logger.debug("Queued locker availability event: {}", event);
         } catch (Exception e) {
             logger.error("Failed to broadcast locker availability event: {}", e.getMessage());
 
@@ -20,16 +20,18 @@ import java.util.List;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final PersonRepository personRepository;
+    private final PersonCache personCache;
 
     @Autowired
-    public CustomUserDetailsService(PersonRepository personRepository) {
+    public CustomUserDetailsService(PersonRepository personRepository, PersonCache personCache) {
         this.personRepository = personRepository;
+        this.personCache = personCache;
     }
 
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Person person = personRepository.findByEmail(email)
+        Person person = personCache.getByEmail(email, personRepository::findByEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         return User.builder()
@@ -47,7 +49,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Transactional
     public UserDetails loadUserById(Long id) throws UsernameNotFoundException {
-        Person person = personRepository.findById(id)
+        Person person = personCache.getById(id, personRepository::findById)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
 
         return User.builder()
@@ -1,26 +1,53 @@
 package com.luggagestorage.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.luggagestorage.util.TransactionCallbacks;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 @Service
-public class FileStorageService {
+public class FileStorageService implements MeterBinder {
 
     private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
 
@@ -30,7 +57,44 @@ public class FileStorageService {
     @Value("${file.storage.path:./data}")
     private String storagePath;
 
+    @Value("${file.storage.write-behind.enabled:true}")
+    private boolean writeBehindEnabled;
+
+    @Value("${file.storage.write-behind.interval-ms:1000}")
+    private long writeBehindIntervalMs;
+
+    @Value("${file.storage.format:json}")
+    private String storageFormat;
+
+    @Value("${file.storage.mode:snapshot}")
+    private String storageMode;
+
+    @Value("${file.storage.journal.compact-threshold:1000}")
+    private long journalCompactThreshold;
+
+    @Value("${file.storage.journal.compact-interval-ms:60000}")
+    private long journalCompactIntervalMs;
+
     private ObjectMapper objectMapper;
+    private ObjectWriter journalWriter;
+
+    private final Map<String, ChangeJournal> journals = new ConcurrentHashMap<>();
+    private final Map<String, Class<?>> datasetTypes = new ConcurrentHashMap<>();
+
+    private final Map<String, PendingSnapshot> dirtySnapshots = new ConcurrentHashMap<>();
+    // flush() may run on a request thread while the write-behind thread is writing
+    private final Lock snapshotLock = new ReentrantLock();
+    private ScheduledExecutorService snapshotWriter;
+
+    private final AtomicLong snapshotsWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong coalescedChanges = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong journalRecords = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private volatile long lastLagMs;
+    private volatile long maxLagMs;
+    private volatile MeterRegistry registry;
 
     @PostConstruct
     public void init() {
@@ -41,12 +105,14 @@ public class FileStorageService {
         Hibernate5Module hibernateModule = new Hibernate5Module();
         hibernateModule.disable(Hibernate5Module.Feature.USE_TRANSIENT_ANNOTATION);
         hibernateModule.configure(Hibernate5Module.Feature.FORCE_LAZY_LOADING, false);
+        hibernateModule.enable(Hibernate5Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
         objectMapper.registerModule(hibernateModule);
 
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
         objectMapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        journalWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
 
         if (storageEnabled) {
             try {
@@ -55,6 +121,80 @@ public class FileStorageService {
             } catch (IOException e) {
                 logger.error("Failed to initialize file storage directory: {}", e.getMessage());
             }
+
+            if (writeBehindEnabled || isJournalMode()) {
+                startSnapshotWriter();
+            }
+        }
+    }
+
+    private void startSnapshotWriter() {
+        snapshotWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "FileStorage-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (writeBehindEnabled) {
+            snapshotWriter.scheduleWithFixedDelay(this::writeDirtySnapshots,
+                    writeBehindIntervalMs, writeBehindIntervalMs, TimeUnit.MILLISECONDS);
+            logger.info("Write-behind snapshots enabled, flushing every {} ms", writeBehindIntervalMs);
+        }
+
+        if (isJournalMode()) {
+            snapshotWriter.scheduleWithFixedDelay(this::compactJournals,
+                    journalCompactIntervalMs, journalCompactIntervalMs, TimeUnit.MILLISECONDS);
+            logger.info("Journal mode enabled, compacting every {} ms or {} records",
+                    journalCompactIntervalMs, journalCompactThreshold);
+        }
+    }
+
+    public boolean isJournalMode() {
+        return "journal".equalsIgnoreCase(storageMode);
+    }
+
+    public boolean isBinaryFormat() {
+        return "binary".equalsIgnoreCase(storageFormat);
+    }
+
+    public void registerDataset(String filename, Class<?> type) {
+        datasetTypes.put(filename, type);
+    }
+
+    private boolean usesBinary(String filename) {
+        Class<?> type = datasetTypes.get(filename);
+        return isBinaryFormat() && type != null && BinarySnapshotFormat.supports(type);
+    }
+
+    // Binary snapshots live next to the JSON ones so switching formats does not clobber the old file
+    private String snapshotName(String filename) {
+        if (!usesBinary(filename)) {
+            return filename;
+        }
+        String base = filename.endsWith(".json") ? filename.substring(0, filename.length() - 5) : filename;
+        return base + ".bin";
+    }
+
+    private long writeSnapshotData(String filename, List<?> data) throws IOException {
+        long started = System.nanoTime();
+        byte[] content = usesBinary(filename)
+                ? BinarySnapshotFormat.encode(data, datasetTypes.get(filename))
+                : objectMapper.writeValueAsBytes(data);
+        long size = writeAtomically(snapshotName(filename), content);
+
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            meterRegistry.timer("file.storage.snapshot.writes", "dataset", filename)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            meterRegistry.summary("file.storage.snapshot.bytes", "dataset", filename).record(size);
+        }
+        return size;
+    }
+
+    private <T> List<T> readBinarySnapshot(Path path, Class<T> valueType) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return BinarySnapshotFormat.decode(buffer, valueType);
         }
     }
 
@@ -72,9 +212,282 @@ public class FileStorageService {
             return;
         }
 
+        long size = writeSnapshotData(filename, data);
+        bytesWritten.addAndGet(size);
+        logger.debug("Saved {} items ({} bytes) to file: {}", data.size(), size, getFilePath(snapshotName(filename)));
+    }
+
+    public <T> void markDirty(String filename, Supplier<List<T>> snapshotSupplier) {
+        if (!storageEnabled) {
+            logger.debug("File storage is disabled, skipping save operation");
+            return;
+        }
+
+        // The snapshot is read back from the database, so it must not be taken before the change commits
+        TransactionCallbacks.afterCommit(() -> {
+            if (!writeBehindEnabled || snapshotWriter == null) {
+                writeSnapshot(filename, new PendingSnapshot(snapshotSupplier, System.currentTimeMillis()));
+                return;
+            }
+
+            dirtySnapshots.merge(filename, new PendingSnapshot(snapshotSupplier, System.currentTimeMillis()),
+                    (pending, ignored) -> {
+                        coalescedChanges.incrementAndGet();
+                        return pending;
+                    });
+        });
+    }
+
+    public <T> void recordUpsert(String filename, Object id, Object entity, Supplier<List<T>> snapshotSupplier) {
+        if (!isJournalMode()) {
+            markDirty(filename, snapshotSupplier);
+            return;
+        }
+        // Serialized after commit so the record carries the flushed version
+        recordChange(filename, snapshotSupplier, () -> journalRecord("upsert", id).set("data", objectMapper.valueToTree(entity)));
+    }
+
+    public <T> void recordDelete(String filename, Object id, Supplier<List<T>> snapshotSupplier) {
+        if (!isJournalMode()) {
+            markDirty(filename, snapshotSupplier);
+            return;
+        }
+        recordChange(filename, snapshotSupplier, () -> journalRecord("delete", id));
+    }
+
+    private <T> void recordChange(String filename, Supplier<List<T>> snapshotSupplier, Supplier<JsonNode> record) {
+        if (!storageEnabled) {
+            logger.debug("File storage is disabled, skipping save operation");
+            return;
+        }
+
+        TransactionCallbacks.afterCommit(() -> {
+            ChangeJournal journal = journalFor(filename);
+            try {
+                bytesWritten.addAndGet(journal.append(journalWriter.writeValueAsBytes(record.get())));
+                journalRecords.incrementAndGet();
+            } catch (Exception e) {
+                failedWrites.incrementAndGet();
+                logger.error("Failed to append to journal for {}, falling back to a full snapshot: {}",
+                        filename, e.getMessage());
+                dirtySnapshots.putIfAbsent(filename, new PendingSnapshot(snapshotSupplier, System.currentTimeMillis()));
+                return;
+            }
+
+            if (journal.getRecordCount() >= journalCompactThreshold && snapshotWriter != null) {
+                snapshotWriter.execute(() -> compactJournal(filename));
+            }
+        });
+    }
+
+    private ObjectNode journalRecord(String operation, Object id) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("op", operation);
+        record.set("id", objectMapper.valueToTree(id));
+        return record;
+    }
+
+    private ChangeJournal journalFor(String filename) {
+        return journals.computeIfAbsent(filename, name -> new ChangeJournal(Paths.get(storagePath, name + ".journal")));
+    }
+
+    public void compactJournals() {
+        for (String filename : new ArrayList<>(journals.keySet())) {
+            compactJournal(filename);
+        }
+    }
+
+    // Folds the journal into the snapshot file; appends wait on the journal until it is truncated.
+    public void compactJournal(String filename) {
+        ChangeJournal journal = journalFor(filename);
+        Lock lock = journal.getLock();
+        lock.lock();
+        try {
+            if (journal.getRecordCount() == 0 && !journal.exists()) {
+                return;
+            }
+            journal.open();
+            if (journal.getRecordCount() == 0) {
+                return;
+            }
+
+            List<JsonNode> items = replayJournal(filename, journal);
+            ArrayNode snapshot = objectMapper.createArrayNode().addAll(items);
+            long size = usesBinary(filename)
+                    ? writeSnapshotData(filename, objectMapper.convertValue(snapshot,
+                            objectMapper.getTypeFactory().constructCollectionType(List.class, datasetTypes.get(filename))))
+                    : writeAtomically(filename, objectMapper.writeValueAsBytes(snapshot));
+            long folded = journal.getRecordCount();
+            journal.truncate();
+
+            compactions.incrementAndGet();
+            bytesWritten.addAndGet(size);
+            logger.info("Compacted {} journal records into {} ({} items)", folded, filename, items.size());
+        } catch (IOException e) {
+            failedWrites.incrementAndGet();
+            logger.error("Failed to compact journal for {}: {}", filename, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<JsonNode> replayJournal(String filename, ChangeJournal journal) throws IOException {
+        Map<String, JsonNode> itemsById = new LinkedHashMap<>();
+
+        Path binaryFile = Paths.get(storagePath, snapshotName(filename));
         File file = new File(storagePath, filename);
-        objectMapper.writeValue(file, data);
-        logger.info("Saved {} items to file: {}", data.size(), file.getAbsolutePath());
+        if (usesBinary(filename) && Files.exists(binaryFile)) {
+            for (Object item : readBinarySnapshot(binaryFile, datasetTypes.get(filename))) {
+                JsonNode node = objectMapper.valueToTree(item);
+                itemsById.put(node.path("id").asText(), node);
+            }
+        } else if (file.exists()) {
+            for (JsonNode item : objectMapper.readTree(file)) {
+                itemsById.put(item.path("id").asText(), item);
+            }
+        }
+
+        for (JsonNode record : journal.readRecords(objectMapper)) {
+            String id = record.path("id").asText();
+            if ("delete".equals(record.path("op").asText())) {
+                itemsById.remove(id);
+            } else {
+                itemsById.put(id, record.get("data"));
+            }
+        }
+
+        return new ArrayList<>(itemsById.values());
+    }
+
+    public void flush() {
+        writeDirtySnapshots();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void flushOnShutdown() {
+        if (!dirtySnapshots.isEmpty()) {
+            logger.info("Flushing {} pending snapshot(s) before shutdown", dirtySnapshots.size());
+        }
+        flush();
+        compactJournals();
+    }
+
+    @PreDestroy
+    public void stopSnapshotWriter() {
+        if (snapshotWriter != null) {
+            snapshotWriter.shutdown();
+        }
+        journals.values().forEach(ChangeJournal::close);
+    }
+
+    private void writeDirtySnapshots() {
+        snapshotLock.lock();
+        try {
+            for (String filename : new ArrayList<>(dirtySnapshots.keySet())) {
+                PendingSnapshot pending = dirtySnapshots.remove(filename);
+                if (pending != null) {
+                    writeSnapshot(filename, pending);
+                }
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private void writeSnapshot(String filename, PendingSnapshot pending) {
+        if (!isJournalMode()) {
+            writeSnapshotFile(filename, pending);
+            return;
+        }
+
+        // A full snapshot replaces everything journaled so far, so appends wait until it is truncated
+        ChangeJournal journal = journalFor(filename);
+        Lock lock = journal.getLock();
+        lock.lock();
+        try {
+            if (writeSnapshotFile(filename, pending)) {
+                try {
+                    journal.truncate();
+                } catch (IOException e) {
+                    logger.error("Failed to truncate journal for {}: {}", filename, e.getMessage());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean writeSnapshotFile(String filename, PendingSnapshot pending) {
+        try {
+            List<?> data = pending.supplier.get();
+            long size = writeSnapshotData(filename, data);
+
+            long lag = System.currentTimeMillis() - pending.markedAt;
+            lastLagMs = lag;
+            if (lag > maxLagMs) {
+                maxLagMs = lag;
+            }
+            snapshotsWritten.incrementAndGet();
+            bytesWritten.addAndGet(size);
+            logger.debug("Wrote snapshot of {} items ({} bytes, lag {} ms) to {}", data.size(), size, lag, filename);
+            return true;
+        } catch (Exception e) {
+            failedWrites.incrementAndGet();
+            logger.error("Failed to write snapshot {}: {}", filename, e.getMessage());
+            // Keep the dataset dirty so the next round retries it
+            dirtySnapshots.putIfAbsent(filename, pending);
+            return false;
+        }
+    }
+
+    private long writeAtomically(String filename, byte[] content) throws IOException {
+        Path target = Paths.get(storagePath, filename);
+        Path temp = Paths.get(storagePath, filename + ".tmp");
+
+        Files.write(temp, content);
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return content.length;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("file.storage.snapshots.pending", dirtySnapshots, Map::size)
+                .description("Datasets changed but not yet written")
+                .register(meterRegistry);
+        Gauge.builder("file.storage.snapshot.lag", this, service -> service.lastLagMs)
+                .baseUnit("milliseconds")
+                .description("Delay between the first change and the write of the last snapshot")
+                .register(meterRegistry);
+        FunctionCounter.builder("file.storage.changes.coalesced", coalescedChanges, AtomicLong::get)
+                .description("Changes folded into an already pending snapshot")
+                .register(meterRegistry);
+        FunctionCounter.builder("file.storage.writes.failed", failedWrites, AtomicLong::get)
+                .description("Snapshot, journal and compaction writes that failed")
+                .register(meterRegistry);
+        FunctionCounter.builder("file.storage.journal.records", journalRecords, AtomicLong::get)
+                .description("Records appended to change journals")
+                .register(meterRegistry);
+        this.registry = meterRegistry;
+    }
+
+    public Map<String, Object> getWriteBehindMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", writeBehindEnabled);
+        metrics.put("pendingSnapshots", dirtySnapshots.size());
+        metrics.put("snapshotsWritten", snapshotsWritten.get());
+        metrics.put("coalescedChanges", coalescedChanges.get());
+        metrics.put("failedWrites", failedWrites.get());
+        metrics.put("bytesWritten", bytesWritten.get());
+        metrics.put("lastLagMs", lastLagMs);
+        metrics.put("maxLagMs", maxLagMs);
+        metrics.put("mode", isJournalMode() ? "journal" : "snapshot");
+        metrics.put("journalRecords", journalRecords.get());
+        metrics.put("compactions", compactions.get());
+        return metrics;
     }
 
     public <T> void saveObjectToFile(T data, String filename) throws IOException {
@@ -95,6 +508,28 @@ public class FileStorageService {
         }
 
         File file = new File(storagePath, filename);
+        ChangeJournal journal = journalFor(filename);
+
+        if (journal.exists()) {
+            Lock lock = journal.getLock();
+            lock.lock();
+            try {
+                ArrayNode items = objectMapper.createArrayNode().addAll(replayJournal(filename, journal));
+                List<T> data = objectMapper.convertValue(items,
+                        objectMapper.getTypeFactory().constructCollectionType(List.class, valueType));
+                logger.info("Loaded {} items from file and journal: {}", data.size(), file.getAbsolutePath());
+                return data;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Path binaryFile = Paths.get(storagePath, snapshotName(filename));
+        if (usesBinary(filename) && Files.exists(binaryFile)) {
+            List<T> data = readBinarySnapshot(binaryFile, valueType);
+            logger.info("Loaded {} items from binary file: {}", data.size(), binaryFile.toAbsolutePath());
+            return data;
+        }
 
         if (!file.exists()) {
             logger.warn("File not found: {}", file.getAbsolutePath());
@@ -127,7 +562,9 @@ public class FileStorageService {
 
     public boolean fileExists(String filename) {
         File file = new File(storagePath, filename);
-        return file.exists();
+        return file.exists()
+                || Files.exists(Paths.get(storagePath, snapshotName(filename)))
+                || Files.exists(Paths.get(storagePath, filename + ".journal"));
     }
 
     public boolean deleteFile(String filename) throws IOException {
@@ -169,4 +606,15 @@ public class FileStorageService {
     public String getStoragePath() {
         return storagePath;
     }
+
+    private static final class PendingSnapshot {
+
+        private final Supplier<? extends List<?>> supplier;
+        private final long markedAt;
+
+        PendingSnapshot(Supplier<? extends List<?>> supplier, long markedAt) {
+            this.supplier = supplier;
+            this.markedAt = markedAt;
+        }
+    }
 }
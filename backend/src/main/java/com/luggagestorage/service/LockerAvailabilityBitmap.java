@@ -0,0 +1,379 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.enums.Size;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// One bitset per locker marking the 15-minute slots touched by an active booking, from the start of
+// today over the next HORIZON_DAYS days. A clear range proves the locker is free; a set bit is checked
+// against the locker's own bookings, since a slot can be shared by bookings that do not overlap.
+@Component
+public class LockerAvailabilityBitmap {
+
+    private static final Logger logger = LoggerFactory.getLogger(LockerAvailabilityBitmap.class);
+
+    static final int SLOT_MINUTES = 15;
+    static final int HORIZON_DAYS = 30;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    // One spare day so the horizon still reaches HORIZON_DAYS ahead until the next daily rebase
+    private static final int SLOTS = (HORIZON_DAYS + 1) * SLOTS_PER_DAY;
+    private static final int WORDS = (SLOTS + 63) / 64;
+
+    private final Map<Long, LockerSlots> lockers = new HashMap<>();
+    private final Map<Long, BookedRange> bookings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Supplier<LocalDateTime> clock;
+    private long baseSlot;
+
+    public LockerAvailabilityBitmap() {
+        this(LocalDateTime::now);
+    }
+
+    LockerAvailabilityBitmap(Supplier<LocalDateTime> clock) {
+        this.clock = clock;
+        this.baseSlot = startOfDay(clock.get());
+    }
+
+    public void rebuildLockers(Collection<Locker> allLockers) {
+        lock.writeLock().lock();
+        try {
+            Map<Long, LockerSlots> previous = new HashMap<>(lockers);
+            lockers.clear();
+            for (Locker locker : allLockers) {
+                LockerSlots slots = previous.get(locker.getId());
+                lockers.put(locker.getId(), slots != null
+                        ? slots.withAttributes(locker.getSize(), locker.getLocationName())
+                        : new LockerSlots(locker.getSize(), locker.getLocationName()));
+            }
+            bookings.values().forEach(range -> lockerSlots(range.lockerId).bookings.put(range.bookingId, range));
+            repaintAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Locker availability bitmap rebuilt with {} lockers", lockers.size());
+    }
+
+    public void rebuildBookings(Collection<Booking> activeBookings) {
+        lock.writeLock().lock();
+        try {
+            bookings.clear();
+            lockers.values().forEach(slots -> slots.bookings.clear());
+            for (Booking booking : activeBookings) {
+                putBooking(booking);
+            }
+            repaintAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Locker availability bitmap loaded {} active bookings", bookings.size());
+    }
+
+    public void putLocker(Long lockerId, Size size, String location) {
+        lock.writeLock().lock();
+        try {
+            LockerSlots existing = lockers.get(lockerId);
+            lockers.put(lockerId, existing != null
+                    ? existing.withAttributes(size, location)
+                    : new LockerSlots(size, location));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeLocker(Long lockerId) {
+        lock.writeLock().lock();
+        try {
+            LockerSlots removed = lockers.remove(lockerId);
+            if (removed != null) {
+                bookings.keySet().removeAll(removed.bookings.keySet());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putBooking(Booking booking) {
+        if (booking.getId() == null || booking.getLocker() == null) {
+            return;
+        }
+
+        if (!booking.isActive()) {
+            removeBooking(booking.getId());
+            return;
+        }
+
+        putBooking(booking.getId(), booking.getLocker().getId(), booking.getStartDatetime(), booking.getEndDatetime());
+    }
+
+    public void putBooking(Long bookingId, Long lockerId, LocalDateTime start, LocalDateTime end) {
+        BookedRange range = new BookedRange(bookingId, lockerId, start, end);
+        lock.writeLock().lock();
+        try {
+            removeBookingLocked(bookingId);
+            bookings.put(bookingId, range);
+            LockerSlots slots = lockerSlots(lockerId);
+            slots.bookings.put(bookingId, range);
+            slots.paint(range, baseSlot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBooking(Long bookingId) {
+        lock.writeLock().lock();
+        try {
+            removeBookingLocked(bookingId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Empty when the range lies outside the horizon and the caller has to ask the database
+    public Optional<Set<Long>> findFreeLockers(LocalDateTime start, LocalDateTime end, Size size, String location) {
+        rebaseIfDue();
+
+        lock.readLock().lock();
+        try {
+            long first = slotOf(start) - baseSlot;
+            long last = lastSlotOf(end) - baseSlot;
+            if (first < 0 || last >= SLOTS || first > last) {
+                return Optional.empty();
+            }
+
+            Set<Long> free = new LinkedHashSet<>();
+            lockers.forEach((lockerId, slots) -> {
+                if (size != null && slots.size != size) {
+                    return;
+                }
+                if (location != null && !location.equals(slots.location)) {
+                    return;
+                }
+                if (slots.isClear((int) first, (int) last) || !slots.overlaps(start, end)) {
+                    free.add(lockerId);
+                }
+            });
+            return Optional.of(free);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Idle time left on the locker right before and after the range; a smaller gap fragments its
+    // free slots less. A side with no booking counts as the whole horizon.
+    public long adjacentGapMinutes(Long lockerId, LocalDateTime start, LocalDateTime end) {
+        long open = HORIZON_DAYS * 24L * 60L;
+        long before = open;
+        long after = open;
+
+        lock.readLock().lock();
+        try {
+            LockerSlots slots = lockers.get(lockerId);
+            if (slots != null) {
+                for (BookedRange range : slots.bookings.values()) {
+                    if (!range.end.isAfter(start)) {
+                        before = Math.min(before, Duration.between(range.end, start).toMinutes());
+                    } else if (!range.start.isBefore(end)) {
+                        after = Math.min(after, Duration.between(end, range.start).toMinutes());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return before + after;
+    }
+
+    public int lockerCount() {
+        lock.readLock().lock();
+        try {
+            return lockers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int bookingCount() {
+        lock.readLock().lock();
+        try {
+            return bookings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rebaseIfDue() {
+        long today = startOfDay(clock.get());
+        lock.readLock().lock();
+        try {
+            if (today == baseSlot) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (today != baseSlot) {
+                baseSlot = today;
+                repaintAll();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeBookingLocked(Long bookingId) {
+        BookedRange range = bookings.remove(bookingId);
+        if (range == null) {
+            return;
+        }
+
+        LockerSlots slots = lockers.get(range.lockerId);
+        if (slots != null) {
+            slots.bookings.remove(bookingId);
+            slots.repaint(baseSlot);
+        }
+    }
+
+    private LockerSlots lockerSlots(Long lockerId) {
+        return lockers.computeIfAbsent(lockerId, id -> new LockerSlots(null, null));
+    }
+
+    private void repaintAll() {
+        lockers.values().forEach(slots -> slots.repaint(baseSlot));
+    }
+
+    private static long startOfDay(LocalDateTime time) {
+        return slotOf(time.toLocalDate().atStartOfDay());
+    }
+
+    static long slotOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), SLOT_MINUTES * 60L);
+    }
+
+    // Last slot a half-open range [start, end) reaches into
+    static long lastSlotOf(LocalDateTime end) {
+        long seconds = end.toEpochSecond(ZoneOffset.UTC);
+        if (end.getNano() == 0) {
+            seconds--;
+        }
+        return Math.floorDiv(seconds, SLOT_MINUTES * 60L);
+    }
+
+    private static final class BookedRange {
+
+        private final Long bookingId;
+        private final Long lockerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        BookedRange(Long bookingId, Long lockerId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.lockerId = lockerId;
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return start.isBefore(otherEnd) && end.isAfter(otherStart);
+        }
+    }
+
+    private static final class LockerSlots {
+
+        private final Size size;
+        private final String location;
+        private final long[] words;
+        private final Map<Long, BookedRange> bookings;
+
+        LockerSlots(Size size, String location) {
+            this(size, location, new long[WORDS], new HashMap<>());
+        }
+
+        private LockerSlots(Size size, String location, long[] words, Map<Long, BookedRange> bookings) {
+            this.size = size;
+            this.location = location;
+            this.words = words;
+            this.bookings = bookings;
+        }
+
+        LockerSlots withAttributes(Size newSize, String newLocation) {
+            if (Objects.equals(size, newSize) && Objects.equals(location, newLocation)) {
+                return this;
+            }
+            return new LockerSlots(newSize, newLocation, words, bookings);
+        }
+
+        void repaint(long baseSlot) {
+            Arrays.fill(words, 0L);
+            bookings.values().forEach(range -> paint(range, baseSlot));
+        }
+
+        void paint(BookedRange range, long baseSlot) {
+            long first = Math.max(0, slotOf(range.start) - baseSlot);
+            long last = Math.min(SLOTS - 1, lastSlotOf(range.end) - baseSlot);
+            if (first > last) {
+                return;
+            }
+
+            int firstWord = (int) (first >>> 6);
+            int lastWord = (int) (last >>> 6);
+            for (int word = firstWord; word <= lastWord; word++) {
+                words[word] |= mask(word, (int) first, (int) last);
+            }
+        }
+
+        boolean isClear(int first, int last) {
+            int firstWord = first >>> 6;
+            int lastWord = last >>> 6;
+            for (int word = firstWord; word <= lastWord; word++) {
+                if ((words[word] & mask(word, first, last)) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            for (BookedRange range : bookings.values()) {
+                if (range.overlaps(start, end)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Bits of the given word that fall inside slots [first, last]
+        private static long mask(int word, int first, int last) {
+            long mask = -1L;
+            if (word == first >>> 6) {
+                mask &= -1L << (first & 63);
+            }
+            if (word == last >>> 6) {
+                mask &= -1L >>> (63 - (last & 63));
+            }
+            return mask;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.enums.Size;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Locker coordinates bucketed into a fixed latitude/longitude grid. A radius query only visits the
+// cells overlapping the bounding box of the circle; k-nearest widens the radius until it has k hits.
+@Component
+public class LockerGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LockerGeoIndex.class);
+
+    static final double EARTH_RADIUS_KM = 6371.0;
+    static final double CELL_DEGREES = 0.05;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+    private static final int LATITUDE_CELLS = (int) Math.ceil(180.0 / CELL_DEGREES);
+    private static final int LONGITUDE_CELLS = (int) Math.ceil(360.0 / CELL_DEGREES);
+    private static final int MAX_CELLS_PER_QUERY = 4096;
+
+    private final Map<Long, Map<Long, Point>> pointsByCell = new ConcurrentHashMap<>();
+    private final Map<Long, Point> pointsByLocker = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void rebuild(Collection<Locker> lockers) {
+        lock.writeLock().lock();
+        try {
+            pointsByCell.clear();
+            pointsByLocker.clear();
+            for (Locker locker : lockers) {
+                put(locker);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Locker geo index rebuilt with {} lockers", pointsByLocker.size());
+    }
+
+    public void put(Locker locker) {
+        if (locker.getId() == null) {
+            return;
+        }
+        if (locker.getLatitude() == null || locker.getLongitude() == null) {
+            remove(locker.getId());
+            return;
+        }
+        put(locker.getId(), locker.getLatitude(), locker.getLongitude(), locker.getSize());
+    }
+
+    public void put(Long lockerId, double latitude, double longitude, Size size) {
+        Point point = new Point(lockerId, latitude, longitude, size);
+        lock.writeLock().lock();
+        try {
+            removePoint(lockerId);
+            pointsByCell.computeIfAbsent(point.cell, cell -> new HashMap<>()).put(lockerId, point);
+            pointsByLocker.put(lockerId, point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long lockerId) {
+        lock.writeLock().lock();
+        try {
+            removePoint(lockerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm, Size size) {
+        List<Hit> hits = new ArrayList<>();
+        if (radiusKm < 0) {
+            return hits;
+        }
+
+        lock.readLock().lock();
+        try {
+            for (Point point : candidates(latitude, longitude, radiusKm)) {
+                if (size != null && point.size != size) {
+                    continue;
+                }
+                double distance = distanceKm(latitude, longitude, point.latitude, point.longitude);
+                if (distance <= radiusKm) {
+                    hits.add(new Hit(point.lockerId, distance));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceKm).thenComparing(Hit::getLockerId));
+        return hits;
+    }
+
+    public List<Hit> nearest(double latitude, double longitude, int count, double maxRadiusKm, Size size) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+
+        double radiusKm = Math.min(CELL_DEGREES * KM_PER_DEGREE, maxRadiusKm);
+        while (true) {
+            List<Hit> hits = withinRadius(latitude, longitude, radiusKm, size);
+            if (hits.size() >= count) {
+                return new ArrayList<>(hits.subList(0, count));
+            }
+            if (radiusKm >= maxRadiusKm || hits.size() >= size()) {
+                return hits;
+            }
+            radiusKm = Math.min(radiusKm * 2, maxRadiusKm);
+        }
+    }
+
+    public boolean contains(Long lockerId) {
+        return pointsByLocker.containsKey(lockerId);
+    }
+
+    public int size() {
+        return pointsByLocker.size();
+    }
+
+    private Collection<Point> candidates(double latitude, double longitude, double radiusKm) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90.0, latitude - latitudeSpan);
+        double maxLatitude = Math.min(90.0, latitude + latitudeSpan);
+
+        double widestCos = Math.cos(Math.toRadians(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude))));
+        double longitudeSpan = widestCos <= 1e-9 ? 360.0 : latitudeSpan / widestCos;
+
+        int minRow = row(minLatitude);
+        int maxRow = row(maxLatitude);
+        int columns = longitudeSpan * 2 >= 360.0
+                ? LONGITUDE_CELLS
+                : column(longitude + longitudeSpan) - column(longitude - longitudeSpan) + 1;
+        if (columns <= 0) {
+            columns += LONGITUDE_CELLS;
+        }
+        columns = Math.min(columns, LONGITUDE_CELLS);
+
+        if ((long) (maxRow - minRow + 1) * columns > MAX_CELLS_PER_QUERY) {
+            return pointsByLocker.values();
+        }
+
+        int firstColumn = columns == LONGITUDE_CELLS ? 0 : column(longitude - longitudeSpan);
+        List<Point> points = new ArrayList<>();
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int offset = 0; offset < columns; offset++) {
+                Map<Long, Point> cell = pointsByCell.get(cellKey(row, (firstColumn + offset) % LONGITUDE_CELLS));
+                if (cell != null) {
+                    points.addAll(cell.values());
+                }
+            }
+        }
+        return points;
+    }
+
+    private void removePoint(Long lockerId) {
+        Point point = pointsByLocker.remove(lockerId);
+        if (point == null) {
+            return;
+        }
+
+        Map<Long, Point> cell = pointsByCell.get(point.cell);
+        if (cell != null) {
+            cell.remove(lockerId);
+            if (cell.isEmpty()) {
+                pointsByCell.remove(point.cell);
+            }
+        }
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private static int row(double latitude) {
+        return Math.min(LATITUDE_CELLS - 1, (int) Math.floor((latitude + 90.0) / CELL_DEGREES));
+    }
+
+    private static int column(double longitude) {
+        double normalized = ((longitude + 180.0) % 360.0 + 360.0) % 360.0;
+        return Math.min(LONGITUDE_CELLS - 1, (int) Math.floor(normalized / CELL_DEGREES));
+    }
+
+    private static long cellKey(int row, int column) {
+        return (long) row * LONGITUDE_CELLS + column;
+    }
+
+    public static final class Hit {
+
+        private final Long lockerId;
+        private final double distanceKm;
+
+        Hit(Long lockerId, double distanceKm) {
+            this.lockerId = lockerId;
+            this.distanceKm = distanceKm;
+        }
+
+        public Long getLockerId() {
+            return lockerId;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+
+    private static final class Point {
+
+        private final Long lockerId;
+        private final double latitude;
+        private final double longitude;
+        private final Size size;
+        private final long cell;
+
+        Point(Long lockerId, double latitude, double longitude, Size size) {
+            this.lockerId = lockerId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.size = size;
+            this.cell = cellKey(row(latitude), column(longitude));
+        }
+    }
+}
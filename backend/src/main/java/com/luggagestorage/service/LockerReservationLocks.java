@@ -0,0 +1,117 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.exception.LockerNotAvailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class LockerReservationLocks {
+
+    private static final Logger logger = LoggerFactory.getLogger(LockerReservationLocks.class);
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMs;
+
+    @Autowired
+    public LockerReservationLocks(@Value("${booking.lock.stripes:64}") int stripeCount,
+                                  @Value("${booking.lock.timeout-ms:5000}") long timeoutMs) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Lock stripe count must be positive");
+        }
+
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMs = timeoutMs;
+    }
+
+    // Held until the surrounding transaction has committed or rolled back, so the next
+    // reservation for the same locker always sees the previous one.
+    public void lockUntilTransactionCompletes(Long lockerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        ReentrantLock lock = stripeFor(lockerId);
+        acquire(lock, lockerId);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    // Stripes are taken in index order so two batches sharing lockers cannot deadlock
+    public void lockAllUntilTransactionCompletes(Collection<Long> lockerIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        Map<Integer, Long> lockerByStripe = new TreeMap<>();
+        for (Long lockerId : lockerIds) {
+            lockerByStripe.putIfAbsent(stripeIndex(lockerId), lockerId);
+        }
+
+        List<ReentrantLock> acquired = new ArrayList<>();
+        try {
+            for (Map.Entry<Integer, Long> entry : lockerByStripe.entrySet()) {
+                ReentrantLock lock = stripes[entry.getKey()];
+                acquire(lock, entry.getValue());
+                acquired.add(lock);
+            }
+        } catch (RuntimeException e) {
+            acquired.forEach(ReentrantLock::unlock);
+            throw e;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                acquired.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+
+    public int stripeIndex(Long lockerId) {
+        long hash = lockerId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) stripes.length);
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    ReentrantLock stripeFor(Long lockerId) {
+        return stripes[stripeIndex(lockerId)];
+    }
+
+    private void acquire(ReentrantLock lock, Long lockerId) {
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Timed out waiting {} ms for reservation lock on locker {}", timeoutMs, lockerId);
+                throw new LockerNotAvailableException(
+                        "The locker is being reserved by another user. Please try again.", lockerId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LockerNotAvailableException(
+                    "Interrupted while waiting for the locker reservation lock", lockerId);
+        }
+    }
+}
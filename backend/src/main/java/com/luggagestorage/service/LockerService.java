@@ -5,16 +5,30 @@ import com.luggagestorage.model.Locker;
 import com.luggagestorage.model.enums.Size;
 import com.luggagestorage.model.enums.Status;
 import com.luggagestorage.repository.LockerRepository;
+import com.luggagestorage.util.Batches;
+import com.luggagestorage.util.KeysetPage;
+import com.luggagestorage.util.TransactionCallbacks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -22,14 +36,35 @@ public class LockerService {
 
     private static final Logger logger = LoggerFactory.getLogger(LockerService.class);
     private static final String LOCKERS_FILE = "lockers.json";
+    private static final int BULK_UPDATE_BATCH_SIZE = 1000;
+    private static final Set<Status> AVAILABLE_STATUS = EnumSet.of(Status.AVAILABLE);
+    // The statuses bookings set and clear; lockers reserved, in maintenance or out of order are never offered
+    private static final Set<Status> BOOKABLE_STATUSES = EnumSet.of(Status.AVAILABLE, Status.OCCUPIED);
 
     private final LockerRepository lockerRepository;
     private final FileStorageService fileStorageService;
+    private final LockerGeoIndex lockerGeoIndex;
+    private final LockerStatistics lockerStatistics;
+    private final LockerAvailabilityBitmap availabilityBitmap;
 
     @Autowired
-    public LockerService(LockerRepository lockerRepository, FileStorageService fileStorageService) {
+    public LockerService(LockerRepository lockerRepository, FileStorageService fileStorageService,
+                         LockerGeoIndex lockerGeoIndex, LockerStatistics lockerStatistics,
+                         LockerAvailabilityBitmap availabilityBitmap) {
         this.lockerRepository = lockerRepository;
         this.fileStorageService = fileStorageService;
+        this.fileStorageService.registerDataset(LOCKERS_FILE, Locker.class);
+        this.lockerGeoIndex = lockerGeoIndex;
+        this.lockerStatistics = lockerStatistics;
+        this.availabilityBitmap = availabilityBitmap;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildLockerIndexes() {
+        List<Locker> lockers = lockerRepository.findAll();
+        lockerGeoIndex.rebuild(lockers);
+        availabilityBitmap.rebuildLockers(lockers);
     }
 
     public Locker createLocker(Locker locker) {
@@ -44,7 +79,9 @@ public class LockerService {
         }
 
         Locker savedLocker = lockerRepository.save(locker);
-        saveToFile();
+        saveToFile(savedLocker);
+        indexAfterCommit(savedLocker);
+        lockerStatistics.lockerAdded(savedLocker.getStatus(), savedLocker.getSize(), savedLocker.getLocationName());
         logger.info("Locker created successfully with ID: {}", savedLocker.getId());
         return savedLocker;
     }
@@ -67,11 +104,47 @@ public class LockerService {
     }
 
     public List<Locker> getAvailableLockers(LocalDateTime startTime, LocalDateTime endTime) {
+        return getAvailableLockers(startTime, endTime, null, null);
+    }
+
+    public List<Locker> getAvailableLockers(LocalDateTime startTime, LocalDateTime endTime,
+                                            Size size, String location) {
         if (startTime == null || endTime == null) {
 
-            return getAvailableLockers();
+            return getAvailableLockers().stream()
+                    .filter(locker -> matches(locker, size, location))
+                    .collect(Collectors.toList());
         }
-        return lockerRepository.findAvailableForTimeRange(startTime, endTime);
+
+        return getFreeLockers(startTime, endTime, size, location, AVAILABLE_STATUS);
+    }
+
+    // Lockers with no active booking overlapping the range, including ones occupied by a booking at
+    // another time. createBooking only rejects overlaps, so auto-assignment picks from these.
+    public List<Locker> getFreeLockers(LocalDateTime startTime, LocalDateTime endTime, Size size, String location) {
+        return getFreeLockers(startTime, endTime, size, location, BOOKABLE_STATUSES);
+    }
+
+    private List<Locker> getFreeLockers(LocalDateTime startTime, LocalDateTime endTime, Size size, String location,
+                                        Set<Status> statuses) {
+        Optional<Set<Long>> free = availabilityBitmap.findFreeLockers(startTime, endTime, size, location);
+        if (!free.isPresent()) {
+            return lockerRepository.findFreeForTimeRange(statuses, startTime, endTime).stream()
+                    .filter(locker -> matches(locker, size, location))
+                    .collect(Collectors.toList());
+        }
+
+        List<Locker> candidates = size != null
+                ? lockerRepository.findBySizeAndStatusIn(size, statuses)
+                : lockerRepository.findByStatusIn(statuses);
+        return candidates.stream()
+                .filter(locker -> free.get().contains(locker.getId()))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean matches(Locker locker, Size size, String location) {
+        return (size == null || locker.getSize() == size)
+                && (location == null || location.equals(locker.getLocationName()));
     }
 
     public List<Locker> getLockersBySize(Size size) {
@@ -86,6 +159,48 @@ public class LockerService {
         return lockerRepository.findByStatus(status);
     }
 
+    public List<Locker> getLockersPage(Long afterId, Integer limit, Size size, Status status) {
+        return lockerRepository.findPage(KeysetPage.after(afterId), size, status, KeysetPage.first(limit));
+    }
+
+    public List<Locker> getNearbyLockers(double latitude, double longitude, double radiusKm, Integer limit,
+                                         Size size, LocalDateTime startTime, LocalDateTime endTime) {
+        return getNearbyLockers(latitude, longitude, radiusKm, limit, size, startTime, endTime, AVAILABLE_STATUS);
+    }
+
+    // Nearby counterpart of getFreeLockers, nearest first
+    public List<Locker> getNearbyFreeLockers(double latitude, double longitude, double radiusKm, Size size,
+                                             LocalDateTime startTime, LocalDateTime endTime) {
+        return getNearbyLockers(latitude, longitude, radiusKm, null, size, startTime, endTime, BOOKABLE_STATUSES);
+    }
+
+    private List<Locker> getNearbyLockers(double latitude, double longitude, double radiusKm, Integer limit,
+                                          Size size, LocalDateTime startTime, LocalDateTime endTime,
+                                          Set<Status> statuses) {
+        boolean timeFiltered = startTime != null && endTime != null;
+        List<LockerGeoIndex.Hit> hits = limit != null && !timeFiltered
+                ? lockerGeoIndex.nearest(latitude, longitude, limit, radiusKm, size)
+                : lockerGeoIndex.withinRadius(latitude, longitude, radiusKm, size);
+        if (hits.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = hits.stream().map(LockerGeoIndex.Hit::getLockerId).collect(Collectors.toList());
+        Map<Long, Locker> lockersById = new HashMap<>();
+        for (List<Long> batch : Batches.partition(ids, BULK_UPDATE_BATCH_SIZE)) {
+            List<Locker> lockers = timeFiltered
+                    ? lockerRepository.findFreeForTimeRangeByIds(batch, statuses, startTime, endTime)
+                    : lockerRepository.findAllById(batch);
+            lockers.forEach(locker -> lockersById.put(locker.getId(), locker));
+        }
+
+        return ids.stream()
+                .map(lockersById::get)
+                .filter(Objects::nonNull)
+                .limit(limit != null ? limit : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+    }
+
     public boolean isLockerAvailable(Long lockerId) {
         Locker locker = getLockerById(lockerId);
         return locker.isAvailable();
@@ -95,6 +210,9 @@ public class LockerService {
         logger.info("Updating locker with ID: {}", id);
 
         Locker existingLocker = getLockerById(id);
+        Status oldStatus = existingLocker.getStatus();
+        Size oldSize = existingLocker.getSize();
+        String oldLocation = existingLocker.getLocationName();
 
         if (locker.getLockerNumber() != null && !locker.getLockerNumber().equals(existingLocker.getLockerNumber())) {
 
@@ -144,22 +262,57 @@ public class LockerService {
         }
 
         Locker updatedLocker = lockerRepository.save(existingLocker);
-        saveToFile();
+        saveToFile(updatedLocker);
+        indexAfterCommit(updatedLocker);
+        lockerStatistics.lockerChanged(oldStatus, oldSize, oldLocation,
+                updatedLocker.getStatus(), updatedLocker.getSize(), updatedLocker.getLocationName());
         logger.info("Locker updated successfully with ID: {}", updatedLocker.getId());
         return updatedLocker;
     }
 
     public Locker updateLockerStatus(Long lockerId, Status status) {
-        logger.info("Updating locker status for ID: {} to {}", lockerId, status);
+        logger.debug("Updating locker status for ID: {} to {}", lockerId, status);
 
         Locker locker = getLockerById(lockerId);
+        Status oldStatus = locker.getStatus();
         locker.updateStatus(status);
         Locker updatedLocker = lockerRepository.save(locker);
-        saveToFile();
-        logger.info("Locker status updated successfully");
+        saveToFile(updatedLocker);
+        lockerStatistics.lockerStatusChanged(oldStatus, updatedLocker.getStatus(), 1);
+        logger.debug("Locker status updated successfully");
         return updatedLocker;
     }
 
+    public int updateLockerStatuses(Collection<Long> lockerIds, Status status) {
+        if (lockerIds.isEmpty()) {
+            return 0;
+        }
+
+        int updated = 0;
+        for (List<Long> batch : Batches.partition(lockerIds, BULK_UPDATE_BATCH_SIZE)) {
+            for (Object[] row : lockerRepository.countByStatusForIds(batch)) {
+                lockerStatistics.lockerStatusChanged((Status) row[0], status, (Long) row[1]);
+            }
+            updated += lockerRepository.updateStatusForIds(batch, status);
+        }
+        fileStorageService.markDirty(LOCKERS_FILE, lockerRepository::findAll);
+
+        logger.info("Updated status of {} lockers to {}", updated, status);
+        return updated;
+    }
+
+    // The lockers must be managed by the caller's transaction. Their status changes are flushed as
+    // versioned updates, so a concurrent reservation of any of them still fails its optimistic check.
+    public void occupyLockers(Collection<Locker> lockers) {
+        Map<Status, Long> previous = new EnumMap<>(Status.class);
+        for (Locker locker : lockers) {
+            previous.merge(locker.getStatus(), 1L, Long::sum);
+            locker.updateStatus(Status.OCCUPIED);
+        }
+        previous.forEach((status, count) -> lockerStatistics.lockerStatusChanged(status, Status.OCCUPIED, count));
+        fileStorageService.markDirty(LOCKERS_FILE, lockerRepository::findAll);
+    }
+
     public Locker markAsAvailable(Long lockerId) {
         return updateLockerStatus(lockerId, Status.AVAILABLE);
     }
@@ -179,7 +332,12 @@ public class LockerService {
         }
 
         lockerRepository.delete(locker);
-        saveToFile();
+        deleteFromFile(locker.getId());
+        TransactionCallbacks.afterCommit(() -> {
+            lockerGeoIndex.remove(id);
+            availabilityBitmap.removeLocker(id);
+        });
+        lockerStatistics.lockerRemoved(locker.getStatus(), locker.getSize(), locker.getLocationName());
         logger.info("Locker deleted successfully with ID: {}", id);
     }
 
@@ -187,14 +345,28 @@ public class LockerService {
         return lockerRepository.existsByLockerNumber(lockerNumber);
     }
 
-    private void saveToFile() {
-        try {
-            List<Locker> lockers = lockerRepository.findAll();
-            fileStorageService.saveToFile(lockers, LOCKERS_FILE);
-        } catch (IOException e) {
-            logger.error("Failed to save lockers to file: {}", e.getMessage());
+    private void indexAfterCommit(Locker locker) {
+        Long id = locker.getId();
+        Double latitude = locker.getLatitude();
+        Double longitude = locker.getLongitude();
+        Size size = locker.getSize();
+        String location = locker.getLocationName();
+        TransactionCallbacks.afterCommit(() -> {
+            availabilityBitmap.putLocker(id, size, location);
+            if (latitude == null || longitude == null) {
+                lockerGeoIndex.remove(id);
+            } else {
+                lockerGeoIndex.put(id, latitude, longitude, size);
+            }
+        });
+    }
 
-        }
+    private void saveToFile(Locker locker) {
+        fileStorageService.recordUpsert(LOCKERS_FILE, locker.getId(), locker, lockerRepository::findAll);
+    }
+
+    private void deleteFromFile(Long id) {
+        fileStorageService.recordDelete(LOCKERS_FILE, id, lockerRepository::findAll);
     }
 
     public void loadFromFile() {
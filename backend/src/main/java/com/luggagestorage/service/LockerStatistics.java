@@ -0,0 +1,225 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.enums.BookingStatus;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import com.luggagestorage.repository.BookingRepository;
+import com.luggagestorage.repository.LockerRepository;
+import com.luggagestorage.repository.PersonRepository;
+import com.luggagestorage.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Dashboard counters kept up to date by the locker, booking and person write paths once their
+// transaction commits. A change committed while reconcile() runs can be counted twice or missed;
+// the next reconciliation corrects it.
+@Component
+public class LockerStatistics implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LockerStatistics.class);
+
+    private final LockerRepository lockerRepository;
+    private final BookingRepository bookingRepository;
+    private final PersonRepository personRepository;
+
+    private final Map<Status, LongAdder> lockersByStatus = new EnumMap<>(Status.class);
+    private final Map<Size, LongAdder> lockersBySize = new EnumMap<>(Size.class);
+    private final Map<String, LongAdder> lockersByLocation = new ConcurrentHashMap<>();
+    private final Map<BookingStatus, LongAdder> bookingsByStatus = new EnumMap<>(BookingStatus.class);
+    private final LongAdder persons = new LongAdder();
+
+    @Autowired
+    public LockerStatistics(LockerRepository lockerRepository,
+                            BookingRepository bookingRepository,
+                            PersonRepository personRepository) {
+        this.lockerRepository = lockerRepository;
+        this.bookingRepository = bookingRepository;
+        this.personRepository = personRepository;
+        for (Status status : Status.values()) {
+            lockersByStatus.put(status, new LongAdder());
+        }
+        for (Size size : Size.values()) {
+            lockersBySize.put(size, new LongAdder());
+        }
+        for (BookingStatus status : BookingStatus.values()) {
+            bookingsByStatus.put(status, new LongAdder());
+        }
+    }
+
+    public void lockerAdded(Status status, Size size, String location) {
+        TransactionCallbacks.afterCommit(() -> countLocker(status, size, location, 1));
+    }
+
+    public void lockerRemoved(Status status, Size size, String location) {
+        TransactionCallbacks.afterCommit(() -> countLocker(status, size, location, -1));
+    }
+
+    public void lockerChanged(Status oldStatus, Size oldSize, String oldLocation,
+                              Status newStatus, Size newSize, String newLocation) {
+        TransactionCallbacks.afterCommit(() -> {
+            countLocker(oldStatus, oldSize, oldLocation, -1);
+            countLocker(newStatus, newSize, newLocation, 1);
+        });
+    }
+
+    public void lockerStatusChanged(Status from, Status to, long count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            add(lockersByStatus, from, -count);
+            add(lockersByStatus, to, count);
+        });
+    }
+
+    public void bookingAdded(BookingStatus status) {
+        bookingsAdded(status, 1);
+    }
+
+    public void bookingsAdded(BookingStatus status, long count) {
+        TransactionCallbacks.afterCommit(() -> add(bookingsByStatus, status, count));
+    }
+
+    public void bookingRemoved(BookingStatus status) {
+        TransactionCallbacks.afterCommit(() -> add(bookingsByStatus, status, -1));
+    }
+
+    public void bookingStatusChanged(BookingStatus from, BookingStatus to, long count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            add(bookingsByStatus, from, -count);
+            add(bookingsByStatus, to, count);
+        });
+    }
+
+    public void personAdded() {
+        TransactionCallbacks.afterCommit(persons::increment);
+    }
+
+    public void personRemoved() {
+        TransactionCallbacks.afterCommit(persons::decrement);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${statistics.reconcile-interval-ms:300000}",
+               initialDelayString = "${statistics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        Map<Size, Long> bySize = new EnumMap<>(Size.class);
+        Map<String, Long> byLocation = new HashMap<>();
+        for (Object[] row : lockerRepository.countByStatusSizeAndLocation()) {
+            long count = (Long) row[3];
+            byStatus.merge((Status) row[0], count, Long::sum);
+            bySize.merge((Size) row[1], count, Long::sum);
+            if (row[2] != null) {
+                byLocation.merge((String) row[2], count, Long::sum);
+            }
+        }
+
+        Map<BookingStatus, Long> byBookingStatus = new EnumMap<>(BookingStatus.class);
+        for (Object[] row : bookingRepository.countByStatus()) {
+            byBookingStatus.put((BookingStatus) row[0], (Long) row[1]);
+        }
+
+        long personCount = personRepository.count();
+
+        lockersByStatus.forEach((status, counter) -> set(counter, byStatus.getOrDefault(status, 0L)));
+        lockersBySize.forEach((size, counter) -> set(counter, bySize.getOrDefault(size, 0L)));
+        lockersByLocation.keySet().retainAll(byLocation.keySet());
+        byLocation.forEach((location, count) ->
+                set(lockersByLocation.computeIfAbsent(location, key -> new LongAdder()), count));
+        bookingsByStatus.forEach((status, counter) -> set(counter, byBookingStatus.getOrDefault(status, 0L)));
+        set(persons, personCount);
+
+        logger.debug("Statistics reconciled: {} lockers, {} bookings, {} persons",
+                getTotalLockers(), getTotalBookings(), personCount);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        lockersByStatus.forEach((status, counter) -> Gauge.builder("lockers", counter, LongAdder::sum)
+                .tag("status", status.name())
+                .description("Lockers by status")
+                .register(registry));
+        bookingsByStatus.forEach((status, counter) -> Gauge.builder("bookings", counter, LongAdder::sum)
+                .tag("status", status.name())
+                .description("Bookings by status")
+                .register(registry));
+        Gauge.builder("persons", persons, LongAdder::sum)
+                .description("Registered persons")
+                .register(registry);
+    }
+
+    public long getLockerCount(Status status) {
+        return lockersByStatus.get(status).sum();
+    }
+
+    public long getTotalLockers() {
+        return lockersByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getBookingCount(BookingStatus status) {
+        return bookingsByStatus.get(status).sum();
+    }
+
+    public long getTotalBookings() {
+        return bookingsByStatus.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public long getTotalPersons() {
+        return persons.sum();
+    }
+
+    public Map<String, Long> getLockersBySize() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        lockersBySize.forEach((size, counter) -> counts.put(size.name(), counter.sum()));
+        return counts;
+    }
+
+    public Map<String, Long> getLockersByLocation() {
+        Map<String, Long> counts = new TreeMap<>();
+        lockersByLocation.forEach((location, counter) -> {
+            long count = counter.sum();
+            if (count > 0) {
+                counts.put(location, count);
+            }
+        });
+        return counts;
+    }
+
+    private void countLocker(Status status, Size size, String location, long delta) {
+        add(lockersByStatus, status, delta);
+        add(lockersBySize, size, delta);
+        if (location != null) {
+            lockersByLocation.computeIfAbsent(location, key -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static <K> void add(Map<K, LongAdder> counters, K key, long delta) {
+        if (key != null) {
+            counters.get(key).add(delta);
+        }
+    }
+
+    private static void set(LongAdder counter, long value) {
+        counter.add(value - counter.sum());
+    }
+}
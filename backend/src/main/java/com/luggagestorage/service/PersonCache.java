@@ -0,0 +1,189 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Person;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Read-through LRU cache of persons by id and email. Entries are detached copies without the bookings
+// collection, and every caller gets its own copy, so cached state cannot be changed from outside.
+@Component
+public class PersonCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Map<Long, Entry> byId;
+    private final Map<String, Long> idByEmail = new HashMap<>();
+    private final Lock lock = new ReentrantLock();
+
+    // Bumped by every invalidation; a load that raced with one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public PersonCache(@Value("${person.cache.max-size:10000}") int maxSize,
+                       @Value("${person.cache.ttl-seconds:300}") long ttlSeconds) {
+        this(maxSize, ttlSeconds * 1000, System::currentTimeMillis);
+    }
+
+    PersonCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > PersonCache.this.maxSize) {
+                    idByEmail.remove(eldest.getValue().person.getEmail());
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<Person> getById(Long id, Function<Long, Optional<Person>> loader) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Person cached = lookup(id);
+        return cached != null ? Optional.of(cached) : load(() -> loader.apply(id));
+    }
+
+    public Optional<Person> getByEmail(String email, Function<String, Optional<Person>> loader) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Long id;
+        lock.lock();
+        try {
+            id = idByEmail.get(email);
+        } finally {
+            lock.unlock();
+        }
+        Person cached = id != null ? lookup(id) : null;
+        if (cached == null && id == null) {
+            misses.increment();
+        }
+        return cached != null ? Optional.of(cached) : load(() -> loader.apply(email));
+    }
+
+    public void invalidate(Long id) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            Entry entry = byId.remove(id);
+            if (entry != null) {
+                idByEmail.remove(entry.person.getEmail());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            byId.clear();
+            idByEmail.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private Person lookup(Long id) {
+        lock.lock();
+        try {
+            Entry entry = byId.get(id);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (clock.getAsLong() - entry.loadedAt >= ttlMillis) {
+                byId.remove(id);
+                idByEmail.remove(entry.person.getEmail());
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return copy(entry.person);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<Person> load(Supplier<Optional<Person>> loader) {
+        long loadGeneration = generation.get();
+        Optional<Person> loaded = loader.get();
+        loaded.ifPresent(person -> put(person, loadGeneration));
+        return loaded.map(PersonCache::copy);
+    }
+
+    private void put(Person person, long loadGeneration) {
+        lock.lock();
+        try {
+            if (person.getId() == null || generation.get() != loadGeneration) {
+                return;
+            }
+            byId.put(person.getId(), new Entry(copy(person), clock.getAsLong()));
+            idByEmail.put(person.getEmail(), person.getId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Person copy(Person person) {
+        Person copy = new Person(person.getEmail(), person.getPasswordHash(), person.getFirstName(),
+                person.getLastName(), person.getRole());
+        copy.setId(person.getId());
+        return copy;
+    }
+
+    private static final class Entry {
+
+        private final Person person;
+        private final long loadedAt;
+
+        Entry(Person person, long loadedAt) {
+            this.person = person;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
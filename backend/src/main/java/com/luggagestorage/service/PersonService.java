@@ -1,17 +1,22 @@
 package com.luggagestorage.service;
 
+import com.luggagestorage.config.JwtTokenProvider;
 import com.luggagestorage.exception.ResourceNotFoundException;
 import com.luggagestorage.model.Person;
 import com.luggagestorage.model.enums.Role;
 import com.luggagestorage.repository.PersonRepository;
+import com.luggagestorage.util.KeysetPage;
+import com.luggagestorage.util.TransactionCallbacks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -23,11 +28,23 @@ public class PersonService {
 
     private final PersonRepository personRepository;
     private final FileStorageService fileStorageService;
+    private final PersonCache personCache;
+    private final LockerStatistics lockerStatistics;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final BookingService bookingService;
 
+    // BookingService depends on this service to load customers, hence the lazy proxy
     @Autowired
-    public PersonService(PersonRepository personRepository, FileStorageService fileStorageService) {
+    public PersonService(PersonRepository personRepository, FileStorageService fileStorageService,
+                         PersonCache personCache, LockerStatistics lockerStatistics,
+                         JwtTokenProvider jwtTokenProvider, @Lazy BookingService bookingService) {
         this.personRepository = personRepository;
         this.fileStorageService = fileStorageService;
+        this.personCache = personCache;
+        this.lockerStatistics = lockerStatistics;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.bookingService = bookingService;
+        this.fileStorageService.registerDataset(PERSONS_FILE, Person.class);
     }
 
     public Person createPerson(Person person) {
@@ -38,7 +55,8 @@ public class PersonService {
         }
 
         Person savedPerson = personRepository.save(person);
-        saveToFile();
+        saveToFile(savedPerson);
+        lockerStatistics.personAdded();
         logger.info("Person created successfully with ID: {}", savedPerson.getId());
         return savedPerson;
     }
@@ -68,10 +86,15 @@ public class PersonService {
         return personRepository.findByRole(Role.ADMIN);
     }
 
+    public List<Person> getPersonsPage(Long afterId, Integer limit, Role role) {
+        return personRepository.findPage(KeysetPage.after(afterId), role, KeysetPage.first(limit));
+    }
+
     public Person updatePerson(Long id, Person person) {
         logger.info("Updating person with ID: {}", id);
 
         Person existingPerson = getPersonById(id);
+        boolean revokeTokens = false;
 
         if (person.getEmail() != null && !person.getEmail().equals(existingPerson.getEmail())) {
 
@@ -79,6 +102,7 @@ public class PersonService {
                 throw new IllegalArgumentException("Email already exists: " + person.getEmail());
             }
             existingPerson.setEmail(person.getEmail());
+            revokeTokens = true;
         }
 
         if (person.getFirstName() != null) {
@@ -89,12 +113,17 @@ public class PersonService {
             existingPerson.setLastName(person.getLastName());
         }
 
-        if (person.getRole() != null) {
+        if (person.getRole() != null && person.getRole() != existingPerson.getRole()) {
             existingPerson.setRole(person.getRole());
+            revokeTokens = true;
         }
 
         Person updatedPerson = personRepository.save(existingPerson);
-        saveToFile();
+        saveToFile(updatedPerson);
+        invalidateCache(id);
+        if (revokeTokens) {
+            revokeTokens(id);
+        }
         logger.info("Person updated successfully with ID: {}", updatedPerson.getId());
         return updatedPerson;
     }
@@ -103,9 +132,14 @@ public class PersonService {
         logger.info("Updating role for person ID: {} to {}", id, role);
 
         Person person = getPersonById(id);
+        boolean roleChanged = person.getRole() != role;
         person.setRole(role);
         Person updatedPerson = personRepository.save(person);
-        saveToFile();
+        saveToFile(updatedPerson);
+        invalidateCache(id);
+        if (roleChanged) {
+            revokeTokens(id);
+        }
         logger.info("Person role updated successfully for ID: {}", id);
         return updatedPerson;
     }
@@ -114,8 +148,12 @@ public class PersonService {
         logger.info("Deleting person with ID: {}", id);
 
         Person person = getPersonById(id);
+        bookingService.deleteBookingsOfCustomer(id);
         personRepository.delete(person);
-        saveToFile();
+        deleteFromFile(person.getId());
+        invalidateCache(id);
+        revokeTokens(id);
+        lockerStatistics.personRemoved();
         logger.info("Person deleted successfully with ID: {}", id);
     }
 
@@ -131,14 +169,30 @@ public class PersonService {
         return personRepository.findByLastNameContainingIgnoreCase(lastName);
     }
 
-    private void saveToFile() {
-        try {
-            List<Person> persons = personRepository.findAll();
-            fileStorageService.saveToFile(persons, PERSONS_FILE);
-        } catch (IOException e) {
-            logger.error("Failed to save persons to file: {}", e.getMessage());
+    public Map<String, Object> getCacheStatistics() {
+        return personCache.getStatistics();
+    }
 
-        }
+    // Dropped now so this transaction's reads miss, and again after commit in case another request
+    // cached the old row in between
+    private void invalidateCache(Long id) {
+        personCache.invalidate(id);
+        TransactionCallbacks.afterCommit(() -> personCache.invalidate(id));
+    }
+
+    // Tokens carry the id, email and role, so tokens issued before the change must not authenticate;
+    // revoked again after commit in case the user signed in with the old row in between
+    private void revokeTokens(Long id) {
+        jwtTokenProvider.revokeUserTokens(id);
+        TransactionCallbacks.afterCommit(() -> jwtTokenProvider.revokeUserTokens(id));
+    }
+
+    private void saveToFile(Person person) {
+        fileStorageService.recordUpsert(PERSONS_FILE, person.getId(), person, personRepository::findAll);
+    }
+
+    private void deleteFromFile(Long id) {
+        fileStorageService.recordDelete(PERSONS_FILE, id, personRepository::findAll);
     }
 
     public void loadFromFile() {
@@ -0,0 +1,460 @@
+package com.luggagestorage.socket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+// Non-blocking transport for SocketServer: a few selector threads own all connections and only
+// hand complete command lines to the worker pool. Untagged commands on one connection run one at
+// a time, so their responses keep request order; tagged ("#id CMD") commands run concurrently and
+// are answered as soon as they finish.
+class NioSocketTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(NioSocketTransport.class);
+
+    private static final int READ_BUFFER_SIZE = 4096;
+    private static final int MAX_LINE_BYTES = 8192;
+    private static final int MAX_PENDING_COMMANDS = 64;
+
+    private final int port;
+    private final int ioThreadCount;
+    private final ExecutorService workers;
+    private final BiFunction<String, SocketSubscriber, String> commandHandler;
+    private final IntFunction<String> welcomeMessage;
+    private final SocketServerMetrics metrics;
+    private final SocketSubscriptionRegistry subscriptions;
+    private final int subscriberQueueCapacity;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger clientCounter;
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final List<IoLoop> loops = new ArrayList<>();
+    private ServerSocketChannel serverChannel;
+    private int nextLoop;
+
+    NioSocketTransport(int port, int ioThreadCount, ExecutorService workers,
+                       BiFunction<String, SocketSubscriber, String> commandHandler, IntFunction<String> welcomeMessage,
+                       SocketServerMetrics metrics, AtomicInteger clientCounter,
+                       SocketSubscriptionRegistry subscriptions, int subscriberQueueCapacity) {
+        this.port = port;
+        this.ioThreadCount = Math.max(1, ioThreadCount);
+        this.workers = workers;
+        this.commandHandler = commandHandler;
+        this.welcomeMessage = welcomeMessage;
+        this.metrics = metrics;
+        this.clientCounter = clientCounter;
+        this.subscriptions = subscriptions;
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+    }
+
+    void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(port));
+
+        for (int i = 0; i < ioThreadCount; i++) {
+            loops.add(new IoLoop(Selector.open()));
+        }
+        serverChannel.register(loops.get(0).selector, SelectionKey.OP_ACCEPT);
+
+        running.set(true);
+        for (int i = 0; i < loops.size(); i++) {
+            Thread thread = new Thread(loops.get(i), "SocketServer-IO-" + (i + 1));
+            thread.setDaemon(true);
+            loops.get(i).thread = thread;
+            thread.start();
+        }
+
+        logger.info("NIO socket server listening on port {} with {} I/O thread(s)", port, ioThreadCount);
+    }
+
+    void stop() {
+        running.set(false);
+
+        try {
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException e) {
+            logger.error("Error closing server channel", e);
+        }
+
+        for (Connection connection : new ArrayList<>(connections)) {
+            connection.close();
+        }
+
+        for (IoLoop loop : loops) {
+            loop.selector.wakeup();
+            try {
+                loop.thread.join(2000);
+                loop.selector.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                logger.error("Error closing selector", e);
+            }
+        }
+    }
+
+    boolean isRunning() {
+        return running.get();
+    }
+
+    private final class IoLoop implements Runnable {
+
+        private final Selector selector;
+        private final Queue<Connection> pendingRegistrations = new ConcurrentLinkedQueue<>();
+        private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+        private Thread thread;
+
+        IoLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public void run() {
+            while (running.get()) {
+                try {
+                    selector.select();
+                    registerPending();
+                    enableWrites();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handle(key);
+                    }
+                } catch (ClosedSelectorException e) {
+                    break;
+                } catch (IOException e) {
+                    if (running.get()) {
+                        logger.error("Error in socket I/O loop", e);
+                    }
+                }
+            }
+        }
+
+        void register(Connection connection) {
+            pendingRegistrations.add(connection);
+            selector.wakeup();
+        }
+
+        void requestWrite(Connection connection) {
+            if (Thread.currentThread() == thread && connection.key != null && connection.key.isValid()) {
+                connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_WRITE);
+                return;
+            }
+            pendingWrites.add(connection);
+            selector.wakeup();
+        }
+
+        private void registerPending() {
+            Connection connection;
+            while ((connection = pendingRegistrations.poll()) != null) {
+                try {
+                    connection.key = connection.channel.register(selector, SelectionKey.OP_READ, connection);
+                    connection.send(welcomeMessage.apply(connection.id));
+                } catch (IOException e) {
+                    logger.error("Failed to register Client #{}", connection.id, e);
+                    connection.close();
+                }
+            }
+        }
+
+        private void enableWrites() {
+            Connection connection;
+            while ((connection = pendingWrites.poll()) != null) {
+                if (connection.key != null && connection.key.isValid()) {
+                    connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_WRITE);
+                }
+            }
+        }
+
+        private void handle(SelectionKey key) {
+            if (!key.isValid()) {
+                return;
+            }
+
+            if (key.isAcceptable()) {
+                accept();
+                return;
+            }
+
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isReadable()) {
+                    connection.onReadable();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.flush();
+                }
+            } catch (IOException e) {
+                logger.debug("Client #{} connection error: {}", connection.id, e.getMessage());
+                connection.close();
+            }
+        }
+
+        private void accept() {
+            try {
+                SocketChannel channel;
+                while ((channel = serverChannel.accept()) != null) {
+                    channel.configureBlocking(false);
+                    int clientId = clientCounter.incrementAndGet();
+                    logger.info("New client connection accepted: Client #{} from {}", clientId, channel.getRemoteAddress());
+
+                    IoLoop loop = loops.get(nextLoop++ % loops.size());
+                    Connection connection = new Connection(clientId, channel, loop);
+                    connections.add(connection);
+                    metrics.connectionOpened();
+                    loop.register(connection);
+                }
+            } catch (IOException e) {
+                logger.error("Error accepting client connection", e);
+            }
+        }
+    }
+
+    private final class Connection implements SocketSubscriber {
+
+        private final int id;
+        private final SocketChannel channel;
+        private final IoLoop loop;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream();
+        private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger outboundSize = new AtomicInteger();
+        private final Deque<SocketRequest> pendingCommands = new ArrayDeque<>();
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private volatile SelectionKey key;
+        private volatile boolean closeAfterFlush;
+        private boolean busy;
+        private int taggedInFlight;
+
+        Connection(int id, SocketChannel channel, IoLoop loop) {
+            this.id = id;
+            this.channel = channel;
+            this.loop = loop;
+        }
+
+        void onReadable() throws IOException {
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                close();
+                return;
+            }
+
+            readBuffer.flip();
+            while (readBuffer.hasRemaining()) {
+                byte b = readBuffer.get();
+                if (b == '\n') {
+                    String line = lineBuffer.toString(StandardCharsets.UTF_8).trim();
+                    lineBuffer.reset();
+                    onLine(line);
+                } else if (lineBuffer.size() >= MAX_LINE_BYTES) {
+                    send("{\"error\":\"Command too long\"}");
+                    closeAfterFlush = true;
+                    break;
+                } else {
+                    lineBuffer.write(b);
+                }
+            }
+            readBuffer.clear();
+        }
+
+        private void onLine(String line) {
+            if (closeAfterFlush) {
+                return;
+            }
+
+            logger.debug("Client #{} sent command: {}", id, line);
+            SocketRequest request = SocketRequest.parse(line);
+
+            if (request.isTagged() && !request.isQuit()) {
+                dispatchTagged(request);
+                return;
+            }
+
+            synchronized (this) {
+                if (pendingCommands.size() >= MAX_PENDING_COMMANDS) {
+                    metrics.commandRejected();
+                    send(request.respond("{\"error\":\"Too many pending commands\"}"));
+                    return;
+                }
+                pendingCommands.add(request);
+            }
+            dispatchNext();
+        }
+
+        private void dispatchTagged(SocketRequest request) {
+            synchronized (this) {
+                if (taggedInFlight >= MAX_PENDING_COMMANDS) {
+                    metrics.commandRejected();
+                    send(request.respond("{\"error\":\"Too many pending commands\"}"));
+                    return;
+                }
+                taggedInFlight++;
+            }
+
+            try {
+                workers.execute(() -> {
+                    try {
+                        send(request.respond(commandHandler.apply(request.getCommand(), this)));
+                    } finally {
+                        synchronized (this) {
+                            taggedInFlight--;
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    taggedInFlight--;
+                }
+                metrics.commandRejected();
+                send(request.respond("{\"error\":\"Server busy, please retry\"}"));
+            }
+        }
+
+        private void dispatchNext() {
+            while (true) {
+                SocketRequest request;
+                synchronized (this) {
+                    if (busy || pendingCommands.isEmpty()) {
+                        return;
+                    }
+                    request = pendingCommands.poll();
+                    busy = true;
+                }
+
+                if (request.isQuit()) {
+                    synchronized (this) {
+                        pendingCommands.clear();
+                    }
+                    closeAfterFlush = true;
+                    send(request.respond("{\"message\":\"Goodbye!\"}"));
+                    logger.info("Client #{} requested disconnect", id);
+                    return;
+                }
+
+                try {
+                    workers.execute(() -> {
+                        try {
+                            send(commandHandler.apply(request.getCommand(), this));
+                        } finally {
+                            synchronized (this) {
+                                busy = false;
+                            }
+                            dispatchNext();
+                        }
+                    });
+                    return;
+                } catch (RejectedExecutionException e) {
+                    metrics.commandRejected();
+                    send("{\"error\":\"Server busy, please retry\"}");
+                    synchronized (this) {
+                        busy = false;
+                    }
+                }
+            }
+        }
+
+        void send(String message) {
+            if (closed.get()) {
+                return;
+            }
+            outbound.add(ByteBuffer.wrap((message + "\n").getBytes(StandardCharsets.UTF_8)));
+            outboundSize.incrementAndGet();
+            loop.requestWrite(this);
+        }
+
+        @Override
+        public int getClientId() {
+            return id;
+        }
+
+        // Pushes share the outbound queue with responses; a client that stops reading fills it and is evicted
+        @Override
+        public boolean push(String message) {
+            if (closed.get() || closeAfterFlush) {
+                return true;
+            }
+            if (outboundSize.get() >= subscriberQueueCapacity) {
+                return false;
+            }
+            send(message);
+            return true;
+        }
+
+        @Override
+        public void evict(String reason) {
+            logger.info("Client #{} evicted: {}", id, reason);
+            close();
+        }
+
+        void flush() throws IOException {
+            ByteBuffer buffer;
+            while ((buffer = outbound.peek()) != null) {
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+                outbound.poll();
+                outboundSize.decrementAndGet();
+            }
+
+            if (closeAfterFlush) {
+                close();
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+                // A response queued after the loop drained the queue still needs OP_WRITE
+                if (!outbound.isEmpty()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+
+            connections.remove(this);
+            subscriptions.unsubscribeAll(this);
+            metrics.connectionClosed();
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+                logger.info("Client #{} connection closed", id);
+            } catch (IOException e) {
+                logger.error("Error closing client channel for Client #{}", id, e);
+            }
+        }
+    }
+}
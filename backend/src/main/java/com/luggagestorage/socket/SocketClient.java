@@ -8,13 +8,24 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class SocketClient {
 
     private static final Logger logger = LoggerFactory.getLogger(SocketClient.class);
     private static final String DEFAULT_HOST = "localhost";
     private static final int DEFAULT_PORT = 9091;
+    // Compared by identity, so a server line with the same text is never mistaken for it
+    private static final String END_OF_STREAM = new String("END_OF_STREAM");
 
     private final String host;
     private final int port;
@@ -22,6 +33,15 @@ public class SocketClient {
     private BufferedReader in;
     private PrintWriter out;
 
+    // Once an async command has been sent, a reader thread owns the input stream: tagged lines
+    // complete their futures, pushed "!" lines go to the push listener and untagged lines are queued
+    // for sendCommand.
+    private final Map<String, CompletableFuture<String>> pendingResponses = new ConcurrentHashMap<>();
+    private final BlockingQueue<String> untaggedResponses = new LinkedBlockingQueue<>();
+    private final AtomicLong nextTag = new AtomicLong();
+    private volatile Thread readerThread;
+    private volatile Consumer<String> pushListener;
+
     public SocketClient() {
         this(DEFAULT_HOST, DEFAULT_PORT);
     }
@@ -45,13 +65,117 @@ public class SocketClient {
         }
 
         logger.debug("Sending command: {}", command);
-        out.println(command);
+        synchronized (out) {
+            out.println(command);
+        }
 
-        String response = in.readLine();
+        String response = readerThread != null ? takeUntaggedResponse() : in.readLine();
         logger.debug("Received response: {}", response);
         return response;
     }
 
+    public CompletableFuture<String> sendCommandAsync(String command) {
+        if (socket == null || socket.isClosed()) {
+            return CompletableFuture.failedFuture(new IOException("Not connected to server"));
+        }
+
+        startReader();
+
+        String tag = Long.toString(nextTag.incrementAndGet());
+        CompletableFuture<String> response = new CompletableFuture<>();
+        pendingResponses.put(tag, response);
+
+        logger.debug("Sending pipelined command #{}: {}", tag, command);
+        synchronized (out) {
+            out.println("#" + tag + " " + command);
+        }
+        return response;
+    }
+
+    public List<CompletableFuture<String>> sendCommandsAsync(String... commands) {
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (String command : commands) {
+            responses.add(sendCommandAsync(command));
+        }
+        return responses;
+    }
+
+    public String subscribe(String topic, String location, Consumer<String> listener) throws IOException {
+        onPush(listener);
+        String command = "SUBSCRIBE " + topic + (location == null || location.isBlank() ? "" : " " + location);
+        return sendCommand(command);
+    }
+
+    public void onPush(Consumer<String> listener) {
+        this.pushListener = listener;
+        startReader();
+    }
+
+    private synchronized void startReader() {
+        if (readerThread != null) {
+            return;
+        }
+        readerThread = new Thread(this::readResponses, "SocketClient-Reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    private void readResponses() {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("!")) {
+                    deliverPush(line);
+                    continue;
+                }
+                SocketRequest response = SocketRequest.parse(line);
+                CompletableFuture<String> pending = response.isTagged() ? pendingResponses.remove(response.getTag()) : null;
+                if (pending != null) {
+                    pending.complete(response.getCommand());
+                } else {
+                    untaggedResponses.add(line);
+                }
+            }
+            failPending(new IOException("Connection closed by server"));
+        } catch (IOException e) {
+            failPending(e);
+        } finally {
+            untaggedResponses.add(END_OF_STREAM);
+        }
+    }
+
+    private void deliverPush(String line) {
+        Consumer<String> listener = pushListener;
+        if (listener == null) {
+            logger.debug("Dropping pushed message without a listener: {}", line);
+            return;
+        }
+        try {
+            listener.accept(line);
+        } catch (RuntimeException e) {
+            logger.error("Push listener failed", e);
+        }
+    }
+
+    private void failPending(IOException cause) {
+        pendingResponses.values().forEach(future -> future.completeExceptionally(cause));
+        pendingResponses.clear();
+    }
+
+    private String takeUntaggedResponse() throws IOException {
+        try {
+            String response = untaggedResponses.take();
+            if (response == END_OF_STREAM) {
+                untaggedResponses.add(END_OF_STREAM);
+                return null;
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for response", e);
+        }
+    }
+
     public void disconnect() {
         try {
             if (out != null) {
@@ -91,9 +215,11 @@ public class SocketClient {
 
             Scanner scanner = new Scanner(System.in);
             System.out.println("\n=== Luggage Storage System Socket Client ===");
-            System.out.println("Available commands: STATUS, STATS, LOCKERS, BOOKINGS, HELP, QUIT");
+            System.out.println("Available commands: STATUS, STATS, LOCKERS, BOOKINGS, SUBSCRIBE, UNSUBSCRIBE, HELP, QUIT");
             System.out.println("Type a command and press Enter:\n");
 
+            client.onPush(push -> System.out.println("\nPush: " + push));
+
             while (true) {
                 System.out.print("> ");
                 String command = scanner.nextLine();
@@ -141,6 +267,14 @@ public class SocketClient {
                 Thread.sleep(500);
             }
 
+            System.out.println("=== Testing Pipelined Commands ===\n");
+
+            List<CompletableFuture<String>> responses = client.sendCommandsAsync("STATUS", "LOCKERS", "BOOKINGS");
+            CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+            for (CompletableFuture<String> response : responses) {
+                System.out.println("Response: " + response.join() + "\n");
+            }
+
         } catch (IOException | InterruptedException e) {
             logger.error("Error during test", e);
             System.err.println("Error: " + e.getMessage());
@@ -0,0 +1,55 @@
+package com.luggagestorage.socket;
+
+// One line of the socket protocol. "#<tag> <COMMAND>" marks a pipelined request: its response is
+// sent back as "#<tag> <json>" and may arrive before responses to earlier requests.
+public class SocketRequest {
+
+    private static final int MAX_TAG_LENGTH = 32;
+
+    private final String tag;
+    private final String command;
+
+    private SocketRequest(String tag, String command) {
+        this.tag = tag;
+        this.command = command;
+    }
+
+    public static SocketRequest parse(String line) {
+        String trimmed = line == null ? "" : line.trim();
+        if (!trimmed.startsWith("#")) {
+            return new SocketRequest(null, trimmed);
+        }
+
+        int space = trimmed.indexOf(' ');
+        String tag = space < 0 ? trimmed.substring(1) : trimmed.substring(1, space);
+        String command = space < 0 ? "" : trimmed.substring(space + 1).trim();
+        if (tag.isEmpty() || tag.length() > MAX_TAG_LENGTH) {
+            return new SocketRequest(null, trimmed);
+        }
+        return new SocketRequest(tag, command);
+    }
+
+    public static String tagged(String tag, String response) {
+        return "#" + tag + " " + response;
+    }
+
+    public String respond(String response) {
+        return isTagged() ? tagged(tag, response) : response;
+    }
+
+    public boolean isTagged() {
+        return tag != null;
+    }
+
+    public boolean isQuit() {
+        return "QUIT".equalsIgnoreCase(command);
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+}
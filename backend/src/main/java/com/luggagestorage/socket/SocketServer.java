@@ -1,5 +1,6 @@
 package com.luggagestorage.socket;
 
+import com.luggagestorage.util.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,8 +16,12 @@ import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -35,17 +40,41 @@ public class SocketServer {
     @Value("${socket.server.thread.pool.size:10}")
     private int threadPoolSize;
 
+    // "blocking" keeps one pooled thread per connection; "nio" multiplexes connections on selector threads
+    @Value("${socket.server.mode:blocking}")
+    private String mode;
+
+    // Blocking mode only: each connection and its push writer run on a virtual thread (Java 21+)
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${socket.server.nio.io-threads:2}")
+    private int ioThreads;
+
+    @Value("${socket.server.worker.queue-capacity:1000}")
+    private int workerQueueCapacity;
+
+    // Pushed messages a subscriber may have waiting before it is treated as a slow consumer
+    @Value("${socket.server.subscription.queue-capacity:256}")
+    private int subscriptionQueueCapacity;
+
     private final SocketService socketService;
-    private final ExecutorService executorService;
+    private final SocketServerMetrics metrics;
+    private final SocketSubscriptionRegistry subscriptionRegistry;
     private final AtomicBoolean running;
     private final AtomicInteger clientCounter;
+    private ExecutorService executorService;
+    private ThreadFactory pushThreads;
+    private NioSocketTransport nioTransport;
     private ServerSocket serverSocket;
     private Thread serverThread;
 
     @Autowired
-    public SocketServer(SocketService socketService) {
+    public SocketServer(SocketService socketService, SocketServerMetrics metrics,
+                        SocketSubscriptionRegistry subscriptionRegistry) {
         this.socketService = socketService;
-        this.executorService = Executors.newFixedThreadPool(10);
+        this.metrics = metrics;
+        this.subscriptionRegistry = subscriptionRegistry;
         this.running = new AtomicBoolean(false);
         this.clientCounter = new AtomicInteger(0);
     }
@@ -62,11 +91,84 @@ public class SocketServer {
             return;
         }
 
+        if (isNioMode()) {
+            startNio();
+            return;
+        }
+
+        boolean virtual = useVirtualThreads();
+        if (virtual) {
+            // A virtual thread per connection, so clients no longer wait for a pooled thread
+            executorService = VirtualThreads.newThreadPerTaskExecutor("SocketServer-Client-");
+            pushThreads = VirtualThreads.factory("SocketServer-Push-");
+        } else {
+            // One thread per connection, so extra clients wait in the queue until a thread frees up
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threadPoolSize, threadPoolSize, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), namedThreads("SocketServer-Client-"));
+            metrics.bindWorkerQueue(() -> pool.getQueue().size());
+            executorService = pool;
+            pushThreads = namedThreads("SocketServer-Push-");
+        }
+
         serverThread = new Thread(this::runServer, "SocketServer-Main");
         serverThread.setDaemon(true);
         serverThread.start();
 
-        logger.info("Socket server started on port {}", port);
+        if (virtual) {
+            logger.info("Socket server started on port {} with a virtual thread per client", port);
+        } else {
+            logger.info("Socket server started on port {} with {} client threads", port, threadPoolSize);
+        }
+    }
+
+    private void startNio() {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(threadPoolSize, threadPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerQueueCapacity), namedThreads("SocketServer-Worker-"));
+        metrics.bindWorkerQueue(() -> workers.getQueue().size());
+        executorService = workers;
+
+        nioTransport = new NioSocketTransport(port, ioThreads, executorService, this::executeCommand,
+                this::welcomeMessage, metrics, clientCounter, subscriptionRegistry, subscriptionQueueCapacity);
+        try {
+            nioTransport.start();
+            running.set(true);
+        } catch (IOException e) {
+            logger.error("Failed to start socket server on port {}", port, e);
+        }
+    }
+
+    private boolean isNioMode() {
+        return "nio".equalsIgnoreCase(mode);
+    }
+
+    private boolean useVirtualThreads() {
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            logger.warn("Virtual threads need Java 21 or newer, using {} client threads", threadPoolSize);
+            return false;
+        }
+        return virtualThreads;
+    }
+
+    private ThreadFactory namedThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    String executeCommand(String command, SocketSubscriber subscriber) {
+        long start = System.nanoTime();
+        try {
+            return socketService.processCommand(command, subscriber);
+        } finally {
+            metrics.recordCommand(socketService.commandName(command), System.nanoTime() - start);
+        }
+    }
+
+    String welcomeMessage(int clientId) {
+        return "{\"message\":\"Welcome to Luggage Storage System Socket Server\",\"clientId\":" + clientId + ",\"commands\":\"Type HELP for available commands\"}";
     }
 
     private void runServer() {
@@ -83,6 +185,7 @@ public class SocketServer {
                     logger.info("New client connection accepted: Client #{} from {}",
                             clientId, clientSocket.getInetAddress());
 
+                    metrics.connectionOpened();
                     executorService.submit(() -> handleClient(clientSocket, clientId));
 
                 } catch (SocketException e) {
@@ -104,32 +207,45 @@ public class SocketServer {
     }
 
     private void handleClient(Socket clientSocket, int clientId) {
-        logger.info("Handling Client #{} in thread: {}", clientId, Thread.currentThread().getName());
+        logger.debug("Handling Client #{} in thread: {}", clientId, Thread.currentThread().getName());
+        BlockingSubscriber subscriber = null;
 
         try (
                 BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
                 PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)
         ) {
+            subscriber = new BlockingSubscriber(clientId, clientSocket, out, subscriptionQueueCapacity, pushThreads);
 
-            out.println("{\"message\":\"Welcome to Luggage Storage System Socket Server\",\"clientId\":" + clientId + ",\"commands\":\"Type HELP for available commands\"}");
+            out.println(welcomeMessage(clientId));
 
             String inputLine;
             while ((inputLine = in.readLine()) != null) {
-                logger.info("Client #{} sent command: {}", clientId, inputLine);
+                logger.debug("Client #{} sent command: {}", clientId, inputLine);
 
-                if ("QUIT".equalsIgnoreCase(inputLine.trim())) {
-                    out.println("{\"message\":\"Goodbye!\"}");
+                // Tagged requests are answered in order here; only the NIO mode runs them concurrently
+                SocketRequest request = SocketRequest.parse(inputLine);
+                if (request.isQuit()) {
+                    out.println(request.respond("{\"message\":\"Goodbye!\"}"));
                     logger.info("Client #{} requested disconnect", clientId);
                     break;
                 }
 
-                String response = socketService.processCommand(inputLine);
-                out.println(response);
+                String response = executeCommand(request.getCommand(), subscriber);
+                out.println(request.respond(response));
             }
 
         } catch (IOException e) {
-            logger.error("Error handling Client #{}", clientId, e);
+            if (subscriber != null && subscriber.isEvicted()) {
+                logger.debug("Client #{} closed after eviction", clientId);
+            } else {
+                logger.error("Error handling Client #{}", clientId, e);
+            }
         } finally {
+            if (subscriber != null) {
+                subscriptionRegistry.unsubscribeAll(subscriber);
+                subscriber.stop();
+            }
+            metrics.connectionClosed();
             try {
                 clientSocket.close();
                 logger.info("Client #{} connection closed", clientId);
@@ -151,6 +267,10 @@ public class SocketServer {
 
         try {
 
+            if (nioTransport != null) {
+                nioTransport.stop();
+            }
+
             if (serverSocket != null && !serverSocket.isClosed()) {
                 serverSocket.close();
             }
@@ -186,4 +306,80 @@ public class SocketServer {
     public int getClientCount() {
         return clientCounter.get();
     }
+
+    public int getOpenConnectionCount() {
+        return metrics.getOpenConnections();
+    }
+
+    // Blocking connections get their own writer thread for pushes, started on the first pushed message.
+    // PrintWriter.println locks the writer, so pushes and command responses never interleave mid-line.
+    private static final class BlockingSubscriber implements SocketSubscriber {
+
+        private final int clientId;
+        private final Socket socket;
+        private final PrintWriter out;
+        private final BlockingQueue<String> queue;
+        private final ThreadFactory writerThreads;
+        private volatile boolean evicted;
+        private Thread writer;
+
+        BlockingSubscriber(int clientId, Socket socket, PrintWriter out, int capacity, ThreadFactory writerThreads) {
+            this.clientId = clientId;
+            this.socket = socket;
+            this.out = out;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+            this.writerThreads = writerThreads;
+        }
+
+        @Override
+        public int getClientId() {
+            return clientId;
+        }
+
+        @Override
+        public boolean push(String message) {
+            startWriter();
+            return queue.offer(message);
+        }
+
+        @Override
+        public void evict(String reason) {
+            logger.info("Client #{} evicted: {}", clientId, reason);
+            evicted = true;
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.error("Error closing client socket for Client #{}", clientId, e);
+            }
+        }
+
+        boolean isEvicted() {
+            return evicted;
+        }
+
+        synchronized void stop() {
+            if (writer != null) {
+                writer.interrupt();
+            }
+        }
+
+        private synchronized void startWriter() {
+            if (writer != null) {
+                return;
+            }
+            writer = writerThreads.newThread(this::drain);
+            writer.setName("SocketServer-Push-" + clientId);
+            writer.start();
+        }
+
+        private void drain() {
+            try {
+                while (!socket.isClosed()) {
+                    out.println(queue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package com.luggagestorage.socket;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+@Component
+public class SocketServerMetrics implements MeterBinder {
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong acceptedConnections = new AtomicLong();
+    private final AtomicLong rejectedCommands = new AtomicLong();
+    private final AtomicLong evictedSubscribers = new AtomicLong();
+    private final Map<String, CommandStats> commandStats = new ConcurrentHashMap<>();
+    private volatile IntSupplier workerQueueDepth = () -> 0;
+    private volatile MeterRegistry registry;
+
+    public void connectionOpened() {
+        openConnections.incrementAndGet();
+        acceptedConnections.incrementAndGet();
+    }
+
+    public void connectionClosed() {
+        openConnections.decrementAndGet();
+    }
+
+    public void commandRejected() {
+        rejectedCommands.incrementAndGet();
+    }
+
+    public void subscriberEvicted() {
+        evictedSubscribers.incrementAndGet();
+    }
+
+    public void recordCommand(String command, long elapsedNanos) {
+        commandStats.computeIfAbsent(command, name -> new CommandStats()).record(elapsedNanos);
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            meterRegistry.timer("socket.commands", "command", command).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void bindWorkerQueue(IntSupplier queueDepth) {
+        this.workerQueueDepth = queueDepth;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("socket.connections.open", this, SocketServerMetrics::getOpenConnections)
+                .description("Socket clients currently connected")
+                .register(meterRegistry);
+        FunctionCounter.builder("socket.connections.accepted", this, SocketServerMetrics::getAcceptedConnections)
+                .description("Socket clients accepted since startup")
+                .register(meterRegistry);
+        Gauge.builder("socket.worker.queue.depth", this, SocketServerMetrics::getWorkerQueueDepth)
+                .description("Commands waiting for a worker thread")
+                .register(meterRegistry);
+        FunctionCounter.builder("socket.commands.rejected", this, SocketServerMetrics::getRejectedCommands)
+                .description("Commands rejected because the worker queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("socket.subscribers.evicted", this, SocketServerMetrics::getEvictedSubscribers)
+                .description("Subscribers dropped as slow consumers")
+                .register(meterRegistry);
+        this.registry = meterRegistry;
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public long getAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    public long getRejectedCommands() {
+        return rejectedCommands.get();
+    }
+
+    public long getEvictedSubscribers() {
+        return evictedSubscribers.get();
+    }
+
+    public int getWorkerQueueDepth() {
+        return workerQueueDepth.getAsInt();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("openConnections", getOpenConnections());
+        metrics.put("acceptedConnections", getAcceptedConnections());
+        metrics.put("workerQueueDepth", getWorkerQueueDepth());
+        metrics.put("rejectedCommands", getRejectedCommands());
+        metrics.put("evictedSubscribers", getEvictedSubscribers());
+
+        Map<String, Object> commands = new TreeMap<>();
+        commandStats.forEach((name, stats) -> commands.put(name, stats.toMap()));
+        metrics.put("commands", commands);
+        return metrics;
+    }
+
+    private static final class CommandStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        Map<String, Object> toMap() {
+            long calls = count.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", calls);
+            stats.put("avgMicros", calls == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / calls));
+            stats.put("maxMicros", TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+            return stats;
+        }
+    }
+}
@@ -2,13 +2,13 @@ package com.luggagestorage.socket;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.luggagestorage.model.Booking;
 import com.luggagestorage.model.Locker;
-import com.luggagestorage.model.Person;
+import com.luggagestorage.model.dto.BookingResponse;
+import com.luggagestorage.model.enums.BookingStatus;
 import com.luggagestorage.model.enums.Status;
 import com.luggagestorage.service.BookingService;
 import com.luggagestorage.service.LockerService;
-import com.luggagestorage.service.PersonService;
+import com.luggagestorage.service.LockerStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,24 +17,34 @@ import org.springframework.stereotype.Service;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class SocketService {
 
     private static final Logger logger = LoggerFactory.getLogger(SocketService.class);
+    private static final Set<String> COMMANDS = Set.of(
+            "STATUS", "STATS", "STATISTICS", "LOCKERS", "BOOKINGS", "METRICS", "SUBSCRIBE", "UNSUBSCRIBE", "HELP", "QUIT");
 
     private final BookingService bookingService;
     private final LockerService lockerService;
-    private final PersonService personService;
+    private final LockerStatistics lockerStatistics;
+    private final SocketServerMetrics socketServerMetrics;
+    private final SocketSubscriptionRegistry subscriptionRegistry;
     private final ObjectMapper objectMapper;
 
     @Autowired
     public SocketService(BookingService bookingService,
                          LockerService lockerService,
-                         PersonService personService) {
+                         LockerStatistics lockerStatistics,
+                         SocketServerMetrics socketServerMetrics,
+                         SocketSubscriptionRegistry subscriptionRegistry) {
         this.bookingService = bookingService;
         this.lockerService = lockerService;
-        this.personService = personService;
+        this.lockerStatistics = lockerStatistics;
+        this.socketServerMetrics = socketServerMetrics;
+        this.subscriptionRegistry = subscriptionRegistry;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -56,19 +66,16 @@ public class SocketService {
 
     public String getSystemStatistics() {
         try {
-            List<Booking> allBookings = bookingService.getAllBookings();
-            List<Locker> allLockers = lockerService.getAllLockers();
-            List<Person> allPersons = personService.getAllPersons();
-            List<Booking> activeBookings = bookingService.getActiveBookings();
-            List<Locker> availableLockers = lockerService.getAvailableLockers();
+            long totalLockers = lockerStatistics.getTotalLockers();
+            long availableLockers = lockerStatistics.getLockerCount(Status.AVAILABLE);
 
             Map<String, Object> stats = new HashMap<>();
-            stats.put("totalBookings", allBookings.size());
-            stats.put("activeBookings", activeBookings.size());
-            stats.put("totalLockers", allLockers.size());
-            stats.put("availableLockers", availableLockers.size());
-            stats.put("occupiedLockers", allLockers.size() - availableLockers.size());
-            stats.put("totalUsers", allPersons.size());
+            stats.put("totalBookings", lockerStatistics.getTotalBookings());
+            stats.put("activeBookings", lockerStatistics.getBookingCount(BookingStatus.ACTIVE));
+            stats.put("totalLockers", totalLockers);
+            stats.put("availableLockers", availableLockers);
+            stats.put("occupiedLockers", totalLockers - availableLockers);
+            stats.put("totalUsers", lockerStatistics.getTotalPersons());
             stats.put("timestamp", System.currentTimeMillis());
 
             return objectMapper.writeValueAsString(stats);
@@ -78,6 +85,15 @@ public class SocketService {
         }
     }
 
+    public String getServerMetrics() {
+        try {
+            return objectMapper.writeValueAsString(socketServerMetrics.snapshot());
+        } catch (JsonProcessingException e) {
+            logger.error("Error creating server metrics JSON", e);
+            return "{\"error\":\"" + e.getMessage() + "\"}";
+        }
+    }
+
     public String getAvailableLockers() {
         try {
             List<Locker> availableLockers = lockerService.getAvailableLockers();
@@ -105,7 +121,7 @@ public class SocketService {
 
     public String getActiveBookings() {
         try {
-            List<Booking> activeBookings = bookingService.getActiveBookings();
+            List<BookingResponse> activeBookings = bookingService.getBookingResponses(BookingStatus.ACTIVE, null, null);
 
             Map<String, Object> response = new HashMap<>();
             response.put("count", activeBookings.size());
@@ -113,10 +129,10 @@ public class SocketService {
                     .map(booking -> {
                         Map<String, Object> bookingInfo = new HashMap<>();
                         bookingInfo.put("id", booking.getId());
-                        bookingInfo.put("lockerId", booking.getLocker().getId());
-                        bookingInfo.put("lockerNumber", booking.getLocker().getLockerNumber());
-                        bookingInfo.put("customerId", booking.getCustomer().getId());
-                        bookingInfo.put("customerName", booking.getCustomer().getFullName());
+                        bookingInfo.put("lockerId", booking.getLockerId());
+                        bookingInfo.put("lockerNumber", booking.getLockerNumber());
+                        bookingInfo.put("customerId", booking.getCustomerId());
+                        bookingInfo.put("customerName", booking.getCustomerName());
                         bookingInfo.put("startTime", booking.getStartDatetime().toString());
                         bookingInfo.put("endTime", booking.getEndDatetime().toString());
                         bookingInfo.put("totalPrice", booking.getTotalPrice());
@@ -131,13 +147,26 @@ public class SocketService {
         }
     }
 
+    public String processCommand(String command, SocketSubscriber subscriber) {
+        String[] parts = command == null ? new String[0] : command.trim().split("\\s+", 3);
+        String cmd = parts.length > 0 ? parts[0].toUpperCase() : "";
+
+        if ("SUBSCRIBE".equals(cmd)) {
+            return subscribe(parts, subscriber);
+        }
+        if ("UNSUBSCRIBE".equals(cmd)) {
+            return unsubscribe(parts, subscriber);
+        }
+        return processCommand(command);
+    }
+
     public String processCommand(String command) {
         if (command == null || command.trim().isEmpty()) {
             return "{\"error\":\"Empty command\"}";
         }
 
         String cmd = command.trim().toUpperCase();
-        logger.info("Processing socket command: {}", cmd);
+        logger.debug("Processing socket command: {}", cmd);
 
         switch (cmd) {
             case "STATUS":
@@ -149,6 +178,8 @@ public class SocketService {
                 return getAvailableLockers();
             case "BOOKINGS":
                 return getActiveBookings();
+            case "METRICS":
+                return getServerMetrics();
             case "HELP":
                 return getHelpMessage();
             default:
@@ -156,6 +187,63 @@ public class SocketService {
         }
     }
 
+    // Name used for latency metrics; unknown input is grouped so it cannot grow the metric set
+    public String commandName(String command) {
+        String cmd = command == null ? "" : command.trim().toUpperCase();
+        if (cmd.startsWith("SUBSCRIBE ") || cmd.startsWith("UNSUBSCRIBE ")) {
+            cmd = cmd.substring(0, cmd.indexOf(' '));
+        }
+        return COMMANDS.contains(cmd) ? cmd : "UNKNOWN";
+    }
+
+    private String subscribe(String[] parts, SocketSubscriber subscriber) {
+        if (subscriber == null) {
+            return "{\"error\":\"Subscriptions are not supported on this connection\"}";
+        }
+        if (parts.length < 2) {
+            return "{\"error\":\"Usage: SUBSCRIBE LOCKERS|BOOKINGS [location]\"}";
+        }
+
+        Optional<SocketSubscriptionRegistry.Topic> topic = SocketSubscriptionRegistry.parseTopic(parts[1]);
+        if (topic.isEmpty()) {
+            return "{\"error\":\"Unknown topic: " + parts[1] + "\",\"hint\":\"Topics are LOCKERS and BOOKINGS\"}";
+        }
+
+        String location = parts.length > 2 ? parts[2].trim() : null;
+        subscriptionRegistry.subscribe(subscriber, topic.get(), location);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("subscribed", topic.get().name());
+        response.put("location", location == null ? "ALL" : location);
+        return toJson(response);
+    }
+
+    private String unsubscribe(String[] parts, SocketSubscriber subscriber) {
+        if (subscriber == null) {
+            return "{\"error\":\"Subscriptions are not supported on this connection\"}";
+        }
+        if (parts.length < 2) {
+            subscriptionRegistry.unsubscribeAll(subscriber);
+            return "{\"unsubscribed\":\"ALL\"}";
+        }
+
+        Optional<SocketSubscriptionRegistry.Topic> topic = SocketSubscriptionRegistry.parseTopic(parts[1]);
+        if (topic.isEmpty()) {
+            return "{\"error\":\"Unknown topic: " + parts[1] + "\",\"hint\":\"Topics are LOCKERS and BOOKINGS\"}";
+        }
+
+        subscriptionRegistry.unsubscribe(subscriber, topic.get());
+        return "{\"unsubscribed\":\"" + topic.get().name() + "\"}";
+    }
+
+    private String toJson(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            return "{\"error\":\"" + e.getMessage() + "\"}";
+        }
+    }
+
     private String getHelpMessage() {
         try {
             Map<String, Object> help = new HashMap<>();
@@ -165,9 +253,16 @@ public class SocketService {
                     "STATS - Get system statistics",
                     "LOCKERS - Get available lockers",
                     "BOOKINGS - Get active bookings",
+                    "METRICS - Get socket server metrics",
+                    "SUBSCRIBE LOCKERS|BOOKINGS [location] - Receive live updates, optionally for one location",
+                    "UNSUBSCRIBE [LOCKERS|BOOKINGS] - Stop live updates for one topic or all topics",
                     "HELP - Show this help message",
                     "QUIT - Close connection"
             ));
+            help.put("pipelining", "Prefix a command with #<id> (e.g. #7 LOCKERS) to send several without waiting; "
+                    + "each response comes back prefixed with the same #<id>, possibly out of order");
+            help.put("subscriptions", "Live updates arrive as lines starting with !LOCKERS or !BOOKINGS followed by the event JSON; "
+                    + "connections that fall too far behind are disconnected");
 
             return objectMapper.writeValueAsString(help);
         } catch (JsonProcessingException e) {
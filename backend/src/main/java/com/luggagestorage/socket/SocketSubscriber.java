@@ -0,0 +1,12 @@
+package com.luggagestorage.socket;
+
+// A socket connection that can receive pushed events.
+public interface SocketSubscriber {
+
+    int getClientId();
+
+    // Must not block; returns false when the connection's outbound queue is full.
+    boolean push(String message);
+
+    void evict(String reason);
+}
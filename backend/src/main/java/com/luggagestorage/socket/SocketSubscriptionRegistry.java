@@ -0,0 +1,147 @@
+package com.luggagestorage.socket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.luggagestorage.model.dto.BookingEvent;
+import com.luggagestorage.model.dto.LockerAvailabilityEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Pushed lines are "!<TOPIC> " followed by one event object, or an array when a batch changed together,
+// so clients can tell them apart from command responses.
+@Component
+public class SocketSubscriptionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SocketSubscriptionRegistry.class);
+
+    public enum Topic {
+        LOCKERS,
+        BOOKINGS
+    }
+
+    private static final String ANY_LOCATION = "";
+
+    private final Map<SocketSubscriber, Map<Topic, String>> subscriptions = new ConcurrentHashMap<>();
+    private final SocketServerMetrics metrics;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SocketSubscriptionRegistry(SocketServerMetrics metrics) {
+        this.metrics = metrics;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public static Optional<Topic> parseTopic(String topic) {
+        for (Topic value : Topic.values()) {
+            if (value.name().equalsIgnoreCase(topic)) {
+                return Optional.of(value);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void subscribe(SocketSubscriber subscriber, Topic topic, String location) {
+        subscriptions.computeIfAbsent(subscriber, s -> new ConcurrentHashMap<>())
+                .put(topic, location == null ? ANY_LOCATION : location.trim());
+        logger.info("Client #{} subscribed to {}{}", subscriber.getClientId(), topic,
+                location == null || location.isBlank() ? "" : " at " + location.trim());
+    }
+
+    public void unsubscribe(SocketSubscriber subscriber, Topic topic) {
+        Map<Topic, String> topics = subscriptions.get(subscriber);
+        if (topics != null) {
+            topics.remove(topic);
+            if (topics.isEmpty()) {
+                subscriptions.remove(subscriber);
+            }
+        }
+    }
+
+    public void unsubscribeAll(SocketSubscriber subscriber) {
+        subscriptions.remove(subscriber);
+    }
+
+    public void publishLockerEvent(LockerAvailabilityEvent event) {
+        publishLockerEvents(List.of(event));
+    }
+
+    public void publishBookingEvent(BookingEvent event) {
+        publishBookingEvents(List.of(event));
+    }
+
+    // A batch goes out as one JSON array line per subscriber, so a bulk update cannot fill the queues
+    public void publishLockerEvents(List<LockerAvailabilityEvent> events) {
+        publish(Topic.LOCKERS, events, LockerAvailabilityEvent::getLocationName);
+    }
+
+    public void publishBookingEvents(List<BookingEvent> events) {
+        publish(Topic.BOOKINGS, events, BookingEvent::getLocationName);
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private <E> void publish(Topic topic, List<E> events, Function<E, String> location) {
+        if (subscriptions.isEmpty() || events.isEmpty()) {
+            return;
+        }
+
+        // Subscribers with the same location filter share one serialized line
+        Map<String, String> linesByFilter = new HashMap<>();
+        subscriptions.forEach((subscriber, topics) -> {
+            String filter = topics.get(topic);
+            if (filter == null) {
+                return;
+            }
+
+            String line = linesByFilter.computeIfAbsent(filter.toLowerCase(Locale.ROOT),
+                    key -> toLine(topic, events.stream()
+                            .filter(event -> matchesLocation(key, location.apply(event)))
+                            .collect(Collectors.toList())));
+            if (line.isEmpty()) {
+                return;
+            }
+
+            if (!subscriber.push(line)) {
+                // A consumer that cannot keep up is dropped rather than buffered without limit
+                subscriptions.remove(subscriber);
+                metrics.subscriberEvicted();
+                logger.warn("Evicting slow socket subscriber Client #{}", subscriber.getClientId());
+                subscriber.evict("Slow consumer");
+            }
+        });
+    }
+
+    private String toLine(Topic topic, List<?> events) {
+        if (events.isEmpty()) {
+            return "";
+        }
+        try {
+            Object payload = events.size() == 1 ? events.get(0) : events;
+            return "!" + topic + " " + objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize {} events for socket subscribers: {}", topic, e.getMessage());
+            return "";
+        }
+    }
+
+    private boolean matchesLocation(String filter, String location) {
+        return filter.isEmpty() || filter.equalsIgnoreCase(location);
+    }
+}
@@ -0,0 +1,17 @@
+package com.luggagestorage.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class Batches {
+
+    public static <T> List<List<T>> partition(Collection<T> items, int batchSize) {
+        List<T> source = new ArrayList<>(items);
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < source.size(); from += batchSize) {
+            batches.add(source.subList(from, Math.min(from + batchSize, source.size())));
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,46 @@
+package com.luggagestorage.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Cursor paging for list endpoints: pass ?afterId=<last id seen>&limit=<n>. A full page carries the id
+// to continue from in the X-Next-Cursor header; a missing header means the last page was reached.
+public class KeysetPage {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    public static boolean isRequested(Long afterId, Integer limit) {
+        return afterId != null || limit != null;
+    }
+
+    public static long after(Long afterId) {
+        return afterId != null ? afterId : 0L;
+    }
+
+    public static int size(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public static Pageable first(Integer limit) {
+        return PageRequest.of(0, size(limit));
+    }
+
+    public static <T, R> ResponseEntity<List<R>> response(List<T> rows, Long afterId, Integer limit,
+                                                          Function<T, Long> idOf, Function<T, R> mapper) {
+        List<R> body = rows.stream().map(mapper).collect(Collectors.toList());
+        if (!isRequested(afterId, limit) || rows.size() < size(limit)) {
+            return ResponseEntity.ok(body);
+        }
+        Long nextCursor = idOf.apply(rows.get(rows.size() - 1));
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(nextCursor))
+                .body(body);
+    }
+}
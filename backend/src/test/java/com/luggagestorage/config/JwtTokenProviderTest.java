@@ -0,0 +1,144 @@
+package com.luggagestorage.config;
+
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.enums.Role;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JwtTokenProvider.
+ * Tests that tokens are verified once and later lookups are served from the claims cache,
+ * stateless principals built from claims, token revocation and revocation of a changed user's tokens.
+ */
+class JwtTokenProviderTest {
+
+    private static final String SECRET =
+            "TestSecretKeyForJwtTokenProviderTestsThatIsLongEnoughForTheHS512AlgorithmAndThenSomeMore";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private TokenDenyList tokenDenyList;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "claimsCacheMaxSize", 2);
+        ReflectionTestUtils.setField(jwtTokenProvider, "statelessPrincipal", true);
+        tokenDenyList = new TokenDenyList();
+        ReflectionTestUtils.setField(jwtTokenProvider, "tokenDenyList", tokenDenyList);
+        jwtTokenProvider.init();
+    }
+
+    // Test 1: Cached claims
+    @Test
+    @DisplayName("Test token is parsed once and then served from the cache")
+    void testClaimsCached() {
+        String token = jwtTokenProvider.generateTokenFromUsername("john@example.com", "ROLE_CUSTOMER");
+
+        assertTrue(jwtTokenProvider.validateToken(token));
+        assertEquals("john@example.com", jwtTokenProvider.getUsernameFromToken(token));
+        assertEquals("ROLE_CUSTOMER", jwtTokenProvider.getRolesFromToken(token));
+
+        JwtClaimsCache cache = jwtTokenProvider.getClaimsCache();
+        assertEquals(1, cache.getMisses(), "Only the first lookup should verify the token");
+        assertEquals(2, cache.getHits());
+    }
+
+    // Test 2: Invalid tokens are never cached
+    @Test
+    @DisplayName("Test tampered token is rejected and not cached")
+    void testTamperedTokenRejected() {
+        String token = jwtTokenProvider.generateTokenFromUsername("john@example.com", "ROLE_CUSTOMER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertFalse(jwtTokenProvider.validateToken(tampered));
+        assertEquals(0, jwtTokenProvider.getClaimsCache().size());
+    }
+
+    // Test 3: Bounded size
+    @Test
+    @DisplayName("Test cache keeps at most the configured number of tokens")
+    void testCacheBounded() {
+        for (int i = 0; i < 5; i++) {
+            String token = jwtTokenProvider.generateTokenFromUsername("user" + i + "@example.com", "ROLE_CUSTOMER");
+            assertTrue(jwtTokenProvider.validateToken(token));
+        }
+
+        assertEquals(2, jwtTokenProvider.getClaimsCache().size());
+    }
+
+    // Test 4: Principal from claims
+    @Test
+    @DisplayName("Test principal is built from id and role claims")
+    void testPrincipalFromClaims() {
+        String token = jwtTokenProvider.generateTokenForPerson(person(7L, Role.ADMIN));
+
+        Claims claims = jwtTokenProvider.getValidatedClaims(token).orElseThrow();
+        JwtPrincipal principal = jwtTokenProvider.getPrincipal(claims).orElseThrow();
+
+        assertEquals(7L, principal.getId());
+        assertEquals("admin@example.com", principal.getName());
+        assertTrue(principal.isAdmin());
+    }
+
+    // Test 5: Older tokens
+    @Test
+    @DisplayName("Test token without id claim falls back to a user lookup")
+    void testLegacyTokenHasNoPrincipal() {
+        String token = jwtTokenProvider.generateTokenFromUsername("john@example.com", "ROLE_CUSTOMER");
+
+        Claims claims = jwtTokenProvider.getValidatedClaims(token).orElseThrow();
+
+        assertTrue(jwtTokenProvider.getPrincipal(claims).isEmpty());
+    }
+
+    // Test 6: Revocation
+    @Test
+    @DisplayName("Test revoked token is rejected even though its claims were cached")
+    void testRevokedToken() {
+        String token = jwtTokenProvider.generateTokenForPerson(person(7L, Role.CUSTOMER));
+        assertTrue(jwtTokenProvider.validateToken(token));
+
+        jwtTokenProvider.revokeToken(token);
+
+        assertFalse(jwtTokenProvider.validateToken(token));
+        assertEquals(1, tokenDenyList.size());
+    }
+
+    // Test 7: Role change
+    @Test
+    @DisplayName("Test token issued before a role change is rejected and dropped from the cache")
+    void testTokenRejectedAfterRoleChange() {
+        String adminToken = jwtTokenProvider.generateTokenForPerson(person(7L, Role.ADMIN));
+        String otherToken = jwtTokenProvider.generateTokenForPerson(person(8L, Role.CUSTOMER));
+        assertTrue(jwtTokenProvider.validateToken(adminToken));
+        assertTrue(jwtTokenProvider.validateToken(otherToken));
+
+        // What PersonService does when the admin is demoted
+        jwtTokenProvider.revokeUserTokens(7L);
+
+        assertEquals(1, jwtTokenProvider.getClaimsCache().size(), "Only the changed user's claims should be dropped");
+        assertTrue(jwtTokenProvider.getValidatedClaims(adminToken).isEmpty(),
+                "The old token must not keep its ADMIN role");
+        assertTrue(jwtTokenProvider.validateToken(otherToken));
+        assertTrue(tokenDenyList.isRevoked(7L, new Date(System.currentTimeMillis() - 1000)));
+        assertFalse(tokenDenyList.isRevoked(7L, new Date(System.currentTimeMillis() + 2000)),
+                "Tokens issued after the change should be accepted");
+    }
+
+    private Person person(Long id, Role role) {
+        Person person = new Person();
+        person.setId(id);
+        person.setEmail(role == Role.ADMIN ? "admin@example.com" : "john@example.com");
+        person.setRole(role);
+        return person;
+    }
+}
@@ -0,0 +1,103 @@
+package com.luggagestorage.repository;
+
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.dto.BookingResponse;
+import com.luggagestorage.model.enums.BookingStatus;
+import com.luggagestorage.model.enums.Role;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query-count tests for the BookingRepository listing projections.
+ * Each listing must be served by a single SQL statement, however many bookings it returns.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class BookingRepositoryQueryCountTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            Person customer = entityManager.persist(new Person("customer" + i + "@example.com", "hash",
+                    "Customer", "No" + i, Role.CUSTOMER));
+            Locker locker = entityManager.persist(new Locker("Q-" + i, Size.SMALL, Status.OCCUPIED, 5.0,
+                    "Central Station", "Main Street 1", 44.43, 26.10, "0", "A"));
+            entityManager.persist(new Booking(customer, locker, start, start.plusHours(i + 1)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    // Test 1: Full listing
+    @Test
+    @DisplayName("Test listing all bookings runs one statement")
+    void testFindResponsesSingleStatement() {
+        List<BookingResponse> responses = bookingRepository.findResponses(null, null, null);
+
+        assertEquals(5, responses.size());
+        assertEquals("Customer No0", responses.get(0).getCustomerName());
+        assertEquals(1L, responses.get(0).getDurationInHours());
+        assertEquals(1, statistics.getPrepareStatementCount(), "Listing should not load customers or lockers lazily");
+    }
+
+    // Test 2: Filtered keyset page
+    @Test
+    @DisplayName("Test keyset page runs one statement")
+    void testFindResponsePageSingleStatement() {
+        List<BookingResponse> firstPage = bookingRepository.findResponsePage(0L, BookingStatus.ACTIVE, null, null,
+                PageRequest.of(0, 2));
+        assertEquals(2, firstPage.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        List<BookingResponse> nextPage = bookingRepository.findResponsePage(firstPage.get(1).getId(),
+                BookingStatus.ACTIVE, null, null, PageRequest.of(0, 2));
+        assertTrue(nextPage.get(0).getId() > firstPage.get(1).getId(), "Next page should continue after the cursor");
+    }
+
+    // Test 3: Streamed export
+    @Test
+    @DisplayName("Test streamed listing runs one statement")
+    void testStreamResponsesSingleStatement() {
+        List<BookingResponse> responses;
+        try (Stream<BookingResponse> stream = bookingRepository.streamResponses(null)) {
+            responses = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(5, responses.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,70 @@
+package com.luggagestorage.repository;
+
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Locking tests for the LockerRepository reservation lookups.
+ * The forced version increment only runs when the transaction commits, so each step commits its own transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class LockerRepositoryLockTest {
+
+    @Autowired
+    private LockerRepository lockerRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        if (!TestTransaction.isActive()) {
+            TestTransaction.start();
+        }
+        lockerRepository.deleteAll();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
+    // Test 1: Batch reservation bumps every version
+    @Test
+    @DisplayName("Test batch reservation lookup bumps the version of an already occupied locker")
+    void testFindAllByIdForReservationBumpsVersion() {
+        Locker occupied = entityManager.persist(new Locker("V-1", Size.SMALL, Status.OCCUPIED, 5.0));
+        Locker available = entityManager.persist(new Locker("V-2", Size.SMALL, Status.AVAILABLE, 5.0));
+        commit();
+        long occupiedVersion = occupied.getVersion();
+        long availableVersion = available.getVersion();
+
+        List<Locker> lockers = lockerRepository.findAllByIdForReservation(
+                Arrays.asList(occupied.getId(), available.getId()));
+        assertEquals(2, lockers.size());
+        commit();
+
+        assertEquals(occupiedVersion + 1, lockerRepository.findById(occupied.getId()).orElseThrow().getVersion(),
+                "A locker that stays OCCUPIED must still get a new version so concurrent reservations conflict");
+        assertEquals(availableVersion + 1, lockerRepository.findById(available.getId()).orElseThrow().getVersion());
+    }
+
+    private void commit() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+    }
+}
@@ -0,0 +1,143 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.exception.InvalidBookingTimeException;
+import com.luggagestorage.exception.LockerNotAvailableException;
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.dto.AutoBookingRequest;
+import com.luggagestorage.model.enums.AssignmentPreference;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BookingAssignmentService.
+ * Tests candidate ranking over lockers free for the requested period and moving on to the next locker when one is taken concurrently.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookingAssignmentServiceTest {
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private LockerService lockerService;
+
+    @Mock
+    private LockerAvailabilityBitmap availabilityBitmap;
+
+    private BookingAssignmentService assignmentService;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Locker cheap;
+    private Locker expensive;
+    private Locker mid;
+
+    @BeforeEach
+    void setUp() {
+        assignmentService = new BookingAssignmentService(bookingService, lockerService, availabilityBitmap, 2);
+        start = LocalDateTime.now().plusDays(1);
+        end = start.plusHours(3);
+
+        cheap = locker(1L, 4.0, 44.40, 26.10);
+        expensive = locker(2L, 9.0, 44.4268, 26.1025);
+        mid = locker(3L, 6.0, 44.43, 26.11);
+    }
+
+    private static Locker locker(Long id, double rate, double latitude, double longitude) {
+        Locker locker = new Locker("A" + id, Size.MEDIUM, Status.AVAILABLE, rate,
+                "Central Station", "Main Street 1", latitude, longitude, "0", "A");
+        locker.setId(id);
+        return locker;
+    }
+
+    private static List<Long> ids(List<Locker> lockers) {
+        return lockers.stream().map(Locker::getId).collect(Collectors.toList());
+    }
+
+    // Test 1: Cheapest ranking with fragmentation tie-break
+    @Test
+    @DisplayName("Test cheapest ranking prefers the tighter fit between equally priced lockers")
+    void testCheapestRanking() {
+        // Occupied by a booking that ends shortly before the requested window
+        Locker sameRate = locker(4L, 4.0, 44.41, 26.10);
+        sameRate.setStatus(Status.OCCUPIED);
+        AutoBookingRequest request = new AutoBookingRequest(Size.MEDIUM, null, start, end);
+        when(lockerService.getFreeLockers(start, end, Size.MEDIUM, null))
+                .thenReturn(Arrays.asList(expensive, cheap, mid, sameRate));
+        when(availabilityBitmap.adjacentGapMinutes(anyLong(), eq(start), eq(end))).thenReturn(1000L);
+        when(availabilityBitmap.adjacentGapMinutes(4L, start, end)).thenReturn(30L);
+
+        assertEquals(Arrays.asList(4L, 1L, 3L, 2L), ids(assignmentService.rankCandidates(request)));
+    }
+
+    // Test 2: Nearest ranking
+    @Test
+    @DisplayName("Test coordinates rank candidates by distance")
+    void testNearestRanking() {
+        AutoBookingRequest request = new AutoBookingRequest(Size.MEDIUM, null, start, end);
+        request.setLatitude(44.4268);
+        request.setLongitude(26.1025);
+        when(lockerService.getNearbyFreeLockers(44.4268, 26.1025, 5.0, Size.MEDIUM, start, end))
+                .thenReturn(Arrays.asList(cheap, mid, expensive));
+
+        assertEquals(Arrays.asList(2L, 3L, 1L), ids(assignmentService.rankCandidates(request)));
+
+        request.setPreference(AssignmentPreference.CHEAPEST);
+        assertEquals(Arrays.asList(1L, 3L, 2L), ids(assignmentService.rankCandidates(request)));
+    }
+
+    // Test 3: Contention moves to the next candidate
+    @Test
+    @DisplayName("Test a locker taken concurrently is skipped for the next candidate")
+    void testRetryOnContention() {
+        Booking booking = new Booking();
+        AutoBookingRequest request = new AutoBookingRequest(Size.MEDIUM, null, start, end);
+        when(lockerService.getFreeLockers(start, end, Size.MEDIUM, null)).thenReturn(Arrays.asList(cheap, mid));
+        when(bookingService.createBooking(7L, 1L, start, end))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Locker.class, 1L));
+        when(bookingService.createBooking(7L, 3L, start, end)).thenReturn(booking);
+
+        assertSame(booking, assignmentService.assignAndBook(7L, request));
+        verify(bookingService, times(2)).createBooking(eq(7L), anyLong(), eq(start), eq(end));
+    }
+
+    // Test 4: Attempts are bounded
+    @Test
+    @DisplayName("Test assignment gives up after the configured number of attempts")
+    void testMaxAttempts() {
+        AutoBookingRequest request = new AutoBookingRequest(Size.MEDIUM, null, start, end);
+        when(lockerService.getFreeLockers(start, end, Size.MEDIUM, null))
+                .thenReturn(Arrays.asList(cheap, mid, expensive));
+        when(bookingService.createBooking(eq(7L), anyLong(), eq(start), eq(end)))
+                .thenThrow(new LockerNotAvailableException("taken"));
+
+        assertThrows(LockerNotAvailableException.class, () -> assignmentService.assignAndBook(7L, request));
+        verify(bookingService, times(2)).createBooking(eq(7L), anyLong(), eq(start), eq(end));
+    }
+
+    // Test 5: Invalid window
+    @Test
+    @DisplayName("Test an inverted time window is rejected before searching")
+    void testInvalidWindow() {
+        AutoBookingRequest request = new AutoBookingRequest(Size.MEDIUM, null, end, start);
+
+        assertThrows(InvalidBookingTimeException.class, () -> assignmentService.assignAndBook(7L, request));
+        verifyNoInteractions(lockerService, bookingService);
+    }
+}
@@ -0,0 +1,124 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.dto.BookingEvent;
+import com.luggagestorage.model.dto.LockerAvailabilityEvent;
+import com.luggagestorage.model.enums.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BookingEventBroadcaster.
+ * Tests windowed batching, locker coalescing and immediate sends with a zero window.
+ */
+class BookingEventBroadcasterTest {
+
+    private final List<Message<?>> sent = new ArrayList<>();
+    private SimpleMeterRegistry registry;
+    private SimpMessagingTemplate messagingTemplate;
+    private BookingEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        MessageChannel channel = (message, timeout) -> sent.add(message);
+        messagingTemplate = new SimpMessagingTemplate(channel);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.stop();
+        }
+    }
+
+    // Test 1: One frame per topic and window
+    @Test
+    @DisplayName("Test events within a window are sent as one array frame per topic")
+    void testBatchesEventsPerTopic() {
+        broadcaster = broadcaster(60000);
+
+        broadcaster.publishBookingEvent(bookingEvent(1L, "CREATED"));
+        broadcaster.publishBookingEvent(bookingEvent(2L, "CREATED"));
+        broadcaster.publishLockerEvent(lockerEvent(10L, Status.OCCUPIED));
+        assertTrue(sent.isEmpty(), "Nothing should be sent before the window closes");
+
+        broadcaster.flush();
+
+        assertEquals(2, sent.size());
+        assertEquals(BookingEventBroadcaster.BOOKINGS_TOPIC, destination(sent.get(0)));
+        assertEquals(2, ((List<?>) sent.get(0).getPayload()).size());
+        assertEquals(BookingEventBroadcaster.LOCKERS_TOPIC, destination(sent.get(1)));
+        assertEquals(1, ((List<?>) sent.get(1).getPayload()).size());
+
+        broadcaster.flush();
+        assertEquals(2, sent.size(), "An empty window should not send anything");
+    }
+
+    // Test 2: Locker updates collapse to the latest state
+    @Test
+    @DisplayName("Test several updates of one locker within a window keep only the latest state")
+    void testCoalescesLockerUpdates() {
+        broadcaster = broadcaster(60000);
+
+        broadcaster.publish(new ArrayList<>(), Arrays.asList(lockerEvent(10L, Status.OCCUPIED),
+                lockerEvent(11L, Status.OCCUPIED)));
+        broadcaster.publishLockerEvent(lockerEvent(10L, Status.AVAILABLE));
+        broadcaster.flush();
+
+        assertEquals(1, sent.size());
+        List<?> lockers = (List<?>) sent.get(0).getPayload();
+        assertEquals(2, lockers.size());
+        LockerAvailabilityEvent first = (LockerAvailabilityEvent) lockers.get(0);
+        assertEquals(10L, first.getLockerId());
+        assertEquals(Status.AVAILABLE, first.getStatus(), "The latest state of the locker should be sent");
+        assertEquals(1.0, registry.get(BookingMetrics.BROADCAST_COALESCED).counter().count());
+    }
+
+    // Test 3: Zero window
+    @Test
+    @DisplayName("Test a zero window sends every commit straight away")
+    void testZeroWindowSendsImmediately() {
+        broadcaster = broadcaster(0);
+
+        broadcaster.publishBookingEvent(bookingEvent(1L, "CANCELLED"));
+        broadcaster.publishLockerEvent(lockerEvent(10L, Status.AVAILABLE));
+
+        assertEquals(2, sent.size());
+        assertEquals(BookingEventBroadcaster.BOOKINGS_TOPIC, destination(sent.get(0)));
+        assertEquals(BookingEventBroadcaster.LOCKERS_TOPIC, destination(sent.get(1)));
+    }
+
+    private BookingEventBroadcaster broadcaster(long windowMs) {
+        BookingEventBroadcaster started = new BookingEventBroadcaster(messagingTemplate, new BookingMetrics(registry), windowMs);
+        started.start();
+        return started;
+    }
+
+    private static String destination(Message<?> message) {
+        return SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+    }
+
+    private static BookingEvent bookingEvent(Long bookingId, String eventType) {
+        BookingEvent event = new BookingEvent();
+        event.setBookingId(bookingId);
+        event.setEventType(eventType);
+        return event;
+    }
+
+    private static LockerAvailabilityEvent lockerEvent(Long lockerId, Status status) {
+        return new LockerAvailabilityEvent(lockerId, "L" + lockerId, status, "MEDIUM", "Locker updated");
+    }
+}
@@ -0,0 +1,95 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.enums.Role;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BookingExpiryQueue.
+ * Tests that bookings are released in end-time order and that rescheduling and cancelling keep the queue consistent.
+ */
+class BookingExpiryQueueTest {
+
+    private BookingExpiryQueue queue;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        queue = new BookingExpiryQueue();
+        base = LocalDateTime.of(2030, 1, 1, 10, 0);
+    }
+
+    // Test 1: Only due bookings are polled
+    @Test
+    @DisplayName("Test pollExpired returns bookings ending at or before now in end-time order")
+    void testPollExpired() {
+        queue.schedule(1L, base.plusMinutes(10));
+        queue.schedule(2L, base);
+        queue.schedule(3L, base.plusHours(1));
+
+        assertTrue(queue.pollExpired(base.minusSeconds(1)).isEmpty(), "Nothing should be due yet");
+        assertEquals(Arrays.asList(2L, 1L), queue.pollExpired(base.plusMinutes(10)));
+        assertEquals(1, queue.size(), "Polled bookings should be removed");
+        assertEquals(base.plusHours(1), queue.nextExpiry().orElse(null));
+    }
+
+    // Test 2: Clock jumping forward
+    @Test
+    @DisplayName("Test a clock jump forward releases everything that became due")
+    void testClockJumpForward() {
+        queue.schedule(1L, base);
+        queue.schedule(2L, base.plusDays(1));
+
+        List<Long> expired = queue.pollExpired(base.plusDays(2));
+
+        assertEquals(Arrays.asList(1L, 2L), expired);
+        assertEquals(0, queue.size(), "Queue should be empty");
+    }
+
+    // Test 3: Rescheduling and cancelling
+    @Test
+    @DisplayName("Test rescheduled and cancelled bookings are not released at the old time")
+    void testRescheduleAndCancel() {
+        queue.schedule(1L, base);
+        queue.schedule(2L, base);
+
+        queue.schedule(1L, base.plusHours(2));
+        queue.cancel(2L);
+
+        assertTrue(queue.pollExpired(base.plusHours(1)).isEmpty(), "Old end times should not fire");
+        assertFalse(queue.contains(2L), "Cancelled booking should be gone");
+        assertEquals(Arrays.asList(1L), queue.pollExpired(base.plusHours(2)));
+    }
+
+    // Test 4: Rebuild only keeps active bookings
+    @Test
+    @DisplayName("Test rebuild only queues active bookings")
+    void testRebuildSkipsInactiveBookings() {
+        Person customer = new Person("test@example.com", "hashedPass", "Test", "Customer", Role.CUSTOMER);
+        Locker locker = new Locker("L001", Size.MEDIUM, Status.AVAILABLE, 5.0);
+        locker.setId(10L);
+
+        Booking active = new Booking(customer, locker, base, base.plusHours(2));
+        active.setId(1L);
+        Booking completed = new Booking(customer, locker, base, base.plusHours(1));
+        completed.setId(2L);
+        completed.complete();
+
+        queue.rebuild(Arrays.asList(active, completed));
+
+        assertTrue(queue.contains(1L), "Active booking should be queued");
+        assertFalse(queue.contains(2L), "Completed booking should not be queued");
+    }
+}
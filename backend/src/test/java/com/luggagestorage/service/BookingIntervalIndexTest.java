@@ -0,0 +1,105 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.enums.Role;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BookingIntervalIndex.
+ * Tests overlap detection per locker and keeping the index in sync with booking changes.
+ */
+class BookingIntervalIndexTest {
+
+    private BookingIntervalIndex index;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex();
+        base = LocalDateTime.of(2030, 1, 1, 10, 0);
+    }
+
+    // Test 1: Overlapping and touching intervals
+    @Test
+    @DisplayName("Test overlap is detected while back-to-back bookings are allowed")
+    void testOverlapDetection() {
+        index.put(1L, 10L, base, base.plusHours(2));
+
+        assertTrue(index.hasOverlap(10L, base.plusHours(1), base.plusHours(3)), "Partial overlap should be detected");
+        assertTrue(index.hasOverlap(10L, base.minusHours(1), base.plusHours(5)), "Enclosing range should be detected");
+        assertFalse(index.hasOverlap(10L, base.plusHours(2), base.plusHours(3)), "Booking starting at end should not overlap");
+        assertFalse(index.hasOverlap(10L, base.minusHours(1), base), "Booking ending at start should not overlap");
+        assertFalse(index.hasOverlap(11L, base, base.plusHours(2)), "Other lockers should not be affected");
+    }
+
+    // Test 2: Long bookings starting well before the requested range
+    @Test
+    @DisplayName("Test long booking that started earlier is still found")
+    void testLongBookingOverlap() {
+        index.put(1L, 10L, base.minusDays(3), base.plusDays(3));
+        index.put(2L, 10L, base.plusDays(4), base.plusDays(4).plusHours(1));
+
+        assertTrue(index.hasOverlap(10L, base, base.plusHours(1)), "Multi-day booking should block the range");
+        assertEquals(Arrays.asList(1L), index.findOverlappingBookingIds(10L, base, base.plusHours(1)));
+    }
+
+    // Test 3: Excluding the booking being updated
+    @Test
+    @DisplayName("Test excluded booking id is ignored when checking overlaps")
+    void testExcludedBooking() {
+        index.put(1L, 10L, base, base.plusHours(2));
+
+        assertFalse(index.hasOverlap(10L, base, base.plusHours(3), 1L), "Booking should not conflict with itself");
+        assertTrue(index.hasOverlap(10L, base, base.plusHours(3), 2L), "Other bookings should still conflict");
+    }
+
+    // Test 4: Removing and replacing intervals
+    @Test
+    @DisplayName("Test remove and re-put keep the index consistent")
+    void testRemoveAndUpdate() {
+        index.put(1L, 10L, base, base.plusHours(2));
+        index.put(1L, 10L, base.plusHours(5), base.plusHours(6));
+
+        assertFalse(index.hasOverlap(10L, base, base.plusHours(2)), "Old interval should be replaced");
+        assertTrue(index.hasOverlap(10L, base.plusHours(5), base.plusHours(6)), "New interval should be indexed");
+
+        index.remove(1L);
+
+        assertFalse(index.hasOverlap(10L, base.plusHours(5), base.plusHours(6)), "Removed interval should be gone");
+        assertEquals(0, index.size(), "Index should be empty");
+    }
+
+    // Test 5: Rebuild from active bookings only
+    @Test
+    @DisplayName("Test rebuild only keeps active bookings")
+    void testRebuildSkipsInactiveBookings() {
+        Person customer = new Person("test@example.com", "hashedPass", "Test", "Customer", Role.CUSTOMER);
+        Locker locker = new Locker("L001", Size.MEDIUM, Status.AVAILABLE, 5.0);
+        locker.setId(10L);
+
+        Booking active = new Booking(customer, locker, base, base.plusHours(2));
+        active.setId(1L);
+        Booking cancelled = new Booking(customer, locker, base.plusHours(3), base.plusHours(4));
+        cancelled.setId(2L);
+        cancelled.cancel();
+
+        List<Booking> bookings = Arrays.asList(active, cancelled);
+        index.rebuild(bookings);
+
+        assertTrue(index.contains(1L), "Active booking should be indexed");
+        assertFalse(index.contains(2L), "Cancelled booking should not be indexed");
+        assertFalse(index.hasOverlap(10L, base.plusHours(3), base.plusHours(4)), "Cancelled slot should be free");
+    }
+}
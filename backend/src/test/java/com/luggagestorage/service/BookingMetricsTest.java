@@ -0,0 +1,105 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.exception.LockerNotAvailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BookingMetrics.
+ * Tests booking outcome tags, expiry batches and STOMP broadcast fan-out.
+ */
+class BookingMetricsTest {
+
+    private MeterRegistry registry;
+    private BookingMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new BookingMetrics(registry);
+    }
+
+    // Test 1: Outcome tags
+    @Test
+    @DisplayName("Test booking operations are tagged with their outcome")
+    void testBookingOperationOutcomes() {
+        metrics.bookingOperation("create", TimeUnit.MILLISECONDS.toNanos(3), null);
+        metrics.bookingOperation("create", TimeUnit.MILLISECONDS.toNanos(1),
+                new LockerNotAvailableException("Locker is taken"));
+        metrics.bookingOperation("cancel", TimeUnit.MILLISECONDS.toNanos(2), new IllegalStateException());
+
+        assertEquals(1, registry.get(BookingMetrics.OPERATIONS)
+                .tags("operation", "create", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(BookingMetrics.OPERATIONS)
+                .tags("operation", "create", "outcome", "conflict").timer().count());
+        assertEquals(1, registry.get(BookingMetrics.OPERATIONS)
+                .tags("operation", "cancel", "outcome", "error").timer().count());
+    }
+
+    // Test 2: Expiry batches
+    @Test
+    @DisplayName("Test expiry batches record their size and clamp a negative lag to zero")
+    void testExpiryBatch() {
+        metrics.expiryBatch(4, Duration.ofSeconds(2));
+        metrics.expiryBatch(0, Duration.ofSeconds(-1));
+
+        assertEquals(2, registry.get(BookingMetrics.EXPIRY_BATCH).summary().count());
+        assertEquals(4.0, registry.get(BookingMetrics.EXPIRY_BATCH).summary().totalAmount());
+        assertEquals(2000.0, registry.get(BookingMetrics.EXPIRY_LAG).timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    // Test 3: Broadcast fan-out
+    @Test
+    @DisplayName("Test broadcast deliveries follow the subscriptions of each destination")
+    void testBroadcastFanOut() {
+        metrics.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "s1", "sub-0", "/topic/bookings")));
+        metrics.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "s2", "sub-0", "/topic/bookings")));
+        metrics.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "s2", "sub-1", "/topic/lockers")));
+        metrics.onSubscribe(new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, "s3", "sub-0", "/user/queue/errors")));
+
+        metrics.broadcast("/topic/bookings", 3);
+        assertEquals(6.0, registry.get(BookingMetrics.BROADCAST_DELIVERIES)
+                .tag("destination", "/topic/bookings").counter().count());
+        assertEquals(2.0, registry.get(BookingMetrics.SUBSCRIPTIONS)
+                .tag("destination", "/topic/bookings").gauge().value());
+        assertNull(registry.find(BookingMetrics.SUBSCRIPTIONS).tag("destination", "/user/queue/errors").gauge());
+
+        metrics.onUnsubscribe(new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, "s1", "sub-0", null)));
+        metrics.onDisconnect(new SessionDisconnectEvent(this, frame(StompCommand.DISCONNECT, "s2", null, null),
+                "s2", CloseStatus.NORMAL));
+
+        assertEquals(0.0, registry.get(BookingMetrics.SUBSCRIPTIONS)
+                .tag("destination", "/topic/bookings").gauge().value());
+        assertEquals(0.0, registry.get(BookingMetrics.SUBSCRIPTIONS)
+                .tag("destination", "/topic/lockers").gauge().value());
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId,
+                                         String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(command);
+        headers.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            headers.setSubscriptionId(subscriptionId);
+        }
+        if (destination != null) {
+            headers.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+}
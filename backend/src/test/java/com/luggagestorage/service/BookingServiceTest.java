@@ -6,12 +6,14 @@ import com.luggagestorage.exception.ResourceNotFoundException;
 import com.luggagestorage.model.Booking;
 import com.luggagestorage.model.Locker;
 import com.luggagestorage.model.Person;
+import com.luggagestorage.model.dto.BookingRequest;
 import com.luggagestorage.model.enums.BookingStatus;
 import com.luggagestorage.model.enums.Role;
 import com.luggagestorage.model.enums.Size;
 import com.luggagestorage.model.enums.Status;
 import com.luggagestorage.repository.BookingRepository;
 import com.luggagestorage.repository.LockerRepository;
+import com.luggagestorage.socket.SocketSubscriptionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,12 +21,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -53,7 +56,28 @@ class BookingServiceTest {
     private FileStorageService fileStorageService;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private BookingEventBroadcaster eventBroadcaster;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private LockerReservationLocks lockerReservationLocks;
+
+    @Mock
+    private BookingExpiryQueue bookingExpiryQueue;
+
+    @Mock
+    private SocketSubscriptionRegistry socketSubscriptions;
+
+    @Mock
+    private LockerStatistics lockerStatistics;
+
+    @Mock
+    private LockerAvailabilityBitmap availabilityBitmap;
+
+    @Mock
+    private BookingMetrics bookingMetrics;
 
     @InjectMocks
     private BookingService bookingService;
@@ -221,6 +245,8 @@ class BookingServiceTest {
         // Verify
         verify(bookingRepository, times(1)).findById(1L);
         verify(bookingRepository, times(1)).delete(testBooking);
+        verify(bookingIntervalIndex, times(1)).remove(1L);
+        verify(bookingExpiryQueue, times(1)).cancel(1L);
     }
 
     // Test 8: Functional test - Delete booking (not found)
@@ -239,7 +265,27 @@ class BookingServiceTest {
         verify(bookingRepository, never()).delete(any(Booking.class));
     }
 
-    // Test 9: Business logic test - Booking price calculation
+    // Test 9: Functional test - Overlap reported by the interval index and confirmed by the database
+    @Test
+    @DisplayName("Test createBooking rejects an index overlap once the database confirms it")
+    void testCreateBooking_OverlapInIndex() {
+        Booking existing = new Booking(testCustomer, testLocker, futureStart, futureEnd);
+        existing.setId(5L);
+        when(personService.getPersonById(1L)).thenReturn(testCustomer);
+        when(lockerRepository.findByIdForReservation(1L)).thenReturn(Optional.of(testLocker));
+        when(bookingIntervalIndex.hasOverlap(1L, futureStart, futureEnd, null)).thenReturn(true);
+        when(bookingRepository.findOverlappingBookings(1L, futureStart, futureEnd))
+                .thenReturn(new ArrayList<>(Arrays.asList(existing)));
+
+        assertThrows(LockerNotAvailableException.class, () -> {
+            bookingService.createBooking(1L, 1L, futureStart, futureEnd);
+        }, "Should throw LockerNotAvailableException when the index reports an overlap");
+
+        verify(bookingIntervalIndex, never()).remove(anyLong());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    // Test 10: Business logic test - Booking price calculation
     @Test
     @DisplayName("Test booking price is calculated correctly on creation")
     void testBookingPriceCalculation() {
@@ -252,7 +298,7 @@ class BookingServiceTest {
                 "Price should be calculated as duration × hourly rate");
     }
 
-    // Test 10: Business logic test - Booking status transitions
+    // Test 11: Business logic test - Booking status transitions
     @Test
     @DisplayName("Test booking status can transition from ACTIVE to CANCELLED")
     void testBookingStatusTransition_ActiveToCancelled() {
@@ -271,7 +317,7 @@ class BookingServiceTest {
         assertTrue(booking.isCancelled(), "Booking should be cancelled");
     }
 
-    // Test 11: Business logic test - Booking completion
+    // Test 12: Business logic test - Booking completion
     @Test
     @DisplayName("Test booking status can transition from ACTIVE to COMPLETED")
     void testBookingStatusTransition_ActiveToCompleted() {
@@ -289,7 +335,7 @@ class BookingServiceTest {
         assertTrue(booking.isCompleted(), "Booking should be completed");
     }
 
-    // Test 12: Integration test - Booking with customer and locker relationships
+    // Test 13: Integration test - Booking with customer and locker relationships
     @Test
     @DisplayName("Test booking maintains relationships with customer and locker")
     void testBookingRelationships() {
@@ -303,4 +349,107 @@ class BookingServiceTest {
         assertEquals(testCustomer.getId(), booking.getCustomer().getId(), "Customer ID should match");
         assertEquals(testLocker.getId(), booking.getLocker().getId(), "Locker ID should match");
     }
+
+    // Test 14: Bulk completion of expired bookings
+    @Test
+    @DisplayName("Test completeExpiredBookings uses set-based updates and one batched message per topic")
+    void testCompleteExpiredBookings() {
+        Booking booking1 = new Booking(testCustomer, testLocker, futureStart, futureEnd);
+        booking1.setId(1L);
+        Booking booking2 = new Booking(testCustomer, testLocker, futureStart, futureEnd);
+        booking2.setId(2L);
+
+        when(bookingRepository.findExpiredActiveBookingsByIds(any(), any(LocalDateTime.class)))
+                .thenReturn(Arrays.asList(booking1, booking2));
+        when(bookingRepository.completeActiveBookings(any())).thenReturn(2);
+
+        List<Long> completed = bookingService.completeExpiredBookings(Arrays.asList(1L, 2L, 3L));
+
+        assertEquals(Arrays.asList(1L, 2L), completed, "Only bookings that were found should be completed");
+        verify(lockerService, times(1)).updateLockerStatuses(Set.of(1L), Status.AVAILABLE);
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(eventBroadcaster, times(1)).publish(anyList(), anyList());
+        verify(bookingExpiryQueue, times(1)).cancel(2L);
+    }
+
+    // Test 15: Batch booking creates every booking in one go
+    @Test
+    @DisplayName("Test createBookings saves the whole batch and occupies each locker once")
+    void testCreateBookings() {
+        Locker secondLocker = new Locker("L002", Size.SMALL, Status.AVAILABLE, 3.0);
+        secondLocker.setId(2L);
+        List<BookingRequest> requests = Arrays.asList(
+                new BookingRequest(1L, futureStart, futureEnd),
+                new BookingRequest(2L, futureStart, futureEnd),
+                new BookingRequest(1L, futureEnd, futureEnd.plusHours(1)));
+
+        when(personService.getPersonById(1L)).thenReturn(testCustomer);
+        when(lockerRepository.findAllByIdForReservation(anyCollection())).thenReturn(Arrays.asList(testLocker, secondLocker));
+        when(bookingRepository.findOverlappingBookingsForLockers(anyCollection(), any(), any()))
+                .thenReturn(Arrays.asList());
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Booking> result = bookingService.createBookings(1L, requests);
+
+        assertEquals(3, result.size(), "Every request should become a booking");
+        assertTrue(result.stream().allMatch(Booking::isActive), "Batch bookings should be active");
+        verify(lockerReservationLocks, times(1)).lockAllUntilTransactionCompletes(anyCollection());
+        verify(lockerService, times(1)).occupyLockers(argThat(lockers -> lockers.size() == 2));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    // Test 16: Batch booking is all-or-nothing
+    @Test
+    @DisplayName("Test createBookings rejects the whole batch when one locker is taken")
+    void testCreateBookings_Conflict() {
+        List<BookingRequest> requests = Arrays.asList(
+                new BookingRequest(1L, futureStart, futureEnd),
+                new BookingRequest(1L, futureStart.plusHours(1), futureEnd.plusHours(1)));
+
+        assertThrows(LockerNotAvailableException.class, () -> bookingService.createBookings(1L, requests),
+                "Overlapping requests for the same locker should fail the batch");
+
+        Booking existing = new Booking(testCustomer, testLocker, futureStart, futureEnd);
+        when(personService.getPersonById(1L)).thenReturn(testCustomer);
+        when(lockerRepository.findAllByIdForReservation(anyCollection())).thenReturn(Arrays.asList(testLocker));
+        when(bookingRepository.findOverlappingBookingsForLockers(anyCollection(), any(), any()))
+                .thenReturn(Arrays.asList(existing));
+
+        assertThrows(LockerNotAvailableException.class, () -> bookingService.createBookings(1L,
+                Arrays.asList(new BookingRequest(1L, futureStart.plusHours(1), futureEnd))));
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
+    // Test 17: Deleting a customer frees their slots
+    @Test
+    @DisplayName("Test a slot held by a deleted customer's booking can be booked again")
+    void testRebookAfterCustomerDeleted() {
+        Booking existing = new Booking(testCustomer, testLocker, futureStart, futureEnd);
+        existing.setId(5L);
+        existing.setStatus(BookingStatus.ACTIVE);
+        when(bookingRepository.findByCustomerId(1L)).thenReturn(Arrays.asList(existing));
+
+        bookingService.deleteBookingsOfCustomer(1L);
+
+        verify(bookingRepository, times(1)).delete(existing);
+        verify(lockerService, times(1)).updateLockerStatus(1L, Status.AVAILABLE);
+        verify(bookingIntervalIndex, times(1)).remove(5L);
+        verify(bookingExpiryQueue, times(1)).cancel(5L);
+        verify(availabilityBitmap, times(1)).removeBooking(5L);
+
+        // An instance whose index still holds the booking must not reject the slot on that alone
+        Person other = new Person("other@example.com", "hashedPass", "Other", "Customer", Role.CUSTOMER);
+        other.setId(2L);
+        when(personService.getPersonById(2L)).thenReturn(other);
+        when(lockerRepository.findByIdForReservation(1L)).thenReturn(Optional.of(testLocker));
+        when(bookingIntervalIndex.hasOverlap(1L, futureStart, futureEnd, null)).thenReturn(true);
+        when(bookingIntervalIndex.findOverlappingBookingIds(1L, futureStart, futureEnd)).thenReturn(Arrays.asList(5L));
+        when(bookingRepository.findOverlappingBookings(1L, futureStart, futureEnd)).thenReturn(new ArrayList<>());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Booking rebooked = bookingService.createBooking(2L, 1L, futureStart, futureEnd);
+
+        assertSame(other, rebooked.getCustomer());
+        verify(bookingIntervalIndex, times(2)).remove(5L);
+    }
 }
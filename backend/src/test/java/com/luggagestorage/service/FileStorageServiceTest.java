@@ -0,0 +1,243 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Booking;
+import com.luggagestorage.model.Locker;
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.enums.BookingStatus;
+import com.luggagestorage.model.enums.Role;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FileStorageService.
+ * Tests write-behind coalescing of snapshots, atomic file replacement, the change journal and binary snapshots.
+ */
+class FileStorageServiceTest {
+
+    private FileStorageService fileStorageService;
+    private Path storageDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("file-storage-test");
+
+        fileStorageService = new FileStorageService();
+        ReflectionTestUtils.setField(fileStorageService, "storageEnabled", true);
+        ReflectionTestUtils.setField(fileStorageService, "storagePath", storageDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "writeBehindEnabled", true);
+        ReflectionTestUtils.setField(fileStorageService, "writeBehindIntervalMs", 60000L);
+        fileStorageService.init();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        fileStorageService.stopSnapshotWriter();
+        try (Stream<Path> files = Files.walk(storageDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    // Test 1: Several changes to one dataset produce a single write
+    @Test
+    @DisplayName("Test repeated changes are coalesced into one snapshot")
+    void testChangesAreCoalesced() throws IOException {
+        AtomicInteger snapshotsTaken = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            fileStorageService.markDirty("items.json", () -> {
+                snapshotsTaken.incrementAndGet();
+                return Arrays.asList("a", "b", "c");
+            });
+        }
+
+        assertFalse(Files.exists(storageDir.resolve("items.json")), "Nothing should be written before the flush");
+
+        fileStorageService.flush();
+
+        Map<String, Object> metrics = fileStorageService.getWriteBehindMetrics();
+        assertEquals(1, snapshotsTaken.get(), "Snapshot should be taken once");
+        assertEquals(1L, metrics.get("snapshotsWritten"), "One snapshot should be written");
+        assertEquals(4L, metrics.get("coalescedChanges"), "Four changes should be coalesced");
+        assertEquals(0, metrics.get("pendingSnapshots"), "Nothing should be pending after the flush");
+
+        List<String> loaded = fileStorageService.loadFromFile("items.json", String.class);
+        assertEquals(Arrays.asList("a", "b", "c"), loaded);
+    }
+
+    // Test 2: Failed snapshots stay dirty and are retried
+    @Test
+    @DisplayName("Test failed snapshot is retried on the next flush")
+    void testFailedSnapshotIsRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        fileStorageService.markDirty("items.json", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return Arrays.asList("a");
+        });
+
+        fileStorageService.flush();
+        assertFalse(Files.exists(storageDir.resolve("items.json")), "Failed snapshot should not be written");
+        assertEquals(1, fileStorageService.getWriteBehindMetrics().get("pendingSnapshots"), "Snapshot should stay pending");
+
+        fileStorageService.flush();
+        assertTrue(Files.exists(storageDir.resolve("items.json")), "Snapshot should be written on retry");
+        assertFalse(Files.exists(storageDir.resolve("items.json.tmp")), "Temporary file should be renamed");
+    }
+
+    // Test 3: Journal replays on top of the snapshot
+    @Test
+    @DisplayName("Test loading replays journaled upserts and deletes over the snapshot")
+    void testJournalReplay() throws IOException {
+        enableJournalMode();
+        fileStorageService.saveToFile(Arrays.asList(item(1L, "a"), item(2L, "b")), "items.json");
+
+        fileStorageService.recordUpsert("items.json", 2L, item(2L, "b2"), Collections::emptyList);
+        fileStorageService.recordUpsert("items.json", 3L, item(3L, "c"), Collections::emptyList);
+        fileStorageService.recordDelete("items.json", 1L, Collections::emptyList);
+
+        assertTrue(Files.exists(storageDir.resolve("items.json.journal")), "Changes should go to the journal");
+
+        List<Map> loaded = fileStorageService.loadFromFile("items.json", Map.class);
+        assertEquals(2, loaded.size(), "Deleted item should not be loaded");
+        assertEquals("b2", loaded.get(0).get("name"), "Updated item should have the journaled value");
+        assertEquals("c", loaded.get(1).get("name"), "Created item should be appended");
+    }
+
+    // Test 4: Compaction folds the journal into the snapshot
+    @Test
+    @DisplayName("Test compaction writes the folded snapshot and empties the journal")
+    void testJournalCompaction() throws IOException {
+        enableJournalMode();
+        fileStorageService.recordUpsert("items.json", 1L, item(1L, "a"), Collections::emptyList);
+        fileStorageService.recordUpsert("items.json", 1L, item(1L, "a2"), Collections::emptyList);
+
+        fileStorageService.compactJournal("items.json");
+
+        assertEquals(0L, Files.size(storageDir.resolve("items.json.journal")), "Journal should be truncated");
+        assertEquals(1L, fileStorageService.getWriteBehindMetrics().get("compactions"), "One compaction should run");
+
+        List<Map> loaded = fileStorageService.loadFromFile("items.json", Map.class);
+        assertEquals(1, loaded.size(), "Snapshot should hold one item");
+        assertEquals("a2", loaded.get(0).get("name"), "Snapshot should hold the latest value");
+    }
+
+    // Test 5: Binary snapshots round-trip lockers and bookings
+    @Test
+    @DisplayName("Test binary format saves and loads lockers and bookings")
+    void testBinarySnapshotRoundTrip() throws IOException {
+        ReflectionTestUtils.setField(fileStorageService, "storageFormat", "binary");
+        fileStorageService.registerDataset("lockers.json", Locker.class);
+        fileStorageService.registerDataset("bookings.json", Booking.class);
+
+        Locker locker = new Locker("L001", Size.MEDIUM, Status.OCCUPIED, 5.0);
+        locker.setId(7L);
+        locker.setLocationName("Central Station");
+        Person customer = new Person("test@example.com", "hashedPass", "Test", "Customer", Role.CUSTOMER);
+        customer.setId(3L);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0, 0, 500);
+        Booking booking = new Booking(customer, locker, start, start.plusHours(2));
+        booking.setId(11L);
+        booking.setStatus(BookingStatus.ACTIVE);
+        booking.updateTotalPrice();
+
+        fileStorageService.saveToFile(Arrays.asList(locker), "lockers.json");
+        fileStorageService.saveToFile(Arrays.asList(booking), "bookings.json");
+
+        assertTrue(Files.exists(storageDir.resolve("lockers.bin")), "Lockers should be written as binary");
+        assertFalse(Files.exists(storageDir.resolve("lockers.json")), "No JSON file should be written");
+        assertTrue(fileStorageService.fileExists("bookings.json"), "Binary dataset should be reported as existing");
+
+        Locker loadedLocker = fileStorageService.loadFromFile("lockers.json", Locker.class).get(0);
+        assertEquals("L001", loadedLocker.getLockerNumber());
+        assertEquals(Status.OCCUPIED, loadedLocker.getStatus());
+        assertEquals("Central Station", loadedLocker.getLocationName());
+        assertNull(loadedLocker.getAddress(), "Null fields should stay null");
+
+        Booking loadedBooking = fileStorageService.loadFromFile("bookings.json", Booking.class).get(0);
+        assertEquals(11L, loadedBooking.getId());
+        assertEquals(3L, loadedBooking.getCustomer().getId(), "Customer should be restored by id");
+        assertEquals(7L, loadedBooking.getLocker().getId(), "Locker should be restored by id");
+        assertEquals(start, loadedBooking.getStartDatetime(), "Timestamps should keep nanoseconds");
+        assertEquals(booking.getTotalPrice(), loadedBooking.getTotalPrice());
+    }
+
+    // Test 6: JSON locker snapshots load back despite the derived availability flag
+    @Test
+    @DisplayName("Test JSON format saves and loads lockers")
+    void testJsonLockerSnapshotRoundTrip() throws IOException {
+        Locker locker = new Locker("L001", Size.SMALL, Status.AVAILABLE, 3.5);
+        locker.setId(7L);
+
+        fileStorageService.saveToFile(Arrays.asList(locker), "lockers.json");
+
+        Locker loadedLocker = fileStorageService.loadFromFile("lockers.json", Locker.class).get(0);
+        assertEquals(7L, loadedLocker.getId());
+        assertEquals("L001", loadedLocker.getLockerNumber());
+        assertTrue(loadedLocker.isAvailable());
+    }
+
+    // Test 7: JSON person and booking snapshots load back despite their derived properties
+    @Test
+    @DisplayName("Test JSON format saves and loads persons and bookings")
+    void testJsonPersonAndBookingSnapshotRoundTrip() throws IOException {
+        Locker locker = new Locker("L001", Size.SMALL, Status.OCCUPIED, 3.5);
+        locker.setId(7L);
+        Person customer = new Person("test@example.com", "hashedPass", "Test", "Customer", Role.CUSTOMER);
+        customer.setId(3L);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        Booking booking = new Booking(customer, locker, start, start.plusHours(2));
+        booking.setId(11L);
+        booking.setStatus(BookingStatus.ACTIVE);
+        booking.updateTotalPrice();
+
+        fileStorageService.saveToFile(Arrays.asList(customer), "persons.json");
+        fileStorageService.saveToFile(Arrays.asList(booking), "bookings.json");
+
+        Person loadedCustomer = fileStorageService.loadFromFile("persons.json", Person.class).get(0);
+        assertEquals("Test Customer", loadedCustomer.getFullName());
+        assertTrue(loadedCustomer.isCustomer());
+
+        Booking loadedBooking = fileStorageService.loadFromFile("bookings.json", Booking.class).get(0);
+        assertEquals(11L, loadedBooking.getId());
+        assertEquals(3L, loadedBooking.getCustomer().getId());
+        assertTrue(loadedBooking.isActive());
+        assertEquals(2, loadedBooking.getDurationInHours());
+    }
+
+    private void enableJournalMode() {
+        fileStorageService.stopSnapshotWriter();
+        ReflectionTestUtils.setField(fileStorageService, "storageMode", "journal");
+        ReflectionTestUtils.setField(fileStorageService, "journalCompactThreshold", 1000L);
+        ReflectionTestUtils.setField(fileStorageService, "journalCompactIntervalMs", 60000L);
+        fileStorageService.init();
+    }
+
+    private Map<String, Object> item(Long id, String name) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", id);
+        item.put("name", name);
+        return item;
+    }
+}
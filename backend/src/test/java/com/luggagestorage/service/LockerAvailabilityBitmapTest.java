@@ -0,0 +1,105 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.enums.Size;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LockerAvailabilityBitmap.
+ * Tests slot-level availability, exact checks for shared slots and the rolling horizon.
+ */
+class LockerAvailabilityBitmapTest {
+
+    private LocalDateTime now;
+    private LockerAvailabilityBitmap bitmap;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.of(2030, 1, 1, 9, 0);
+        bitmap = new LockerAvailabilityBitmap(() -> now);
+        bitmap.putLocker(1L, Size.SMALL, "Central Station");
+        bitmap.putLocker(2L, Size.SMALL, "Airport");
+        bitmap.putLocker(3L, Size.LARGE, "Central Station");
+    }
+
+    private Set<Long> free(LocalDateTime start, LocalDateTime end, Size size, String location) {
+        Optional<Set<Long>> free = bitmap.findFreeLockers(start, end, size, location);
+        assertTrue(free.isPresent(), "Range should be inside the horizon");
+        return free.get();
+    }
+
+    private static Set<Long> ids(Long... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+
+    // Test 1: Overlap and back-to-back bookings
+    @Test
+    @DisplayName("Test booked lockers are excluded while back-to-back ranges stay free")
+    void testOverlap() {
+        LocalDateTime start = now.plusDays(1);
+        bitmap.putBooking(10L, 1L, start, start.plusHours(2));
+
+        assertEquals(ids(2L, 3L), free(start.plusHours(1), start.plusHours(3), null, null));
+        assertEquals(ids(1L, 2L, 3L), free(start.plusHours(2), start.plusHours(3), null, null));
+        assertEquals(ids(1L, 2L, 3L), free(start.minusHours(1), start, null, null));
+    }
+
+    // Test 2: Shared slot
+    @Test
+    @DisplayName("Test bookings sharing a slot without overlapping are checked exactly")
+    void testSharedSlot() {
+        LocalDateTime slot = now.plusDays(1);
+        bitmap.putBooking(10L, 1L, slot, slot.plusMinutes(5));
+
+        assertTrue(free(slot.plusMinutes(5), slot.plusMinutes(10), null, null).contains(1L));
+        assertFalse(free(slot.plusMinutes(4), slot.plusMinutes(10), null, null).contains(1L));
+    }
+
+    // Test 3: Removing a booking
+    @Test
+    @DisplayName("Test removing one booking keeps the other booking in the same slot")
+    void testRemoveBooking() {
+        LocalDateTime slot = now.plusDays(1);
+        bitmap.putBooking(10L, 1L, slot, slot.plusMinutes(5));
+        bitmap.putBooking(11L, 1L, slot.plusMinutes(10), slot.plusMinutes(15));
+
+        bitmap.removeBooking(10L);
+        assertTrue(free(slot, slot.plusMinutes(10), null, null).contains(1L));
+        assertFalse(free(slot, slot.plusMinutes(15), null, null).contains(1L));
+        assertEquals(1, bitmap.bookingCount());
+    }
+
+    // Test 4: Size and location filters
+    @Test
+    @DisplayName("Test size and location filters")
+    void testFilters() {
+        LocalDateTime start = now.plusDays(2);
+
+        assertEquals(ids(1L, 2L), free(start, start.plusHours(1), Size.SMALL, null));
+        assertEquals(Collections.singleton(1L), free(start, start.plusHours(1), Size.SMALL, "Central Station"));
+    }
+
+    // Test 5: Horizon
+    @Test
+    @DisplayName("Test ranges outside the horizon fall back and the horizon rolls forward")
+    void testHorizon() {
+        LocalDateTime farStart = now.plusDays(LockerAvailabilityBitmap.HORIZON_DAYS + 5);
+        bitmap.putBooking(10L, 2L, farStart, farStart.plusHours(1));
+
+        assertFalse(bitmap.findFreeLockers(farStart, farStart.plusHours(1), null, null).isPresent());
+        assertFalse(bitmap.findFreeLockers(now.minusDays(1), now, null, null).isPresent());
+
+        now = now.plusDays(10);
+        assertEquals(ids(1L, 3L), free(farStart, farStart.plusHours(1), null, null));
+    }
+}
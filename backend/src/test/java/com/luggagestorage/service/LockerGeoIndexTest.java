@@ -0,0 +1,80 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.enums.Size;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LockerGeoIndex.
+ * Tests radius and k-nearest queries and keeping the index in sync with locker changes.
+ */
+class LockerGeoIndexTest {
+
+    private static final double LAT = 44.4268;
+    private static final double LON = 26.1025;
+
+    private LockerGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LockerGeoIndex();
+        index.put(1L, LAT, LON, Size.SMALL);
+        index.put(2L, LAT + 0.01, LON, Size.MEDIUM);
+        index.put(3L, LAT + 0.05, LON + 0.05, Size.SMALL);
+        index.put(4L, LAT + 1.0, LON, Size.LARGE);
+    }
+
+    private static List<Long> ids(List<LockerGeoIndex.Hit> hits) {
+        return hits.stream().map(LockerGeoIndex.Hit::getLockerId).collect(Collectors.toList());
+    }
+
+    // Test 1: Radius query
+    @Test
+    @DisplayName("Test radius query returns lockers in range sorted by distance")
+    void testWithinRadius() {
+        List<LockerGeoIndex.Hit> hits = index.withinRadius(LAT + 0.012, LON, 10.0, null);
+
+        assertEquals(Arrays.asList(2L, 1L, 3L), ids(hits));
+        assertTrue(hits.get(0).getDistanceKm() < hits.get(1).getDistanceKm());
+        assertEquals(Arrays.asList(1L, 3L), ids(index.withinRadius(LAT, LON, 10.0, Size.SMALL)));
+    }
+
+    // Test 2: K-nearest query
+    @Test
+    @DisplayName("Test k-nearest widens the search until enough lockers are found")
+    void testNearest() {
+        assertEquals(Arrays.asList(1L, 2L), ids(index.nearest(LAT, LON, 2, 500.0, null)));
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L), ids(index.nearest(LAT, LON, 10, 500.0, null)));
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(index.nearest(LAT, LON, 10, 50.0, null)));
+    }
+
+    // Test 3: Updates and removals
+    @Test
+    @DisplayName("Test moving and removing a locker updates query results")
+    void testUpdateAndRemove() {
+        index.put(4L, LAT - 0.001, LON, Size.LARGE);
+        assertTrue(ids(index.withinRadius(LAT, LON, 1.0, null)).contains(4L), "Moved locker should be found");
+
+        index.remove(1L);
+        assertFalse(index.contains(1L));
+        assertEquals(3, index.size());
+        assertFalse(ids(index.withinRadius(LAT, LON, 1.0, null)).contains(1L), "Removed locker should not be found");
+    }
+
+    // Test 4: Antimeridian
+    @Test
+    @DisplayName("Test radius query crosses the 180th meridian")
+    void testAntimeridian() {
+        index.put(10L, 0.0, 179.99, Size.SMALL);
+        index.put(11L, 0.0, -179.99, Size.SMALL);
+
+        assertEquals(Arrays.asList(10L, 11L), ids(index.withinRadius(0.0, 179.995, 5.0, null)));
+    }
+}
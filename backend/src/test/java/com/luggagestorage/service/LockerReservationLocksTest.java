@@ -0,0 +1,138 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.exception.LockerNotAvailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LockerReservationLocks.
+ * Tests that reservation locks are held until the transaction completes and only block the same stripe.
+ */
+class LockerReservationLocksTest {
+
+    private LockerReservationLocks locks;
+
+    @BeforeEach
+    void setUp() {
+        locks = new LockerReservationLocks(64, 100);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Test 1: Lock is released only when the transaction completes
+    @Test
+    @DisplayName("Test reservation lock is held until transaction completion")
+    void testLockHeldUntilCompletion() {
+        locks.lockUntilTransactionCompletes(1L);
+
+        assertTrue(locks.stripeFor(1L).isHeldByCurrentThread(), "Stripe should be held inside the transaction");
+
+        completeTransaction();
+
+        assertFalse(locks.stripeFor(1L).isLocked(), "Stripe should be released after completion");
+    }
+
+    // Test 2: Other lockers are not blocked
+    @Test
+    @DisplayName("Test lockers on different stripes can be reserved concurrently")
+    void testDifferentStripesDoNotBlock() throws Exception {
+        assertNotEquals(locks.stripeIndex(1L), locks.stripeIndex(2L), "Adjacent ids should use different stripes");
+
+        locks.lockUntilTransactionCompletes(1L);
+
+        boolean acquired = CompletableFuture.supplyAsync(() -> {
+            boolean locked = locks.stripeFor(2L).tryLock();
+            if (locked) {
+                locks.stripeFor(2L).unlock();
+            }
+            return locked;
+        }).get(1, TimeUnit.SECONDS);
+
+        assertTrue(acquired, "A different locker should not wait for the held stripe");
+        completeTransaction();
+    }
+
+    // Test 3: Same locker times out with a conflict
+    @Test
+    @DisplayName("Test same locker waits and fails with LockerNotAvailableException on timeout")
+    void testSameLockerTimesOut() throws Exception {
+        locks.lockUntilTransactionCompletes(1L);
+
+        Throwable failure = CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                locks.lockUntilTransactionCompletes(1L);
+                return null;
+            } catch (LockerNotAvailableException e) {
+                return (Throwable) e;
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }).get(2, TimeUnit.SECONDS);
+
+        assertNotNull(failure, "Second reservation of the same locker should time out");
+        completeTransaction();
+    }
+
+    // Test 4: Batch locking
+    @Test
+    @DisplayName("Test batch locking holds every stripe once and releases all on completion")
+    void testLockAllUntilCompletion() {
+        locks.lockAllUntilTransactionCompletes(Arrays.asList(3L, 1L, 2L, 10L));
+
+        for (Long lockerId : Arrays.asList(1L, 2L, 3L, 10L)) {
+            assertTrue(locks.stripeFor(lockerId).isHeldByCurrentThread(), "Stripe of locker " + lockerId + " should be held");
+        }
+        assertEquals(locks.stripeIndex(1L), locks.stripeIndex(10L), "Lockers 1 and 10 should share a stripe");
+        assertEquals(1, locks.stripeFor(1L).getHoldCount(), "A stripe shared by several lockers is taken once");
+
+        completeTransaction();
+
+        for (Long lockerId : Arrays.asList(1L, 2L, 3L, 10L)) {
+            assertFalse(locks.stripeFor(lockerId).isLocked(), "Stripe of locker " + lockerId + " should be released");
+        }
+    }
+
+    // Test 5: Partial batch is rolled back
+    @Test
+    @DisplayName("Test batch locking releases already taken stripes when one times out")
+    void testLockAllReleasesOnTimeout() throws Exception {
+        CompletableFuture<Void> holder = new CompletableFuture<>();
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        CompletableFuture.runAsync(() -> {
+            locks.stripeFor(2L).lock();
+            holder.complete(null);
+            release.join();
+            locks.stripeFor(2L).unlock();
+        });
+        holder.get(1, TimeUnit.SECONDS);
+
+        assertThrows(LockerNotAvailableException.class,
+                () -> locks.lockAllUntilTransactionCompletes(Arrays.asList(1L, 2L)));
+        assertFalse(locks.stripeFor(1L).isHeldByCurrentThread(), "Stripes taken before the timeout should be released");
+        release.complete(null);
+    }
+
+    private void completeTransaction() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
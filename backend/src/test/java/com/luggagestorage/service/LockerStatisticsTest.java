@@ -0,0 +1,103 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.enums.BookingStatus;
+import com.luggagestorage.model.enums.Size;
+import com.luggagestorage.model.enums.Status;
+import com.luggagestorage.repository.BookingRepository;
+import com.luggagestorage.repository.LockerRepository;
+import com.luggagestorage.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LockerStatistics.
+ * Tests incremental counter updates and reconciliation against the repositories.
+ */
+@ExtendWith(MockitoExtension.class)
+class LockerStatisticsTest {
+
+    @Mock
+    private LockerRepository lockerRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PersonRepository personRepository;
+
+    private LockerStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new LockerStatistics(lockerRepository, bookingRepository, personRepository);
+    }
+
+    // Test 1: Incremental locker updates
+    @Test
+    @DisplayName("Test locker changes move counts between status, size and location")
+    void testLockerCounters() {
+        statistics.lockerAdded(Status.AVAILABLE, Size.SMALL, "Central Station");
+        statistics.lockerAdded(Status.AVAILABLE, Size.LARGE, "Airport");
+        statistics.lockerStatusChanged(Status.AVAILABLE, Status.OCCUPIED, 1);
+        statistics.lockerChanged(Status.AVAILABLE, Size.LARGE, "Airport", Status.MAINTENANCE, Size.MEDIUM, "Airport");
+
+        assertEquals(2, statistics.getTotalLockers());
+        assertEquals(0, statistics.getLockerCount(Status.AVAILABLE));
+        assertEquals(1, statistics.getLockerCount(Status.OCCUPIED));
+        assertEquals(1, statistics.getLockerCount(Status.MAINTENANCE));
+        assertEquals(1L, statistics.getLockersBySize().get("MEDIUM"));
+        assertEquals(0L, statistics.getLockersBySize().get("LARGE"));
+
+        statistics.lockerRemoved(Status.OCCUPIED, Size.SMALL, "Central Station");
+        assertEquals(Collections.singletonMap("Airport", 1L), statistics.getLockersByLocation());
+    }
+
+    // Test 2: Booking lifecycle
+    @Test
+    @DisplayName("Test booking lifecycle updates booking counters")
+    void testBookingCounters() {
+        statistics.bookingAdded(BookingStatus.ACTIVE);
+        statistics.bookingAdded(BookingStatus.ACTIVE);
+        statistics.bookingAdded(BookingStatus.ACTIVE);
+        statistics.bookingStatusChanged(BookingStatus.ACTIVE, BookingStatus.COMPLETED, 2);
+        statistics.bookingRemoved(BookingStatus.COMPLETED);
+
+        assertEquals(2, statistics.getTotalBookings());
+        assertEquals(1, statistics.getBookingCount(BookingStatus.ACTIVE));
+        assertEquals(1, statistics.getBookingCount(BookingStatus.COMPLETED));
+    }
+
+    // Test 3: Reconciliation
+    @Test
+    @DisplayName("Test reconcile replaces drifted counters with database counts")
+    void testReconcile() {
+        statistics.lockerAdded(Status.AVAILABLE, Size.SMALL, "Stale");
+        statistics.personAdded();
+
+        when(lockerRepository.countByStatusSizeAndLocation()).thenReturn(Arrays.asList(
+                new Object[]{Status.AVAILABLE, Size.SMALL, "Central Station", 3L},
+                new Object[]{Status.OCCUPIED, Size.SMALL, "Central Station", 2L}));
+        when(bookingRepository.countByStatus()).thenReturn(Collections.singletonList(
+                new Object[]{BookingStatus.ACTIVE, 2L}));
+        when(personRepository.count()).thenReturn(7L);
+
+        statistics.reconcile();
+
+        assertEquals(5, statistics.getTotalLockers());
+        assertEquals(3, statistics.getLockerCount(Status.AVAILABLE));
+        assertEquals(5L, statistics.getLockersBySize().get("SMALL"));
+        assertEquals(Collections.singletonMap("Central Station", 5L), statistics.getLockersByLocation());
+        assertEquals(2, statistics.getBookingCount(BookingStatus.ACTIVE));
+        assertEquals(7, statistics.getTotalPersons());
+    }
+}
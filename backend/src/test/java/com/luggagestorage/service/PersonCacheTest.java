@@ -0,0 +1,111 @@
+package com.luggagestorage.service;
+
+import com.luggagestorage.model.Person;
+import com.luggagestorage.model.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PersonCache.
+ * Tests read-through loading, expiry, size bound and invalidation.
+ */
+class PersonCacheTest {
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Map<Long, Person> table = new HashMap<>();
+
+    private PersonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PersonCache(2, 1000, now::get);
+        table.put(1L, person(1L, "john@example.com"));
+        table.put(2L, person(2L, "jane@example.com"));
+        table.put(3L, person(3L, "admin@example.com"));
+    }
+
+    // Test 1: Read-through
+    @Test
+    @DisplayName("Test second lookup by id or email is served from the cache")
+    void testReadThrough() {
+        assertEquals("john@example.com", cache.getById(1L, this::findById).orElseThrow().getEmail());
+        assertEquals(1L, cache.getByEmail("john@example.com", this::findByEmail).orElseThrow().getId());
+
+        assertEquals(1, loads.get(), "Only the first lookup should reach the loader");
+        assertEquals(1L, cache.getStatistics().get("hits"));
+    }
+
+    // Test 2: Callers cannot change cached state
+    @Test
+    @DisplayName("Test returned persons are copies")
+    void testReturnsCopies() {
+        cache.getById(1L, this::findById).orElseThrow().setFirstName("Changed");
+
+        assertEquals("John", cache.getById(1L, this::findById).orElseThrow().getFirstName());
+    }
+
+    // Test 3: TTL
+    @Test
+    @DisplayName("Test entries are reloaded after the TTL")
+    void testExpiry() {
+        cache.getById(1L, this::findById);
+        now.set(1000);
+        cache.getById(1L, this::findById);
+
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.getStatistics().get("evictions"));
+    }
+
+    // Test 4: Size bound
+    @Test
+    @DisplayName("Test least recently used entry is evicted")
+    void testLruEviction() {
+        cache.getById(1L, this::findById);
+        cache.getById(2L, this::findById);
+        cache.getById(1L, this::findById);
+        cache.getById(3L, this::findById);
+
+        assertEquals(2, cache.size());
+        cache.getByEmail("jane@example.com", this::findByEmail);
+        assertEquals(4, loads.get(), "Evicted entry should be loaded again");
+    }
+
+    // Test 5: Invalidation
+    @Test
+    @DisplayName("Test invalidated entry is reloaded with new values")
+    void testInvalidate() {
+        cache.getById(1L, this::findById);
+        table.get(1L).setEmail("john.new@example.com");
+        cache.invalidate(1L);
+
+        assertEquals("john.new@example.com", cache.getById(1L, this::findById).orElseThrow().getEmail());
+        assertTrue(cache.getByEmail("john@example.com", this::findByEmail).isEmpty(),
+                "Old email should no longer resolve");
+    }
+
+    private Optional<Person> findById(Long id) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(table.get(id));
+    }
+
+    private Optional<Person> findByEmail(String email) {
+        loads.incrementAndGet();
+        return table.values().stream().filter(p -> p.getEmail().equals(email)).findFirst();
+    }
+
+    private Person person(Long id, String email) {
+        Person person = new Person(email, "hash", "John", "Doe", Role.CUSTOMER);
+        person.setId(id);
+        return person;
+    }
+}
@@ -0,0 +1,190 @@
+package com.luggagestorage.socket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Loopback tests for NioSocketTransport.
+ * Tests line framing, the line length cap, QUIT, ordering of untagged commands and the limits that
+ * answer with an error instead of queueing more work.
+ */
+class NioSocketTransportTest {
+
+    private final SocketServerMetrics metrics = new SocketServerMetrics();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService workers;
+    private NioSocketTransport transport;
+    private Socket socket;
+    private BufferedReader in;
+    private OutputStream out;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        release.countDown();
+        if (socket != null) {
+            socket.close();
+        }
+        if (transport != null) {
+            transport.stop();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    // Test 1: Framing
+    @Test
+    @DisplayName("Test commands split across reads or sharing one read are framed by newline")
+    void testLineFraming() throws Exception {
+        connect(Executors.newFixedThreadPool(2));
+
+        write("PI");
+        Thread.sleep(50);
+        write("NG\r\nSTATUS\nLOCKERS\n");
+
+        assertEquals(echo("PING"), in.readLine(), "A line split across reads should be joined");
+        assertEquals(echo("STATUS"), in.readLine());
+        assertEquals(echo("LOCKERS"), in.readLine());
+    }
+
+    // Test 2: Line length cap
+    @Test
+    @DisplayName("Test a line longer than the cap is answered with an error and the connection is closed")
+    void testOverlongLine() throws Exception {
+        connect(Executors.newFixedThreadPool(2));
+
+        char[] line = new char[8193];
+        Arrays.fill(line, 'x');
+        write(new String(line));
+
+        assertEquals("{\"error\":\"Command too long\"}", in.readLine());
+        assertNull(in.readLine(), "The connection should be closed after the error");
+    }
+
+    // Test 3: QUIT
+    @Test
+    @DisplayName("Test QUIT answers earlier commands, says goodbye and ignores the rest")
+    void testQuit() throws Exception {
+        connect(Executors.newFixedThreadPool(2));
+
+        write("PING\nQUIT\nPING\n");
+
+        assertEquals(echo("PING"), in.readLine());
+        assertEquals("{\"message\":\"Goodbye!\"}", in.readLine());
+        assertNull(in.readLine(), "Nothing after QUIT should be answered");
+    }
+
+    // Test 4: Ordering
+    @Test
+    @DisplayName("Test untagged commands are answered in request order while tagged ones may overtake")
+    void testUntaggedOrdering() throws Exception {
+        connect(Executors.newFixedThreadPool(4));
+
+        write("SLOW 200\nSLOW 100\nFAST\n");
+
+        assertEquals(echo("SLOW 200"), in.readLine());
+        assertEquals(echo("SLOW 100"), in.readLine());
+        assertEquals(echo("FAST"), in.readLine());
+
+        write("#a SLOW 200\n#b FAST\n");
+
+        assertEquals("#b " + echo("FAST"), in.readLine(), "A tagged command should not wait for earlier ones");
+        assertEquals("#a " + echo("SLOW 200"), in.readLine());
+    }
+
+    // Test 5: Worker pool full
+    @Test
+    @DisplayName("Test commands rejected by the worker pool are answered with a busy error")
+    void testWorkerRejection() throws Exception {
+        connect(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>()));
+
+        write("#1 BLOCK\n#2 PING\nPING\n");
+
+        assertEquals("#2 {\"error\":\"Server busy, please retry\"}", in.readLine());
+        assertEquals("{\"error\":\"Server busy, please retry\"}", in.readLine());
+        release.countDown();
+        assertEquals("#1 " + echo("BLOCK"), in.readLine());
+        assertEquals(2, metrics.getRejectedCommands());
+    }
+
+    // Test 6: Pending command limit
+    @Test
+    @DisplayName("Test untagged commands beyond the pending limit are rejected and the rest still run")
+    void testMaxPendingCommands() throws Exception {
+        connect(Executors.newFixedThreadPool(1));
+
+        StringBuilder commands = new StringBuilder("BLOCK\n");
+        for (int i = 0; i < 65; i++) {
+            commands.append("PING ").append(i).append('\n');
+        }
+        write(commands.toString());
+
+        assertEquals("{\"error\":\"Too many pending commands\"}", in.readLine(),
+                "Only the command over the limit should be answered while the connection is busy");
+        release.countDown();
+        assertEquals(echo("BLOCK"), in.readLine());
+        for (int i = 0; i < 64; i++) {
+            assertEquals(echo("PING " + i), in.readLine());
+        }
+        assertEquals(1, metrics.getRejectedCommands());
+    }
+
+    private void connect(ExecutorService workerPool) throws Exception {
+        workers = workerPool;
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+
+        transport = new NioSocketTransport(port, 1, workers, this::handle, id -> "{\"client\":" + id + "}",
+                metrics, new AtomicInteger(), new SocketSubscriptionRegistry(metrics), 256);
+        transport.start();
+
+        socket = new Socket("localhost", port);
+        socket.setSoTimeout(5000);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = socket.getOutputStream();
+        assertEquals("{\"client\":1}", in.readLine(), "The welcome message should come first");
+    }
+
+    private String handle(String command, SocketSubscriber subscriber) {
+        try {
+            if (command.equals("BLOCK")) {
+                release.await(5, TimeUnit.SECONDS);
+            } else if (command.startsWith("SLOW ")) {
+                Thread.sleep(Long.parseLong(command.substring(5)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return echo(command);
+    }
+
+    private void write(String data) throws IOException {
+        out.write(data.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static String echo(String command) {
+        return "{\"echo\":\"" + command + "\"}";
+    }
+}
@@ -0,0 +1,45 @@
+package com.luggagestorage.socket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SocketRequest.
+ * Tests parsing of plain and tagged (pipelined) protocol lines.
+ */
+class SocketRequestTest {
+
+    // Test 1: Plain commands are untouched
+    @Test
+    @DisplayName("Test untagged command is parsed without a tag")
+    void testUntaggedCommand() {
+        SocketRequest request = SocketRequest.parse("  LOCKERS ");
+
+        assertFalse(request.isTagged(), "Plain command should not be tagged");
+        assertEquals("LOCKERS", request.getCommand());
+        assertEquals("{}", request.respond("{}"), "Response should not be prefixed");
+    }
+
+    // Test 2: Tagged commands
+    @Test
+    @DisplayName("Test tagged command keeps its tag in the response")
+    void testTaggedCommand() {
+        SocketRequest request = SocketRequest.parse("#42 bookings");
+
+        assertTrue(request.isTagged(), "Command should be tagged");
+        assertEquals("42", request.getTag());
+        assertEquals("bookings", request.getCommand());
+        assertEquals("#42 {\"count\":0}", request.respond("{\"count\":0}"));
+    }
+
+    // Test 3: QUIT and malformed tags
+    @Test
+    @DisplayName("Test tagged QUIT is recognised and malformed tags fall back to plain commands")
+    void testQuitAndMalformedTags() {
+        assertTrue(SocketRequest.parse("#1 quit").isQuit(), "Tagged QUIT should be recognised");
+        assertFalse(SocketRequest.parse("# STATUS").isTagged(), "Empty tag should not be accepted");
+        assertFalse(SocketRequest.parse("#" + "x".repeat(40) + " STATUS").isTagged(), "Overlong tag should not be accepted");
+    }
+}
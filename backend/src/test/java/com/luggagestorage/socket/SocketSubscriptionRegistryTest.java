@@ -0,0 +1,112 @@
+package com.luggagestorage.socket;
+
+import com.luggagestorage.model.dto.LockerAvailabilityEvent;
+import com.luggagestorage.model.enums.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SocketSubscriptionRegistry.
+ * Tests topic and location filtering and eviction of slow subscribers.
+ */
+class SocketSubscriptionRegistryTest {
+
+    private SocketServerMetrics metrics;
+    private SocketSubscriptionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new SocketServerMetrics();
+        registry = new SocketSubscriptionRegistry(metrics);
+    }
+
+    // Test 1: Location filter
+    @Test
+    @DisplayName("Test subscribers only receive events for their location")
+    void testLocationFilter() {
+        RecordingSubscriber airport = new RecordingSubscriber(1, 10);
+        RecordingSubscriber everywhere = new RecordingSubscriber(2, 10);
+        registry.subscribe(airport, SocketSubscriptionRegistry.Topic.LOCKERS, "Central Airport");
+        registry.subscribe(everywhere, SocketSubscriptionRegistry.Topic.LOCKERS, null);
+
+        registry.publishLockerEvent(lockerEvent("central airport"));
+        registry.publishLockerEvent(lockerEvent("Train Station"));
+
+        assertEquals(1, airport.messages.size(), "Filtered subscriber should get one event");
+        assertTrue(airport.messages.get(0).startsWith("!LOCKERS {"), "Push should be prefixed with its topic");
+        assertEquals(2, everywhere.messages.size(), "Unfiltered subscriber should get both events");
+    }
+
+    // Test 2: Topics are independent
+    @Test
+    @DisplayName("Test booking subscribers do not receive locker events")
+    void testTopicFilter() {
+        RecordingSubscriber subscriber = new RecordingSubscriber(1, 10);
+        registry.subscribe(subscriber, SocketSubscriptionRegistry.Topic.BOOKINGS, null);
+
+        registry.publishLockerEvent(lockerEvent("Train Station"));
+
+        assertTrue(subscriber.messages.isEmpty());
+    }
+
+    // Test 3: Slow consumers
+    @Test
+    @DisplayName("Test subscriber with a full queue is evicted")
+    void testSlowSubscriberEvicted() {
+        RecordingSubscriber slow = new RecordingSubscriber(1, 1);
+        registry.subscribe(slow, SocketSubscriptionRegistry.Topic.LOCKERS, null);
+
+        registry.publishLockerEvent(lockerEvent("Train Station"));
+        registry.publishLockerEvent(lockerEvent("Train Station"));
+        registry.publishLockerEvent(lockerEvent("Train Station"));
+
+        assertTrue(slow.evicted, "Slow subscriber should be evicted");
+        assertEquals(1, slow.messages.size(), "No events should be delivered after eviction");
+        assertEquals(0, registry.getSubscriberCount());
+        assertEquals(1, metrics.getEvictedSubscribers());
+    }
+
+    private LockerAvailabilityEvent lockerEvent(String location) {
+        LockerAvailabilityEvent event = new LockerAvailabilityEvent(1L, "A-001", Status.AVAILABLE, "SMALL", "Locker now available");
+        event.setLocationName(location);
+        return event;
+    }
+
+    private static final class RecordingSubscriber implements SocketSubscriber {
+
+        private final int clientId;
+        private final int capacity;
+        private final List<String> messages = new ArrayList<>();
+        private boolean evicted;
+
+        RecordingSubscriber(int clientId, int capacity) {
+            this.clientId = clientId;
+            this.capacity = capacity;
+        }
+
+        @Override
+        public int getClientId() {
+            return clientId;
+        }
+
+        @Override
+        public boolean push(String message) {
+            if (messages.size() >= capacity) {
+                return false;
+            }
+            messages.add(message);
+            return true;
+        }
+
+        @Override
+        public void evict(String reason) {
+            evicted = true;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.luggagestorage.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeysetPage.
+ * Tests limit clamping and the next-cursor header.
+ */
+class KeysetPageTest {
+
+    // Test 1: Full page
+    @Test
+    @DisplayName("Test full page carries the last id as next cursor")
+    void testFullPageHasCursor() {
+        ResponseEntity<List<Long>> response = KeysetPage.response(List.of(4L, 7L, 9L), 3L, 3,
+                Function.identity(), Function.identity());
+
+        assertEquals("9", response.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER));
+        assertEquals(List.of(4L, 7L, 9L), response.getBody());
+    }
+
+    // Test 2: Last page
+    @Test
+    @DisplayName("Test short page has no next cursor")
+    void testLastPageHasNoCursor() {
+        ResponseEntity<List<Long>> response = KeysetPage.response(List.of(4L, 7L), null, 3,
+                Function.identity(), Function.identity());
+
+        assertNull(response.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER));
+    }
+
+    // Test 3: Unpaged requests
+    @Test
+    @DisplayName("Test unpaged request never gets a cursor")
+    void testUnpagedRequest() {
+        ResponseEntity<List<Long>> response = KeysetPage.response(List.of(1L), null, null,
+                Function.identity(), Function.identity());
+
+        assertFalse(KeysetPage.isRequested(null, null));
+        assertNull(response.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER));
+    }
+
+    // Test 4: Limits
+    @Test
+    @DisplayName("Test limit is clamped to the allowed range")
+    void testLimitClamped() {
+        assertEquals(KeysetPage.DEFAULT_LIMIT, KeysetPage.size(null));
+        assertEquals(1, KeysetPage.size(0));
+        assertEquals(KeysetPage.MAX_LIMIT, KeysetPage.size(100_000));
+        assertEquals(0L, KeysetPage.after(null));
+    }
+}
@@ -30,7 +30,12 @@ export const useWebSocket = (topic, onMessage) => {
         client.current.subscribe(topic, (message) => {
           if (onMessage) {
             const parsedMessage = JSON.parse(message.body);
-            onMessage(parsedMessage);
+            // Bulk operations publish a batch of events in one message
+            if (Array.isArray(parsedMessage)) {
+              parsedMessage.forEach((event) => onMessage(event));
+            } else {
+              onMessage(parsedMessage);
+            }
           }
         });
       }
@@ -41,6 +41,8 @@ const apiService = {
   // Authentication
   register: (userData) => api.post('/auth/register', userData),
   login: (credentials) => api.post('/auth/login', credentials),
+  // The token is passed explicitly because local storage is cleared before the request goes out
+  logout: (token) => api.post('/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } }),
 
   // Lockers
   getAllLockers: () => api.get('/lockers'),
@@ -56,6 +58,8 @@ const apiService = {
   getCustomerBookings: (customerId) => api.get(`/bookings/customer/${customerId}`),
   getMyBookings: () => api.get('/bookings/my-bookings'),
   createBooking: (bookingData) => api.post('/bookings', bookingData),
+  createBookings: (bookings) => api.post('/bookings/batch', { bookings }),
+  autoBook: (requestData) => api.post('/bookings/auto', requestData),
   updateBooking: (id, bookingData) => api.put(`/bookings/${id}`, bookingData),
   cancelBooking: (id) => api.put(`/bookings/${id}/cancel`),
   completeBooking: (id) => api.put(`/bookings/${id}/complete`),